@@ -0,0 +1,106 @@
+package com.github.coderodde.game.connect4.jmh;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class micro-benchmarks the basic operations of 
+ * {@link ConnectFourBoard}. Each invocation walks over the whole position 
+ * suite, so the scores are per suite.
+ * 
+ * @version 1.0.0 (Jul 4, 2024)
+ * @since 1.0.0 (Jul 4, 2024)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConnectFourBoardBenchmark {
+    
+    private static final int SUITE_SIZE = 64;
+    
+    @Param({"4", "12", "24"})
+    public int plies;
+    
+    private ConnectFourBoard[] positions;
+    private PlayerType[] playersToMove;
+    
+    @Setup
+    public void setup() {
+        positions = PositionSuite.getPositions(SUITE_SIZE, plies);
+        playersToMove = new PlayerType[SUITE_SIZE];
+        
+        for (int i = 0; i < SUITE_SIZE; i++) {
+            playersToMove[i] = PositionSuite.getPlayerToMove(positions[i]);
+        }
+    }
+    
+    @Benchmark
+    public void makeAndUnmakePly(final Blackhole blackhole) {
+        for (int i = 0; i < SUITE_SIZE; i++) {
+            final ConnectFourBoard board = positions[i];
+            
+            for (int x = 0; x < COLUMNS; x++) {
+                if (board.makePly(x, playersToMove[i])) {
+                    blackhole.consume(board.isTerminal());
+                    board.unmakePly(x);
+                }
+            }
+        }
+    }
+    
+    @Benchmark
+    public int isWinningFor() {
+        int wins = 0;
+        
+        for (final ConnectFourBoard board : positions) {
+            if (board.isWinningFor(PlayerType.MINIMIZING_PLAYER)) {
+                wins++;
+            }
+            
+            if (board.isWinningFor(PlayerType.MAXIMIZING_PLAYER)) {
+                wins++;
+            }
+        }
+        
+        return wins;
+    }
+    
+    @Benchmark
+    public void expand(final Blackhole blackhole) {
+        for (int i = 0; i < SUITE_SIZE; i++) {
+            final List<ConnectFourBoard> children = 
+                    positions[i].expand(playersToMove[i]);
+            
+            blackhole.consume(children);
+        }
+    }
+    
+    @Benchmark
+    public int hashCodes() {
+        int hash = 0;
+        
+        for (final ConnectFourBoard board : positions) {
+            hash ^= board.hashCode();
+        }
+        
+        return hash;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.coderodde.game.connect4.jmh;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.ConnectFourHeuristicFunction;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class micro-benchmarks the heuristic functions over the position suite.
+ * 
+ * @version 1.0.0 (Jul 4, 2024)
+ * @since 1.0.0 (Jul 4, 2024)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HeuristicFunctionBenchmark {
+    
+    private static final int SUITE_SIZE = 64;
+    
+    @Param({"cell-by-cell", "bitboard"})
+    public String heuristicFunctionName;
+    
+    @Param({"4", "12", "24"})
+    public int plies;
+    
+    private HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private ConnectFourBoard[] positions;
+    
+    @Setup
+    public void setup() {
+        positions = PositionSuite.getPositions(SUITE_SIZE, plies);
+        heuristicFunction = switch (heuristicFunctionName) {
+            case "cell-by-cell" -> new ConnectFourHeuristicFunction();
+            case "bitboard" -> new ConnectFourBitboardHeuristicFunction();
+            default -> throw new IllegalArgumentException(
+                    "Unknown heuristic function: " + heuristicFunctionName);
+        };
+    }
+    
+    @Benchmark
+    public long evaluate() {
+        long sum = 0L;
+        
+        for (final ConnectFourBoard board : positions) {
+            sum += heuristicFunction.evaluate(board, 0);
+        }
+        
+        return sum;
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.coderodde.game.connect4.jmh;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Random;
+
+/**
+ * This class generates the fixed suite of positions the benchmarks run on. The
+ * positions are reproducible: the same seed yields the same suite.
+ * 
+ * @version 1.0.0 (Jul 4, 2024)
+ * @since 1.0.0 (Jul 4, 2024)
+ */
+final class PositionSuite {
+    
+    static final long SEED = 13L;
+    
+    private PositionSuite() {
+    
+    }
+    
+    /**
+     * Returns {@code size} random non-terminal positions with {@code plies} 
+     * plies each. The minimizing player moves first, as in the game.
+     * 
+     * @param size  the number of positions.
+     * @param plies the number of plies in each position.
+     * @return the positions.
+     */
+    static ConnectFourBoard[] getPositions(final int size, final int plies) {
+        final Random random = new Random(SEED + plies);
+        final ConnectFourBoard[] positions = new ConnectFourBoard[size];
+        
+        for (int i = 0; i < size;) {
+            final ConnectFourBoard board = new ConnectFourBoard();
+            PlayerType playerType = PlayerType.MINIMIZING_PLAYER;
+            
+            for (int ply = 0; ply < plies && !board.isTerminal();) {
+                if (board.makePly(random.nextInt(COLUMNS), playerType)) {
+                    playerType = playerType.flip();
+                    ply++;
+                }
+            }
+            
+            if (!board.isTerminal()) {
+                positions[i++] = board;
+            }
+        }
+        
+        return positions;
+    }
+    
+    /**
+     * Returns the player to move in {@code board}.
+     * 
+     * @param board the board.
+     * @return the player to move.
+     */
+    static PlayerType getPlayerToMove(final ConnectFourBoard board) {
+        return board.getEmptyCellCount() % 2 == 0 ? 
+               PlayerType.MINIMIZING_PLAYER :
+               PlayerType.MAXIMIZING_PLAYER;
+    }
+}
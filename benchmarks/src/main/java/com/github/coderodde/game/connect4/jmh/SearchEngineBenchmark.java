@@ -0,0 +1,139 @@
+package com.github.coderodde.game.connect4.jmh;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.impl.ConnectFourAlphaBetaPruningSearchEngine;
+import com.github.coderodde.game.connect4.impl.ConnectFourMTDFSearchEngine;
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.connect4.impl.ConnectFourPrincipalVariationSearchEngine;
+import com.github.coderodde.game.connect4.impl.ForkJoinConnectFourSearchEngine;
+import com.github.coderodde.game.connect4.impl.ParallelConnectFourAlphaBetaPruningSearchEngine;
+import com.github.coderodde.game.connect4.impl.YoungBrothersWaitConnectFourSearchEngine;
+import com.github.coderodde.game.zerosum.AlphaBetaPruningSearchEngine;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class macro-benchmarks the search engines. Each invocation searches the
+ * whole position suite to a fixed depth with a fresh engine, so that no 
+ * transposition table entries leak from one invocation into the next.
+ * 
+ * @version 1.0.0 (Jul 4, 2024)
+ * @since 1.0.0 (Jul 4, 2024)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchEngineBenchmark {
+    
+    private static final int SUITE_SIZE = 8;
+    private static final int SUITE_PLIES = 8;
+    
+    @Param({
+        "AlphaBetaPruningSearchEngine",
+        "ConnectFourAlphaBetaPruningSearchEngine",
+        "ParallelConnectFourAlphaBetaPruningSearchEngine",
+        "ConnectFourPrincipalVariationSearchEngine",
+        "ConnectFourMTDFSearchEngine",
+        "ConnectFourNegamaxSearchEngine",
+        "ForkJoinConnectFourSearchEngine",
+        "YoungBrothersWaitConnectFourSearchEngine",
+    })
+    public String engineName;
+    
+    @Param({"4", "6", "8"})
+    public int depth;
+    
+    private final HeuristicFunction<ConnectFourBoard> heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    private ConnectFourBoard[] positions;
+    private ForkJoinPool pool;
+    private SearchEngine<ConnectFourBoard> engine;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        positions = PositionSuite.getPositions(SUITE_SIZE, SUITE_PLIES);
+        pool = new ForkJoinPool();
+    }
+    
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        engine = createEngine();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        pool.shutdown();
+    }
+    
+    @Benchmark
+    public void search(final Blackhole blackhole) {
+        for (final ConnectFourBoard position : positions) {
+            blackhole.consume(
+                    engine.search(position, 
+                                  depth, 
+                                  PositionSuite.getPlayerToMove(position)));
+        }
+    }
+    
+    private SearchEngine<ConnectFourBoard> createEngine() {
+        return switch (engineName) {
+            case "AlphaBetaPruningSearchEngine" -> 
+                new AlphaBetaPruningSearchEngine<>(heuristicFunction);
+            
+            case "ConnectFourAlphaBetaPruningSearchEngine" -> 
+                new ConnectFourAlphaBetaPruningSearchEngine(heuristicFunction);
+            
+            case "ParallelConnectFourAlphaBetaPruningSearchEngine" -> 
+                new ParallelConnectFourAlphaBetaPruningSearchEngine(
+                        heuristicFunction, 
+                        2);
+            
+            case "ConnectFourPrincipalVariationSearchEngine" -> 
+                new ConnectFourPrincipalVariationSearchEngine(
+                        heuristicFunction);
+            
+            case "ConnectFourMTDFSearchEngine" -> 
+                new ConnectFourMTDFSearchEngine(heuristicFunction);
+            
+            case "ConnectFourNegamaxSearchEngine" -> 
+                new ConnectFourNegamaxSearchEngine(heuristicFunction);
+            
+            case "ForkJoinConnectFourSearchEngine" -> 
+                new ForkJoinConnectFourSearchEngine(
+                        heuristicFunction, 
+                        pool, 
+                        ForkJoinConnectFourSearchEngine.DEFAULT_SPLIT_HEIGHT);
+            
+            case "YoungBrothersWaitConnectFourSearchEngine" -> 
+                new YoungBrothersWaitConnectFourSearchEngine(
+                        heuristicFunction, 
+                        pool, 
+                        YoungBrothersWaitConnectFourSearchEngine
+                                .DEFAULT_MINIMUM_SPLIT_DEPTH);
+            
+            default -> throw new IllegalArgumentException(
+                    "Unknown search engine: " + engineName);
+        };
+    }
+}
@@ -1,11 +1,19 @@
 package com.github.coderodde.game.connect4;
 
+import com.github.coderodde.game.connect4.book.OpeningBook;
+import com.github.coderodde.game.connect4.book.OpeningBookSearchEngine;
 import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.PersistentTranspositionTable;
 import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Scanner;
 import com.github.coderodde.game.zerosum.SearchEngine;
 import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
 import com.github.coderodde.game.connect4.impl.ParallelConnectFourAlphaBetaPruningSearchEngine;
+import com.github.coderodde.game.connect4.impl.PersistentTranspositionTableSearchEngine;
 
 /**
  * This class implements the REPL for playring Connect Four against an AI bot.
@@ -15,19 +23,21 @@ import com.github.coderodde.game.connect4.impl.ParallelConnectFourAlphaBetaPruni
  */
 public class ConnectFour {
    
-    private static final int DEFAULT_DEPTH = 8;
-    private static final int MINIMUM_DEPTH = 1;
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 1000L;
+    private static final long MINIMUM_TIME_BUDGET_MILLIS = 10L;
 
-    public static void main(String[] args) {
-        final int depth = 8; // parseDepth(args);
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+        final Duration timeBudget = parseTimeBudget(args);
         
-        System.out.printf(">>> Using search depth: %d.\n", depth);
+        System.out.printf(">>> Using time budget: %d milliseconds.\n", 
+                          timeBudget.toMillis());
         
         final Scanner scanner = new Scanner(System.in);
         final HeuristicFunction<ConnectFourBoard> heuristicFunction = 
-                new ConnectFourHeuristicFunction();
+                new ConnectFourBitboardHeuristicFunction();
         
-        final SearchEngine<ConnectFourBoard> bot = 
+        SearchEngine<ConnectFourBoard> bot = 
                 new ConnectFourNegamaxSearchEngine(heuristicFunction);
         
 //        final SearchEngine<ConnectFourBoard> bot = 
@@ -35,93 +45,129 @@ public class ConnectFour {
 //                        heuristicFunction, 
 //                        2);
         
-
-        ConnectFourBoard currentBoard = new ConnectFourBoard();
-        
-        while (true) {
-            System.out.println(currentBoard);
+        if (args.length > 2) {
+            // The third argument is the persistent transposition table file:
+            final PersistentTranspositionTable persistentTable =
+                    PersistentTranspositionTableSearchEngine.openTable(
+                            Path.of(args[2]),
+                            TranspositionTable.DEFAULT_CAPACITY);
             
-            final String command = scanner.next().trim();
+            System.out.printf(
+                    ">>> Using persistent transposition table with %d " +
+                    "entries.\n",
+                    persistentTable.getCapacity());
             
-            if (command.equals("quit") || command.equals("q")) {
-                return;
-            }
-            
-            int column;
+            bot = new PersistentTranspositionTableSearchEngine(
+                    bot, 
+                    persistentTable);
+        }
+        
+        if (args.length > 1) {
+            // The second argument is the opening book file:
+            final OpeningBook openingBook = OpeningBook.open(Path.of(args[1]));
             
-            try {
-                column = Integer.parseInt(command);
-            } catch (final NumberFormatException ex) {
-                System.out.printf(">>> Command \"%s\" not recognized.\n",
-                                  command);
-                continue;
-            }
+            System.out.printf(">>> Using opening book with %d positions.\n",
+                              openingBook.size());
             
-            if (0 < column && column <= ConnectFourBoard.COLUMNS) {
-                column--; // 1-based indexing to 0-based.
-                
-                currentBoard.makePly(
-                        column,
-                        PlayerType.MINIMIZING_PLAYER);
-                
-                long startTime = System.currentTimeMillis();
-                
-                final ConnectFourBoard nextConnectFourBoard = 
-                        bot.search(currentBoard, depth);
-                
-                long endTime = System.currentTimeMillis();
+            bot = new OpeningBookSearchEngine(bot, openingBook);
+        }
+
+        ConnectFourBoard currentBoard = new ConnectFourBoard();
+        
+        // Thinks on the human's time:
+        final Ponderer ponderer = 
+                new Ponderer(bot, timeBudget, PlayerType.MAXIMIZING_PLAYER);
+        
+        try (ponderer) {
+            while (true) {
+                System.out.println(currentBoard);
                 
-                System.out.printf(">>> AI took %d milliseconds.\n",
-                                  endTime - startTime);
+                final String command = scanner.next().trim();
                 
-                if (nextConnectFourBoard != null) {
-                    currentBoard = nextConnectFourBoard;
-                }
-                
-                if (currentBoard.isWinningFor(PlayerType.MINIMIZING_PLAYER)) {
-                    System.out.println(">>> You won!");
-                    System.out.println(currentBoard);
+                if (command.equals("quit") || command.equals("q")) {
                     return;
                 }
                 
-                if (currentBoard.isWinningFor(PlayerType.MAXIMIZING_PLAYER)) {
-                    System.out.println(">>> AI won!");
-                    System.out.println(currentBoard);
-                    return;
-                }
+                int column;
                 
-                if (currentBoard.isTie()) {
-                    System.out.println(">>> It's a tie!");
-                    System.out.println(currentBoard);
-                    return;
+                try {
+                    column = Integer.parseInt(command);
+                } catch (final NumberFormatException ex) {
+                    System.out.printf(">>> Command \"%s\" not recognized.\n",
+                                      command);
+                    continue;
                 }
                 
-                System.out.println(">>> Board after AI's move:");
+                if (0 < column && column <= ConnectFourBoard.COLUMNS) {
+                    column--; // 1-based indexing to 0-based.
+                    
+                    currentBoard.makePly(
+                            column,
+                            PlayerType.MINIMIZING_PLAYER);
+                    
+                    long startTime = System.currentTimeMillis();
+                    
+                    final ConnectFourBoard nextConnectFourBoard = 
+                            ponderer.respond(currentBoard);
+                    
+                    long endTime = System.currentTimeMillis();
+                    
+                    System.out.printf(">>> AI took %d milliseconds.\n",
+                                      endTime - startTime);
+                    
+                    if (nextConnectFourBoard != null) {
+                        currentBoard = nextConnectFourBoard;
+                    }
+                    
+                    if (currentBoard.isWinningFor(
+                            PlayerType.MINIMIZING_PLAYER)) {
+                        System.out.println(">>> You won!");
+                        System.out.println(currentBoard);
+                        return;
+                    }
+                    
+                    if (currentBoard.isWinningFor(
+                            PlayerType.MAXIMIZING_PLAYER)) {
+                        System.out.println(">>> AI won!");
+                        System.out.println(currentBoard);
+                        return;
+                    }
+                    
+                    if (currentBoard.isTie()) {
+                        System.out.println(">>> It's a tie!");
+                        System.out.println(currentBoard);
+                        return;
+                    }
+                    
+                    System.out.println(">>> Board after AI's move:");
+                    ponderer.start(currentBoard);
+                }
             }
         }
     }
     
     /**
-     * Attempts to read the search depth from the {@code args}. If not present,
-     * returns the default depth.
+     * Attempts to read the search time budget in milliseconds from the 
+     * {@code args}. If not present, returns the default time budget.
      * 
      * @param args the array of command line arguments.
      * 
-     * @return the search depth to use.
+     * @return the search time budget to use.
      */
-    private static int parseDepth(final String[] args) {
+    private static Duration parseTimeBudget(final String[] args) {
         if (args.length == 0) {
-            return DEFAULT_DEPTH;
+            return Duration.ofMillis(DEFAULT_TIME_BUDGET_MILLIS);
         }
         
-        int depth;
+        long timeBudgetMillis;
         
         try {
-            depth = Integer.parseInt(args[0]);
+            timeBudgetMillis = Long.parseLong(args[0]);
         } catch (final NumberFormatException ex) {
-            return DEFAULT_DEPTH;
+            return Duration.ofMillis(DEFAULT_TIME_BUDGET_MILLIS);
         }
         
-        return Math.max(depth, MINIMUM_DEPTH);
+        return Duration.ofMillis(
+                Math.max(timeBudgetMillis, MINIMUM_TIME_BUDGET_MILLIS));
     }
 }
@@ -0,0 +1,65 @@
+package com.github.coderodde.game.connect4;
+
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.PlayerType;
+
+/**
+ * This class implements the heuristic function of 
+ * {@link ConnectFourHeuristicFunction} over the bitboards of the players. 
+ * Shifting a bitboard by a line direction and ANDing it with itself leaves a 
+ * bit for each two-in-a-row block, so each term of the evaluation is a 
+ * population count instead of a cell-by-cell scan.
+ * 
+ * @version 1.0.0 (Jun 27, 2024)
+ * @since 1.0.0 (Jun 27, 2024)
+ */
+public final class ConnectFourBitboardHeuristicFunction 
+        implements HeuristicFunction<ConnectFourBoard> {
+    
+    @Override
+    public int evaluate(final ConnectFourBoard state, final int depth) {
+        final PlayerType winner = state.getWinner();
+        
+        if (winner == PlayerType.MINIMIZING_PLAYER) {
+            return ConnectFourHeuristicFunction
+                    .MINIMIZING_PLAYER_VICTORY_SCORE - depth;
+        }
+        
+        if (winner == PlayerType.MAXIMIZING_PLAYER) {
+            return ConnectFourHeuristicFunction
+                    .MAXIMIZING_PLAYER_VICTORY_SCORE + depth;
+        }
+        
+        return 
+            evaluateLines(
+                state.getBitboard(PlayerType.MAXIMIZING_PLAYER)) - 
+            evaluateLines(
+                state.getBitboard(PlayerType.MINIMIZING_PLAYER));
+    }
+    
+    /**
+     * Computes the two-in-a-row and three-in-a-row terms of a single player.
+     * 
+     * @param bitboard the bitboard of the player.
+     * 
+     * @return the terms of the player.
+     */
+    static int evaluateLines(final long bitboard) {
+        return evaluateLines(bitboard, ConnectFourBoard.VERTICAL_SHIFT) +
+               evaluateLines(bitboard, ConnectFourBoard.HORIZONTAL_SHIFT) +
+               evaluateLines(bitboard, ConnectFourBoard.ASCENDING_SHIFT) +
+               evaluateLines(bitboard, ConnectFourBoard.DESCENDING_SHIFT);
+    }
+    
+    private static int evaluateLines(final long bitboard, final int shift) {
+        // A bit of 'twos' marks the lowest disc of a two-in-a-row block. The 
+        // sentinel bits are never set, so no block wraps over columns:
+        final long twos = bitboard & (bitboard >>> shift);
+        final long threes = twos & (bitboard >>> (2 * shift));
+        
+        return ConnectFourHeuristicFunction.TWO_BLOCKS_SCORE *
+               Long.bitCount(twos) +
+               ConnectFourHeuristicFunction.THREE_BLOCKS_SCORE *
+               Long.bitCount(threes);
+    }
+}
@@ -4,30 +4,237 @@ import com.github.coderodde.game.zerosum.PlayerType;
 import com.github.coderodde.game.zerosum.GameState;
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class implements a board that corresponds to a game state in the game
- * search tree.
+ * search tree. 
+ * <p>
+ * The board is stored as two bitboards, one per player. Each column occupies
+ * {@code ROWS + 1} consecutive bits, the lowest bit of a column being its 
+ * bottom cell. The topmost bit of each column is a sentinel that is never set, 
+ * which keeps the shift-based line detection from wrapping over columns.
  * 
- * @version 1.0.0 (Jun 5, 2024)
+ * @version 1.1.0 (Jun 5, 2024)
  * @since 1.0.0 (Jun 5, 2024)
  */
 public class ConnectFourBoard implements GameState<ConnectFourBoard> {
-
+    
     public static final int ROWS = 6;
     public static final int COLUMNS = 7;
     public static final int VICTORY_LENGTH = 4;
     
-    final PlayerType[] boardData = new PlayerType[ROWS * COLUMNS];
+    /**
+     * The number of bits reserved for each column in a bitboard.
+     */
+    static final int COLUMN_HEIGHT = ROWS + 1;
+    
+    /**
+     * The mask of the playable bits in a single column.
+     */
+    static final long COLUMN_MASK = (1L << ROWS) - 1L;
+    
+    /**
+     * The mask of all the bits of a single column, the sentinel included.
+     */
+    private static final long COLUMN_BITS_MASK = (1L << COLUMN_HEIGHT) - 1L;
+    
+    /**
+     * The bit shifts stepping to the neighbouring cell in the vertical, 
+     * horizontal, ascending diagonal and descending diagonal directions.
+     */
+    static final int VERTICAL_SHIFT = 1;
+    static final int HORIZONTAL_SHIFT = COLUMN_HEIGHT;
+    static final int ASCENDING_SHIFT = COLUMN_HEIGHT + 1;
+    static final int DESCENDING_SHIFT = COLUMN_HEIGHT - 1;
+    
+    /**
+     * The bitboard mask of the topmost row of the board.
+     */
+    private static final long TOP_ROW_MASK;
+    
+    /**
+     * The bitboard mask of the bottom row of the board.
+     */
+    private static final long BOTTOM_ROW_MASK;
+    
+    /**
+     * The bitboard mask of all the cells of the board, without the sentinel 
+     * bits.
+     */
+    private static final long BOARD_MASK;
+    
+    /**
+     * The columns in the center-first order, the order 
+     * {@link #generateMoves(PlayerType, int[])} lists them in and the search 
+     * engines try the plies in. The central columns take part in the most 
+     * lines.
+     */
+    private static final int[] COLUMN_ORDER = { 3, 2, 4, 1, 5, 0, 6 };
+    
+    static {
+        long topRowMask = 0L;
+        long bottomRowMask = 0L;
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            topRowMask |= getCellBit(x, 0);
+            bottomRowMask |= getCellBit(x, ROWS - 1);
+        }
+        
+        TOP_ROW_MASK = topRowMask;
+        BOTTOM_ROW_MASK = bottomRowMask;
+        BOARD_MASK = bottomRowMask * COLUMN_MASK;
+    }
+    
+    /**
+     * The status flags of a board. A board with no flags set is not terminal.
+     * The flags may combine since a board filled by a winning ply is both won
+     * and full.
+     */
+    private static final int ONGOING = 0;
+    private static final int MAXIMIZING_PLAYER_WON = 1;
+    private static final int MINIMIZING_PLAYER_WON = 2;
+    private static final int FULL = 4;
+    
+    /**
+     * Denotes that the status of the board is not known and must be computed
+     * by scanning the entire board.
+     */
+    private static final int UNKNOWN = 8;
+    
+    /**
+     * The number of bits used for storing the column of a ply in the ply 
+     * history.
+     */
+    private static final int PLY_COLUMN_BITS = 3;
+    private static final int PLY_COLUMN_MASK = (1 << PLY_COLUMN_BITS) - 1;
+    
+    /**
+     * The SplitMix64 increment.
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    
+    /**
+     * The Zobrist keys of the discs of both players, indexed by the bit index
+     * of the cell. The keys are generated from a fixed seed so that they stay
+     * the same over runs.
+     */
+    private static final long[] MAXIMIZING_PLAYER_ZOBRIST_KEYS = 
+            new long[COLUMNS * COLUMN_HEIGHT];
+    
+    private static final long[] MINIMIZING_PLAYER_ZOBRIST_KEYS = 
+            new long[COLUMNS * COLUMN_HEIGHT];
+    
+    /**
+     * The Zobrist keys of the mirrored cells: the entry at the bit index of a
+     * cell is the key of the cell in the same row of the mirrored column.
+     */
+    private static final long[] MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS = 
+            new long[COLUMNS * COLUMN_HEIGHT];
+    
+    private static final long[] MIRRORED_MINIMIZING_PLAYER_ZOBRIST_KEYS = 
+            new long[COLUMNS * COLUMN_HEIGHT];
+    
+    /**
+     * Mixed into the Zobrist key when it is the minimizing player's turn.
+     */
+    private static final long MINIMIZING_PLAYER_TO_MOVE_ZOBRIST_KEY;
+    
+    static {
+        long seed = 0x436f6e6e65637434L;
+        
+        for (int i = 0; i < MAXIMIZING_PLAYER_ZOBRIST_KEYS.length; i++) {
+            seed += GOLDEN_GAMMA;
+            MAXIMIZING_PLAYER_ZOBRIST_KEYS[i] = splitMix64(seed);
+            seed += GOLDEN_GAMMA;
+            MINIMIZING_PLAYER_ZOBRIST_KEYS[i] = splitMix64(seed);
+        }
+        
+        MINIMIZING_PLAYER_TO_MOVE_ZOBRIST_KEY = 
+                splitMix64(seed + GOLDEN_GAMMA);
+        
+        for (int i = 0; i < MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS.length; 
+                i++) {
+            final int mirroredIndex = 
+                    (COLUMNS - 1 - i / COLUMN_HEIGHT) * COLUMN_HEIGHT + 
+                    i % COLUMN_HEIGHT;
+            
+            MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS[i] = 
+                    MAXIMIZING_PLAYER_ZOBRIST_KEYS[mirroredIndex];
+            
+            MIRRORED_MINIMIZING_PLAYER_ZOBRIST_KEYS[i] = 
+                    MINIMIZING_PLAYER_ZOBRIST_KEYS[mirroredIndex];
+        }
+    }
+    
+    /**
+     * The bitboard of the cells occupied by the maximizing player.
+     */
+    long maximizingPlayerBitboard;
+    
+    /**
+     * The bitboard of the cells occupied by the minimizing player.
+     */
+    long minimizingPlayerBitboard;
+    
+    /**
+     * The Zobrist key of the discs on this board.
+     */
+    private long zobristKey;
+    
+    /**
+     * The Zobrist key of the left-right mirror image of this board.
+     */
+    private long mirroredZobristKey;
+    
+    /**
+     * Whether this board keeps {@link #runningScore} up to date.
+     */
+    private boolean runningScoreEnabled;
+    
+    /**
+     * The two-in-a-row and three-in-a-row terms of the heuristic evaluation,
+     * updated by every ply when {@link #runningScoreEnabled} is set.
+     */
+    private int runningScore;
+    
+    /**
+     * The cached status of this board.
+     */
+    private int status = ONGOING;
+    
+    /**
+     * The history of plies made via {@link #makePly(int, PlayerType)}. Each 
+     * entry packs the column of the ply and the status of the board before the
+     * ply, so that {@link #unmakePly(int)} may restore the status without
+     * scanning the board.
+     */
+    private final byte[] plyHistory = new byte[ROWS * COLUMNS];
+    
+    /**
+     * The number of valid entries in {@link #plyHistory}.
+     */
+    private int plyHistorySize;
     
     public ConnectFourBoard(final ConnectFourBoard other) {
-        System.arraycopy(other.boardData, 0, boardData, 0, ROWS * COLUMNS);
+        this.maximizingPlayerBitboard = other.maximizingPlayerBitboard;
+        this.minimizingPlayerBitboard = other.minimizingPlayerBitboard;
+        this.zobristKey = other.zobristKey;
+        this.mirroredZobristKey = other.mirroredZobristKey;
+        this.runningScoreEnabled = other.runningScoreEnabled;
+        this.runningScore = other.runningScore;
+        this.status = other.status;
+        this.plyHistorySize = other.plyHistorySize;
+        
+        System.arraycopy(other.plyHistory, 
+                         0, 
+                         plyHistory, 
+                         0, 
+                         plyHistorySize);
     }
     
     public ConnectFourBoard() {
-        
+    
     }
     
     @Override
@@ -65,21 +272,309 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
     
     @Override
     public boolean isWinningFor(final PlayerType playerType) {
-        return hasAscendingDiagonalStrike(playerType, VICTORY_LENGTH) ||
-              hasDescendingDiagonalStrike(playerType, VICTORY_LENGTH) ||
-                      hasHorizontalStrike(playerType, VICTORY_LENGTH) ||
-                        hasVerticalStrike(playerType, VICTORY_LENGTH);
+        return (getStatus() & getWinFlag(playerType)) != 0;
     }
     
     @Override
     public boolean isTie() {
-        for (int x = 0; x < COLUMNS; x++) {
-            if (get(x, 0) == null) {
-                return false;
+        return (getStatus() & FULL) != 0;
+    }
+    
+    @Override
+    public boolean isTerminal() {
+        return getStatus() != ONGOING;
+    }
+    
+    @Override
+    public boolean supportsMoves() {
+        return true;
+    }
+    
+    @Override
+    public int getMaximumNumberOfMoves() {
+        return COLUMNS;
+    }
+    
+    /**
+     * Writes the columns that are not full to {@code moves}, the central 
+     * columns first.
+     * 
+     * @param playerType the player to move. Does not affect the moves.
+     * @param moves      the target array.
+     * 
+     * @return the number of columns written.
+     */
+    @Override
+    public int generateMoves(final PlayerType playerType, final int[] moves) {
+        final long occupied = getOccupiedBitboard();
+        int numberOfMoves = 0;
+        
+        for (final int x : COLUMN_ORDER) {
+            if ((occupied & getCellBit(x, 0)) == 0L) {
+                moves[numberOfMoves++] = x;
             }
         }
         
-        return true;
+        return numberOfMoves;
+    }
+    
+    @Override
+    public void makeMove(final int move, final PlayerType playerType) {
+        makePly(move, playerType);
+    }
+    
+    @Override
+    public void unmakeMove(final int move) {
+        unmakePly(move);
+    }
+    
+    @Override
+    public ConnectFourBoard getChild(final int move, 
+                                     final PlayerType playerType) {
+        return dropAtX(move, playerType);
+    }
+    
+    /**
+     * Returns the player that has a winning line on this board, or 
+     * {@code null} if there is no such player. Relies on the cached status of 
+     * the board.
+     * 
+     * @return the winning player or {@code null}.
+     */
+    public PlayerType getWinner() {
+        final int currentStatus = getStatus();
+        
+        if ((currentStatus & MINIMIZING_PLAYER_WON) != 0) {
+            return PlayerType.MINIMIZING_PLAYER;
+        }
+        
+        if ((currentStatus & MAXIMIZING_PLAYER_WON) != 0) {
+            return PlayerType.MAXIMIZING_PLAYER;
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Returns the Zobrist key of this board. The key depends only on the discs
+     * on the board and is updated incrementally by every modification.
+     * 
+     * @return the Zobrist key.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+    
+    /**
+     * Returns the Zobrist key of this board with the player to move mixed in.
+     * Search results depend on which player is to move, so this is the key to
+     * use for caching them.
+     * 
+     * @param playerToMove the player to move.
+     * 
+     * @return the Zobrist key.
+     */
+    public long getZobristKey(final PlayerType playerToMove) {
+        return playerToMove == PlayerType.MINIMIZING_PLAYER ?
+                zobristKey ^ MINIMIZING_PLAYER_TO_MOVE_ZOBRIST_KEY :
+                zobristKey;
+    }
+    
+    /**
+     * Returns the Zobrist key of the left-right mirror image of this board 
+     * with the player to move mixed in.
+     * 
+     * @param playerToMove the player to move.
+     * 
+     * @return the Zobrist key of the mirror image.
+     */
+    public long getMirroredZobristKey(final PlayerType playerToMove) {
+        return playerToMove == PlayerType.MINIMIZING_PLAYER ?
+                mirroredZobristKey ^ MINIMIZING_PLAYER_TO_MOVE_ZOBRIST_KEY :
+                mirroredZobristKey;
+    }
+    
+    /**
+     * Returns the smaller of {@link #getZobristKey(PlayerType)} and 
+     * {@link #getMirroredZobristKey(PlayerType)}. A board and its mirror image
+     * have the same canonical key, so caching search results by it lets the 
+     * two share an entry. Columns stored along with the results must be 
+     * converted by {@link #getCanonicalColumn(int, PlayerType)}.
+     * 
+     * @param playerToMove the player to move.
+     * 
+     * @return the canonical Zobrist key.
+     */
+    public long getCanonicalZobristKey(final PlayerType playerToMove) {
+        return Math.min(getZobristKey(playerToMove),
+                        getMirroredZobristKey(playerToMove));
+    }
+    
+    /**
+     * Converts the column {@code x} between this board and the board the 
+     * canonical key of which is the plain key: if the canonical key is the 
+     * mirrored one, the column is mirrored, otherwise it is returned as is. 
+     * The conversion is its own inverse, and negative values such as 
+     * {@link com.github.coderodde.game.zerosum.TranspositionTable#NO_MOVE}
+     * are returned as is.
+     * 
+     * @param x            the column to convert.
+     * @param playerToMove the player to move.
+     * 
+     * @return the converted column.
+     */
+    public int getCanonicalColumn(final int x, final PlayerType playerToMove) {
+        if (x < 0 || 
+                getMirroredZobristKey(playerToMove) >= 
+                getZobristKey(playerToMove)) {
+            return x;
+        }
+        
+        return COLUMNS - 1 - x;
+    }
+    
+    /**
+     * Computes a value that changes whenever the Zobrist keys of this class 
+     * change, which would invalidate every file storing such keys.
+     * 
+     * @return the fingerprint of the Zobrist keys.
+     */
+    public static long getZobristFingerprint() {
+        final ConnectFourBoard board = new ConnectFourBoard();
+        long fingerprint = board.getZobristKey(PlayerType.MINIMIZING_PLAYER);
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            board.makePly(x, PlayerType.MAXIMIZING_PLAYER);
+            board.makePly(x, PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        return fingerprint ^ board.getZobristKey();
+    }
+    
+    /**
+     * Returns the left-right mirror image of {@code bitboard}, which must use 
+     * the bit layout of this class.
+     * 
+     * @param bitboard the bitboard to mirror.
+     * 
+     * @return the mirrored bitboard.
+     */
+    public static long mirrorBitboard(final long bitboard) {
+        long mirrored = 0L;
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            final long column = 
+                    (bitboard >>> (x * COLUMN_HEIGHT)) & COLUMN_BITS_MASK;
+            
+            mirrored |= column << ((COLUMNS - 1 - x) * COLUMN_HEIGHT);
+        }
+        
+        return mirrored;
+    }
+    
+    /**
+     * Enables or disables keeping the running score. Enabling computes the 
+     * score from scratch; from then on, every ply adjusts it by looking only at
+     * the blocks through the changed cell.
+     * 
+     * @param enabled whether to keep the running score.
+     */
+    public void setRunningScoreEnabled(final boolean enabled) {
+        if (enabled && !runningScoreEnabled) {
+            runningScore = ConnectFourHeuristicFunction.evaluateLines(this);
+        }
+        
+        runningScoreEnabled = enabled;
+    }
+    
+    /**
+     * Returns {@code true} if this board keeps the running score.
+     * 
+     * @return {@code true} if the running score is kept.
+     */
+    public boolean isRunningScoreEnabled() {
+        return runningScoreEnabled;
+    }
+    
+    /**
+     * Returns the running score: the two-in-a-row and three-in-a-row terms of
+     * {@link ConnectFourHeuristicFunction}.
+     * 
+     * @return the running score.
+     * 
+     * @throws IllegalStateException if the running score is not kept.
+     */
+    public int getRunningScore() {
+        if (!runningScoreEnabled) {
+            throw new IllegalStateException("The running score is not kept.");
+        }
+        
+        return runningScore;
+    }
+    
+    /**
+     * Returns the number of empty cells on this board.
+     * 
+     * @return the number of empty cells.
+     */
+    public int getEmptyCellCount() {
+        return ROWS * COLUMNS - Long.bitCount(getOccupiedBitboard());
+    }
+    
+    /**
+     * Returns the column of the ply that leads from this board to 
+     * {@code child}, or -1 if {@code child} does not have exactly one disc 
+     * more than this board.
+     * 
+     * @param child the child board.
+     * 
+     * @return the column of the ply leading to {@code child}.
+     */
+    public int getPlyColumn(final ConnectFourBoard child) {
+        final long difference = 
+                getOccupiedBitboard() ^ child.getOccupiedBitboard();
+        
+        if (Long.bitCount(difference) != 1) {
+            return -1;
+        }
+        
+        return Long.numberOfTrailingZeros(difference) / COLUMN_HEIGHT;
+    }
+    
+    /**
+     * Returns the column of the last ply made via 
+     * {@link #makePly(int, PlayerType)}, or -1 if it is not known.
+     * 
+     * @return the column of the last ply.
+     */
+    public int getLastPlyColumn() {
+        if (plyHistorySize == 0) {
+            return -1;
+        }
+        
+        return plyHistory[plyHistorySize - 1] & PLY_COLUMN_MASK;
+    }
+    
+    /**
+     * Returns the columns of all the plies leading to this board from the 
+     * empty board, in the order they were made, or {@code null} if the 
+     * history does not account for every disc. The history is lost by 
+     * {@link #set(int, int, PlayerType)} and by undoing a ply out of order.
+     * 
+     * @return the columns of the plies, or {@code null}.
+     */
+    public int[] getPlyColumns() {
+        if (plyHistorySize != ROWS * COLUMNS - getEmptyCellCount()) {
+            return null;
+        }
+        
+        final int[] plyColumns = new int[plyHistorySize];
+        
+        for (int i = 0; i < plyHistorySize; i++) {
+            plyColumns[i] = plyHistory[i] & PLY_COLUMN_MASK;
+        }
+        
+        return plyColumns;
     }
     
     @Override
@@ -87,7 +582,7 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
         if (o == null) {
             return false;
         }
-            
+        
         if (o == this) {
             return true;
         }
@@ -98,12 +593,14 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
         
         final ConnectFourBoard other = (ConnectFourBoard) o;
         
-        return Arrays.equals(boardData, other.boardData);
+        return maximizingPlayerBitboard == other.maximizingPlayerBitboard &&
+               minimizingPlayerBitboard == other.minimizingPlayerBitboard;
     }
     
     @Override
     public int hashCode() {
-        return Arrays.hashCode(boardData);
+        return Long.hashCode(maximizingPlayerBitboard * 31L + 
+                             minimizingPlayerBitboard);
     }
     
     public List<Point> getWinningPattern() {
@@ -115,20 +612,20 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
         List<Point> winningPattern = null;
         
         for (int length = ROWS; length >= VICTORY_LENGTH; length--) {
-        
+            
             // Try load the vertical winning pattern:
             winningPattern = 
                     tryLoadVerticalWinningPattern(PlayerType.MINIMIZING_PLAYER,
                                                   length);
-
+            
             if (winningPattern != null) {
                 return winningPattern;
             }
-        
+            
             winningPattern = 
                     tryLoadVerticalWinningPattern(PlayerType.MAXIMIZING_PLAYER, 
                                                   length);
-
+            
             if (winningPattern != null) {
                 return winningPattern;
             }
@@ -137,7 +634,7 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
             winningPattern =
                 tryLoadAscendingWinningPattern(PlayerType.MINIMIZING_PLAYER,
                                                length);
-        
+            
             if (winningPattern != null) {
                 return winningPattern;
             }
@@ -145,21 +642,21 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
             winningPattern =
                 tryLoadAscendingWinningPattern(PlayerType.MAXIMIZING_PLAYER,
                                                length);
-        
+            
             if (winningPattern != null) {
                 return winningPattern;
             }
-
+            
             // Try to load the descending winning pattern:
             winningPattern = 
                     tryLoadDescendingWinningPattern(
                             PlayerType.MINIMIZING_PLAYER,
                             length);
-
+            
             if (winningPattern != null) {
                 return winningPattern;
             }
-
+            
             winningPattern = 
                     tryLoadDescendingWinningPattern(
                             PlayerType.MAXIMIZING_PLAYER,
@@ -169,7 +666,7 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
                 return winningPattern;
             }
         }
-
+        
         for (int length = COLUMNS; length >= VICTORY_LENGTH; length--) {
             
             winningPattern = 
@@ -195,117 +692,466 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
     }
     
     public PlayerType get(final int x, final int y) {
-        return boardData[y * COLUMNS + x];
+        final long bit = getCellBit(x, y);
+        
+        if ((maximizingPlayerBitboard & bit) != 0L) {
+            return PlayerType.MAXIMIZING_PLAYER;
+        }
+        
+        if ((minimizingPlayerBitboard & bit) != 0L) {
+            return PlayerType.MINIMIZING_PLAYER;
+        }
+        
+        return null;
     }
     
     public void set(final int x,
                     final int y,
                     final PlayerType playerType) {
-        boardData[y * COLUMNS + x] = playerType;
+        final long bit = getCellBit(x, y);
+        final int bitIndex = Long.numberOfTrailingZeros(bit);
+        
+        if ((maximizingPlayerBitboard & bit) != 0L) {
+            zobristKey ^= MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            updateRunningScore(maximizingPlayerBitboard, bit, -1);
+        } else if ((minimizingPlayerBitboard & bit) != 0L) {
+            zobristKey ^= MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            updateRunningScore(minimizingPlayerBitboard, bit, +1);
+        }
+        
+        maximizingPlayerBitboard &= ~bit;
+        minimizingPlayerBitboard &= ~bit;
+        
+        if (playerType == PlayerType.MAXIMIZING_PLAYER) {
+            maximizingPlayerBitboard |= bit;
+            zobristKey ^= MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            updateRunningScore(maximizingPlayerBitboard, bit, +1);
+        } else if (playerType == PlayerType.MINIMIZING_PLAYER) {
+            minimizingPlayerBitboard |= bit;
+            zobristKey ^= MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            updateRunningScore(minimizingPlayerBitboard, bit, -1);
+        }
+        
+        // An arbitrary edit invalidates both the status and the history:
+        status = UNKNOWN;
+        plyHistorySize = 0;
     }
     
     public boolean makePly(final int x, final PlayerType playerType) {
-        for (int y = ROWS - 1; y >= 0; y--) {
-            if (get(x, y) == null) {
-                set(x, y, playerType);
-                return true;
+        checkColumn(x);
+        
+        final int shift = x * COLUMN_HEIGHT;
+        final long column = (getOccupiedBitboard() >>> shift) & COLUMN_MASK;
+        
+        // The lowest empty cell in the column:
+        final int height = Long.numberOfTrailingZeros(~column);
+        
+        if (height >= ROWS) {
+            return false;
+        }
+        
+        final int bitIndex = shift + height;
+        final long bit = 1L << bitIndex;
+        final long bitboard;
+        
+        if (playerType == PlayerType.MAXIMIZING_PLAYER) {
+            bitboard = maximizingPlayerBitboard |= bit;
+            zobristKey ^= MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            updateRunningScore(bitboard, bit, +1);
+        } else {
+            bitboard = minimizingPlayerBitboard |= bit;
+            zobristKey ^= MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            updateRunningScore(bitboard, bit, -1);
+        }
+        
+        plyHistory[plyHistorySize++] = 
+                (byte)((status << PLY_COLUMN_BITS) | x);
+        
+        if (status != UNKNOWN) {
+            // Adding a disc never removes a line, so only the lines through
+            // the new disc need checking:
+            if (hasStrikeThrough(bitboard, bit)) {
+                status |= getWinFlag(playerType);
+            }
+            
+            if ((getOccupiedBitboard() & TOP_ROW_MASK) == TOP_ROW_MASK) {
+                status |= FULL;
             }
         }
         
-        return false;
+        return true;
     }
     
     public void unmakePly(final int x) {
-        for (int y = 0; y < ROWS; y++) {
-            if (get(x, y) != null) {
-                set(x, y, null);
-                return;
-            }
+        checkColumn(x);
+        
+        final long column = getOccupiedBitboard() & 
+                            (COLUMN_MASK << (x * COLUMN_HEIGHT));
+        
+        if (column == 0L) {
+            return;
+        }
+        
+        // Clear the topmost disc in the column:
+        final long bit = Long.highestOneBit(column);
+        final int bitIndex = Long.numberOfTrailingZeros(bit);
+        
+        if ((maximizingPlayerBitboard & bit) != 0L) {
+            updateRunningScore(maximizingPlayerBitboard, bit, -1);
+            maximizingPlayerBitboard &= ~bit;
+            zobristKey ^= MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MAXIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+        } else {
+            updateRunningScore(minimizingPlayerBitboard, bit, +1);
+            minimizingPlayerBitboard &= ~bit;
+            zobristKey ^= MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+            mirroredZobristKey ^= 
+                    MIRRORED_MINIMIZING_PLAYER_ZOBRIST_KEYS[bitIndex];
+        }
+        
+        if (plyHistorySize > 0 && 
+                (plyHistory[plyHistorySize - 1] & PLY_COLUMN_MASK) == x) {
+            // Undoing the last ply. Restore the status preceding it:
+            status = plyHistory[--plyHistorySize] >>> PLY_COLUMN_BITS;
+            return;
+        }
+        
+        // Undoing a ply out of order loses the history. A board known to have
+        // no winning line still has none after a disc is removed; a board of
+        // unknown status stays unknown:
+        plyHistorySize = 0;
+        
+        if (status != UNKNOWN && 
+                (status & (MAXIMIZING_PLAYER_WON | MINIMIZING_PLAYER_WON)) 
+                == 0) {
+            status = ONGOING;
+        } else {
+            status = UNKNOWN;
         }
     }
     
-    boolean hasHorizontalStrike(final PlayerType playerType, final int length) {
-        
-        final int lastX = COLUMNS - length;
+    /**
+     * Returns the bitboard of the cells occupied by {@code playerType}.
+     * 
+     * @param playerType the target player type.
+     * 
+     * @return the bitboard of {@code playerType}.
+     */
+    public long getBitboard(final PlayerType playerType) {
+        return playerType == PlayerType.MAXIMIZING_PLAYER ?
+                maximizingPlayerBitboard :
+                minimizingPlayerBitboard;
+    }
+    
+    /**
+     * Returns the bitboard of all the occupied cells.
+     * 
+     * @return the bitboard of all the occupied cells.
+     */
+    public long getOccupiedBitboard() {
+        return maximizingPlayerBitboard | minimizingPlayerBitboard;
+    }
+    
+    /**
+     * Returns the bitboard of the empty cells that would complete a line of 
+     * {@link #VICTORY_LENGTH} discs for {@code playerType}. The cells need not
+     * be playable right away.
+     * 
+     * @param playerType the target player type.
+     * 
+     * @return the winning cells of {@code playerType}.
+     */
+    public long getWinningCells(final PlayerType playerType) {
+        return getWinningCells(getBitboard(playerType), getOccupiedBitboard());
+    }
+    
+    /**
+     * Returns the plies worth searching for {@code playerType} as a bitboard 
+     * of the cells they drop a disc into. If {@code playerType} can win right
+     * away, only the winning ply is returned. Otherwise, if the opponent 
+     * threatens to win with the next disc, only the blocking plies are 
+     * returned, and the plies right below a winning cell of the opponent are 
+     * left out. If every ply loses, the losing plies are returned so that a 
+     * search still has a move to score; the result is empty only on a full 
+     * board.
+     * 
+     * @param playerType the player to move.
+     * 
+     * @return the bitboard of the candidate plies.
+     */
+    public long getCandidateMoves(final PlayerType playerType) {
+        final long position = getBitboard(playerType);
+        final long mask = getOccupiedBitboard();
+        final long possibleCells = getPossibleCells(mask);
+        final long winningMoves = 
+                possibleCells & getWinningCells(position, mask);
         
-        for (int y = ROWS - 1; y >= 0; y--) {
-            horizontalCheck:
-            for (int x = 0; x <= lastX; x++) {
-                for (int i = 0; i < length; i++) {
-                    if (get(x + i, y) != playerType) {
-                        continue horizontalCheck;
-                    }
-                }
-                
-                return true;
-            }
+        if (winningMoves != 0L) {
+            return Long.lowestOneBit(winningMoves);
         }
         
-        return false;
+        final long opponentWinningCells = 
+                getWinningCells(position ^ mask, mask);
+        
+        final long forcedMoves = possibleCells & opponentWinningCells;
+        final long candidateMoves = 
+                forcedMoves != 0L ? forcedMoves : possibleCells;
+        
+        final long nonLosingMoves = 
+                candidateMoves & ~(opponentWinningCells >>> 1);
+        
+        return nonLosingMoves != 0L ? nonLosingMoves : candidateMoves;
     }
     
-    boolean hasVerticalStrike(final PlayerType playerType, final int length) {
+    /**
+     * Returns the plies of the owner of {@code position} that do not let the 
+     * opponent win with the next disc. If the opponent has two immediate 
+     * threats, no ply saves the game and the result is empty.
+     * 
+     * @param position the discs of the player to move.
+     * @param mask     all the discs.
+     * 
+     * @return the bitboard of the non-losing plies.
+     */
+    public static long getNonLosingMoves(final long position, 
+                                         final long mask) {
         
-        int lastY = ROWS - length;
+        long possibleCells = getPossibleCells(mask);
+        final long opponentWinningCells =
+                getWinningCells(position ^ mask, mask);
         
-        for (int x = 0; x < COLUMNS; x++) {
-            verticalCheck:
-            for (int y = 0; y <= lastY; y++) {
-                for (int i = 0; i < length; i++) {
-                    if (get(x, y + i) != playerType) {
-                        continue verticalCheck;
-                    }
-                }
-                
-                return true;
+        final long forcedMoves = possibleCells & opponentWinningCells;
+        
+        if (forcedMoves != 0L) {
+            if ((forcedMoves & (forcedMoves - 1L)) != 0L) {
+                // Two threats at once:
+                return 0L;
             }
+            
+            possibleCells = forcedMoves;
         }
         
-        return false;
+        // Never play right below a winning cell of the opponent:
+        return possibleCells & ~(opponentWinningCells >>> 1);
     }
     
-    boolean hasAscendingDiagonalStrike(final PlayerType playerType, 
-                                       final int length) {
+    /**
+     * Returns the cells in which the next disc can be dropped.
+     * 
+     * @param mask all the discs.
+     * 
+     * @return the bitboard of the lowest empty cell of each column.
+     */
+    public static long getPossibleCells(final long mask) {
+        return (mask + BOTTOM_ROW_MASK) & BOARD_MASK;
+    }
+    
+    /**
+     * Returns the empty cells that complete a line of four for the owner of
+     * {@code position}.
+     * 
+     * @param position the discs of a player.
+     * @param mask     all the discs.
+     * 
+     * @return the bitboard of the winning cells.
+     */
+    public static long getWinningCells(final long position, final long mask) {
+        // Vertical:
+        long cells = (position << VERTICAL_SHIFT) & 
+                     (position << (2 * VERTICAL_SHIFT)) & 
+                     (position << (3 * VERTICAL_SHIFT));
         
-        final int lastX = COLUMNS - length;
-        final int lastY = length - 1;
+        cells |= getWinningCells(position, HORIZONTAL_SHIFT);
+        cells |= getWinningCells(position, ASCENDING_SHIFT);
+        cells |= getWinningCells(position, DESCENDING_SHIFT);
         
-        for (int y = ROWS - 1; y >= lastY; y--) {
-            diagonalCheck:
-            for (int x = 0; x <= lastX; x++) {
-                for (int i = 0; i < length; i++) {
-                    if (get(x + i, y - i) != playerType) {
-                        continue diagonalCheck;
-                    }
-                }
-                
-                return true;
+        return cells & (BOARD_MASK ^ mask);
+    }
+    
+    /**
+     * Returns the bitboard mask of the playable cells of the column 
+     * {@code x}.
+     * 
+     * @param x the column index.
+     * 
+     * @return the column mask.
+     */
+    public static long getColumnMask(final int x) {
+        return COLUMN_MASK << (x * COLUMN_HEIGHT);
+    }
+    
+    /**
+     * Checks whether the bitboard {@code cells} has a cell in the column 
+     * {@code x}.
+     * 
+     * @param cells the bitboard to check.
+     * @param x     the column index.
+     * 
+     * @return {@code true} if {@code cells} intersects the column {@code x}.
+     */
+    public static boolean containsColumn(final long cells, final int x) {
+        return (cells & getColumnMask(x)) != 0L;
+    }
+    
+    /**
+     * Returns the columns in the center-first order, the default order of 
+     * trying the plies.
+     * 
+     * @return a new array of the columns.
+     */
+    public static int[] getColumnOrder() {
+        return COLUMN_ORDER.clone();
+    }
+    
+    /**
+     * Adds or subtracts the contribution of the blocks through the disc 
+     * {@code bit} to the running score, if the running score is kept.
+     * 
+     * @param bitboard the bitboard of the owner of {@code bit}. Must contain 
+     *                 {@code bit}.
+     * @param bit      the bit of the disc being added or removed.
+     * @param sign     +1 for adding the contribution, -1 for subtracting it.
+     */
+    private void updateRunningScore(final long bitboard,
+                                    final long bit,
+                                    final int sign) {
+        if (runningScoreEnabled) {
+            runningScore += 
+                    sign * ConnectFourHeuristicFunction
+                           .evaluateLinesThrough(bitboard, bit);
+        }
+    }
+    
+    /**
+     * Returns the status flags of this board. Scans the entire board only if 
+     * the cached status is not known.
+     * 
+     * @return the status flags.
+     */
+    private int getStatus() {
+        if (status == UNKNOWN) {
+            int computedStatus = ONGOING;
+            
+            if (hasStrike(maximizingPlayerBitboard, VICTORY_LENGTH)) {
+                computedStatus |= MAXIMIZING_PLAYER_WON;
+            }
+            
+            if (hasStrike(minimizingPlayerBitboard, VICTORY_LENGTH)) {
+                computedStatus |= MINIMIZING_PLAYER_WON;
+            }
+            
+            if ((getOccupiedBitboard() & TOP_ROW_MASK) == TOP_ROW_MASK) {
+                computedStatus |= FULL;
             }
+            
+            status = computedStatus;
         }
         
-        return false;
+        return status;
+    }
+    
+    boolean hasHorizontalStrike(final PlayerType playerType, final int length) {
+        return hasStrike(getBitboard(playerType), HORIZONTAL_SHIFT, length);
+    }
+    
+    boolean hasVerticalStrike(final PlayerType playerType, final int length) {
+        return hasStrike(getBitboard(playerType), VERTICAL_SHIFT, length);
+    }
+    
+    boolean hasAscendingDiagonalStrike(final PlayerType playerType, 
+                                       final int length) {
+        return hasStrike(getBitboard(playerType), ASCENDING_SHIFT, length);
     }
     
     boolean hasDescendingDiagonalStrike(final PlayerType playerType, 
                                         final int length) {
+        return hasStrike(getBitboard(playerType), DESCENDING_SHIFT, length);
+    }
+    
+    /**
+     * Checks whether the bitboard {@code bitboard} contains a line of at least 
+     * {@code length} discs in any direction.
+     * 
+     * @param bitboard the bitboard to check.
+     * @param length   the minimum length of a line.
+     * 
+     * @return {@code true} if there is such a line.
+     */
+    static boolean hasStrike(final long bitboard, final int length) {
+        return hasStrike(bitboard, VERTICAL_SHIFT, length) ||
+               hasStrike(bitboard, HORIZONTAL_SHIFT, length) ||
+               hasStrike(bitboard, ASCENDING_SHIFT, length) ||
+               hasStrike(bitboard, DESCENDING_SHIFT, length);
+    }
+    
+    /**
+     * Checks whether the disc {@code bit} belongs to a line of at least
+     * {@link #VICTORY_LENGTH} discs in {@code bitboard}. Only the cells on 
+     * the lines through {@code bit} are inspected.
+     * 
+     * @param bitboard the bitboard containing {@code bit}.
+     * @param bit      the bit of the disc to check.
+     * 
+     * @return {@code true} if {@code bit} is a part of a winning line.
+     */
+    static boolean hasStrikeThrough(final long bitboard, final long bit) {
+        return hasStrikeThrough(bitboard, bit, VERTICAL_SHIFT) ||
+               hasStrikeThrough(bitboard, bit, HORIZONTAL_SHIFT) ||
+               hasStrikeThrough(bitboard, bit, ASCENDING_SHIFT) ||
+               hasStrikeThrough(bitboard, bit, DESCENDING_SHIFT);
+    }
+    
+    private static boolean hasStrikeThrough(final long bitboard, 
+                                            final long bit, 
+                                            final int shift) {
+        int length = 1;
         
-        final int firstX = length - 1;
-        final int lastY  = length - 1;
+        // Walk forward along the line:
+        for (long b = bit << shift; (bitboard & b) != 0L; b <<= shift) {
+            length++;
+        }
         
-        for (int y = ROWS - 1; y >= lastY; y--) {
-            diagonalCheck:
-            for (int x = firstX; x < COLUMNS; x++) {
-                for (int i = 0; i < length; i++) {
-                    if (get(x - i, y - i) != playerType) {
-                        continue diagonalCheck;
-                    }
-                }
-                
-                return true;
-            }
+        // Walk backward along the line:
+        for (long b = bit >>> shift; (bitboard & b) != 0L; b >>>= shift) {
+            length++;
+        }
+        
+        return length >= VICTORY_LENGTH;
+    }
+    
+    /**
+     * Checks whether the bitboard {@code bitboard} contains a line of at least
+     * {@code length} discs in the direction given by {@code shift}.
+     * 
+     * @param bitboard the bitboard to check.
+     * @param shift    the bit shift stepping along the direction.
+     * @param length   the minimum length of a line.
+     * 
+     * @return {@code true} if there is such a line.
+     */
+    static boolean hasStrike(final long bitboard, 
+                             final int shift, 
+                             final int length) {
+        long strikes = bitboard;
+        
+        for (int i = 1; i < length; i++) {
+            strikes &= bitboard >>> (i * shift);
         }
         
-        return false;
+        return strikes != 0L;
     }
     
     private List<Point> tryLoadAscendingWinningPattern(
@@ -422,18 +1268,49 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
         return null;
     }
     
+    /**
+     * Returns the cells that complete a line of four with three discs of 
+     * {@code position} in the direction given by {@code shift}, on either side 
+     * of the gap.
+     */
+    private static long getWinningCells(final long position,
+                                        final int shift) {
+        
+        long pair = (position << shift) & (position << (2 * shift));
+        long cells = pair & (position << (3 * shift));
+        
+        cells |= pair & (position >>> shift);
+        pair = (position >>> shift) & (position >>> (2 * shift));
+        cells |= pair & (position << shift);
+        cells |= pair & (position >>> (3 * shift));
+        
+        return cells;
+    }
+    
+    /**
+     * The SplitMix64 mixing function used for generating the Zobrist keys.
+     */
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+    private static int getWinFlag(final PlayerType playerType) {
+        return playerType == PlayerType.MAXIMIZING_PLAYER ? 
+                MAXIMIZING_PLAYER_WON : 
+                MINIMIZING_PLAYER_WON;
+    }
+    
     private boolean notFullAtX(final int x) {
-        return get(x, 0) == null;
+        return (getOccupiedBitboard() & getCellBit(x, 0)) == 0L;
     }
     
     private ConnectFourBoard dropAtX(final int x, final PlayerType playerType) {
         final ConnectFourBoard nextBoard = new ConnectFourBoard(this);
         
-        for (int y = ROWS - 1; y >= 0; y--) {
-            if (nextBoard.get(x, y) == null) {
-                nextBoard.set(x, y, playerType);
-                return nextBoard;
-            }
+        if (nextBoard.makePly(x, playerType)) {
+            return nextBoard;
         }
         
         throw new IllegalStateException("Should not get here.");
@@ -447,28 +1324,37 @@ public class ConnectFourBoard implements GameState<ConnectFourBoard> {
         switch (playerType) {
             case MAXIMIZING_PLAYER:
                 return 'O';
-                
+            
             case MINIMIZING_PLAYER:
                 return 'X';
-                
+            
             default:
                 throw new IllegalStateException("Should not get here.");
         }
     }
     
-    private int nextXIndex(final int x, final int y) {
-        return y * COLUMNS + x + 1;
-    }
-    
-    private int nextYIndex(final int x, final int y) {
-        return y * (COLUMNS + 1) + x;
-    }
-    
-    private int nextAscendingDiagonalIndex(final int x, final int y) {
-        return y * (COLUMNS - 1) + x - 1;
+    /**
+     * Makes sure that {@code x} is a column of the board. A column index out 
+     * of range would otherwise shift into the sentinel bits or wrap over into
+     * another column.
+     * 
+     * @param x the column index to check.
+     * 
+     * @throws IndexOutOfBoundsException if {@code x} is not a column index.
+     */
+    private static void checkColumn(final int x) {
+        if (x < 0 || x >= COLUMNS) {
+            throw new IndexOutOfBoundsException(
+                    "Column index " + x + " out of bounds for " + COLUMNS + 
+                    " columns.");
+        }
     }
     
-    private int nextDescendingDiagonalIndex(final int x, final int y) {
-        return y * (COLUMNS - 1) - x + 1;
+    /**
+     * Returns the bitboard bit of the cell at column {@code x} and row 
+     * {@code y}. Rows are counted from the top of the board.
+     */
+    static long getCellBit(final int x, final int y) {
+        return 1L << (x * COLUMN_HEIGHT + ROWS - 1 - y);
     }
 }
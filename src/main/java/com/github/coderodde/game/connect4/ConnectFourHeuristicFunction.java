@@ -14,24 +14,98 @@ import com.github.coderodde.game.zerosum.PlayerType;
 public final class ConnectFourHeuristicFunction 
         implements HeuristicFunction<ConnectFourBoard> {
     
-    private static final int TWO_BLOCKS_SCORE = 1;
-    private static final int THREE_BLOCKS_SCORE = 10;
-    private static final int MINIMIZING_PLAYER_VICTORY_SCORE = -1_000_000;
-    private static final int MAXIMIZING_PLAYER_VICTORY_SCORE = +1_000_000;
+    static final int TWO_BLOCKS_SCORE = 1;
+    static final int THREE_BLOCKS_SCORE = 10;
+    static final int MINIMIZING_PLAYER_VICTORY_SCORE = -1_000_000;
+    static final int MAXIMIZING_PLAYER_VICTORY_SCORE = +1_000_000;
 
     @Override
     public int evaluate(final ConnectFourBoard state, final int depth) {
-        if (state.isWinningFor(PlayerType.MINIMIZING_PLAYER)) {
+        // Relies on the terminal status cached in the board:
+        final PlayerType winner = state.getWinner();
+        
+        if (winner == PlayerType.MINIMIZING_PLAYER) {
             return MINIMIZING_PLAYER_VICTORY_SCORE - depth;
         }
         
-        if (state.isWinningFor(PlayerType.MAXIMIZING_PLAYER)) {
+        if (winner == PlayerType.MAXIMIZING_PLAYER) {
             return MAXIMIZING_PLAYER_VICTORY_SCORE + depth;
         }
         
+        return evaluateLines(state);
+    }
+    
+    /**
+     * Computes the two-in-a-row and three-in-a-row terms of the evaluation.
+     * 
+     * @param state the state to evaluate.
+     * 
+     * @return the sum of the terms.
+     */
+    static int evaluateLines(final ConnectFourBoard state) {
         return evaluate2(state) + evaluate3(state);
     }
     
+    /**
+     * Computes the contribution of the two-in-a-row and three-in-a-row blocks
+     * of {@code bitboard} that contain the disc {@code bit}. The contribution 
+     * is positive regardless of the player owning {@code bitboard}.
+     * 
+     * @param bitboard the bitboard of a player. Must contain {@code bit}.
+     * @param bit      the bit of the disc.
+     * 
+     * @return the contribution of the blocks through {@code bit}.
+     */
+    static int evaluateLinesThrough(final long bitboard, final long bit) {
+        return evaluateLinesThrough(bitboard, 
+                                    bit, 
+                                    ConnectFourBoard.VERTICAL_SHIFT) +
+               evaluateLinesThrough(bitboard, 
+                                    bit, 
+                                    ConnectFourBoard.HORIZONTAL_SHIFT) +
+               evaluateLinesThrough(bitboard, 
+                                    bit, 
+                                    ConnectFourBoard.ASCENDING_SHIFT) +
+               evaluateLinesThrough(bitboard, 
+                                    bit, 
+                                    ConnectFourBoard.DESCENDING_SHIFT);
+    }
+    
+    private static int evaluateLinesThrough(final long bitboard,
+                                            final long bit,
+                                            final int shift) {
+        // The neighbours of 'bit' along the line. The sentinel bits of the 
+        // bitboard are never set, so a line never wraps over columns:
+        final boolean forward1  = (bitboard & (bit << shift)) != 0L;
+        final boolean forward2  = (bitboard & (bit << (2 * shift))) != 0L;
+        final boolean backward1 = (bitboard & (bit >>> shift)) != 0L;
+        final boolean backward2 = (bitboard & (bit >>> (2 * shift))) != 0L;
+        
+        int sum = 0;
+        
+        if (forward1) {
+            sum += TWO_BLOCKS_SCORE;
+            
+            if (forward2) {
+                sum += THREE_BLOCKS_SCORE;
+            }
+            
+            if (backward1) {
+                sum += THREE_BLOCKS_SCORE;
+            }
+        }
+        
+        if (backward1) {
+            sum += TWO_BLOCKS_SCORE;
+            
+            if (backward2) {
+                sum += THREE_BLOCKS_SCORE;
+            }
+        }
+        
+        return sum;
+    }
+    
     private static int evaluate2(final ConnectFourBoard state) {
         return evaluate2Horizontal(state) +
                evaluate2Vertical(state) + 
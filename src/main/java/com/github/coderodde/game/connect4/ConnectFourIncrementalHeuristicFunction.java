@@ -0,0 +1,46 @@
+package com.github.coderodde.game.connect4;
+
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
+import com.github.coderodde.game.zerosum.PlayerType;
+
+/**
+ * This class implements the incremental version of 
+ * {@link ConnectFourHeuristicFunction}. The scores are the same, but a 
+ * prepared board updates its two- and three-in-a-row terms on every ply, so 
+ * the evaluation of a leaf does not scan the board.
+ * 
+ * @version 1.0.0 (Jun 26, 2024)
+ * @since 1.0.0 (Jun 26, 2024)
+ */
+public final class ConnectFourIncrementalHeuristicFunction 
+        implements IncrementalHeuristicFunction<ConnectFourBoard> {
+    
+    @Override
+    public ConnectFourBoard prepare(final ConnectFourBoard state) {
+        final ConnectFourBoard preparedState = new ConnectFourBoard(state);
+        preparedState.setRunningScoreEnabled(true);
+        return preparedState;
+    }
+    
+    @Override
+    public int evaluate(final ConnectFourBoard state, final int depth) {
+        final PlayerType winner = state.getWinner();
+        
+        if (winner == PlayerType.MINIMIZING_PLAYER) {
+            return ConnectFourHeuristicFunction
+                    .MINIMIZING_PLAYER_VICTORY_SCORE - depth;
+        }
+        
+        if (winner == PlayerType.MAXIMIZING_PLAYER) {
+            return ConnectFourHeuristicFunction
+                    .MAXIMIZING_PLAYER_VICTORY_SCORE + depth;
+        }
+        
+        if (state.isRunningScoreEnabled()) {
+            return state.getRunningScore();
+        }
+        
+        // Not prepared. Fall back to the full evaluation:
+        return ConnectFourHeuristicFunction.evaluateLines(state);
+    }
+}
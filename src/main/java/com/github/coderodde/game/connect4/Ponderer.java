@@ -0,0 +1,275 @@
+package com.github.coderodde.game.connect4;
+
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class lets a search engine think on the opponent's time. While the
+ * opponent is to move, a background thread searches the positions after the
+ * likely replies, the reply predicted by a short search first and then the
+ * other plies center first. Each reply is searched with the regular time
+ * budget, so the result of a completed reply is the very move the engine
+ * would have played.
+ * <p>
+ * When the opponent's reply arrives, {@link #respond(ConnectFourBoard)}
+ * returns the pondered move right away if that reply was already searched. If
+ * the reply is being searched, the search keeps running for the rest of its
+ * budget. Otherwise, the pondering is stopped and the position is searched
+ * from scratch, still benefiting from the transposition table warmed up by
+ * the pondering.
+ * <p>
+ * The engine must not be used by others while pondering.
+ * 
+ * @version 1.0.0 (Jul 15, 2024)
+ * @since 1.0.0 (Jul 15, 2024)
+ */
+public final class Ponderer implements AutoCloseable {
+    
+    /**
+     * The search predicting the reply of the opponent gets this fraction of 
+     * the time budget of a move.
+     */
+    static final int PREDICTION_BUDGET_DIVISOR = 10;
+    
+    /**
+     * How often a stop request is repeated until the pondering thread quits.
+     */
+    private static final long STOP_INTERVAL_MILLIS = 10L;
+    
+    private static final int[] PLIES = ConnectFourBoard.getColumnOrder();
+    
+    private final SearchEngine<ConnectFourBoard> searchEngine;
+    private final Duration timeBudget;
+    private final PlayerType playerType;
+    
+    /**
+     * The position the opponent is to move in, or {@code null} if not
+     * pondering.
+     */
+    private ConnectFourBoard root;
+    private Thread thread;
+    
+    /**
+     * Maps the columns of the searched replies to the move states of the
+     * engine.
+     */
+    private final Map<Integer, ConnectFourBoard> pondered =
+            new ConcurrentHashMap<>();
+    
+    /**
+     * The column of the reply being searched, or -1.
+     */
+    private volatile int currentReply;
+    
+    /**
+     * Whether the pondering thread must quit after the current search.
+     */
+    private volatile boolean finishing;
+    
+    /**
+     * Whether the pondering thread must abandon the current search.
+     */
+    private volatile boolean aborted;
+    
+    /**
+     * Constructs this ponderer.
+     * 
+     * @param searchEngine the engine to ponder with.
+     * @param timeBudget   the time budget of a move.
+     * @param playerType   the player of the engine.
+     */
+    public Ponderer(final SearchEngine<ConnectFourBoard> searchEngine,
+                    final Duration timeBudget,
+                    final PlayerType playerType) {
+        
+        this.searchEngine =
+                Objects.requireNonNull(searchEngine,
+                                       "The search engine is null.");
+        this.timeBudget =
+                Objects.requireNonNull(timeBudget, "The time budget is null.");
+        this.playerType =
+                Objects.requireNonNull(playerType, "The player type is null.");
+    }
+    
+    /**
+     * Starts pondering {@code position}, in which the opponent is to move.
+     * Stops the previous pondering, if any.
+     * 
+     * @param position the position after the move of the engine.
+     * 
+     * @throws InterruptedException if interrupted while stopping the
+     *                              previous pondering.
+     */
+    public void start(final ConnectFourBoard position)
+            throws InterruptedException {
+        
+        abort();
+        
+        if (position.isTerminal()) {
+            return;
+        }
+        
+        root = new ConnectFourBoard(position);
+        pondered.clear();
+        currentReply = -1;
+        finishing = false;
+        aborted = false;
+        
+        final ConnectFourBoard ponderedRoot = root;
+        
+        thread = new Thread(() -> ponder(ponderedRoot), "ponderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Returns the move state of the engine in {@code position}, which must
+     * follow the pondered position by one ply of the opponent. If the
+     * pondering did not cover that ply, searches {@code position} with the
+     * time budget.
+     * 
+     * @param position the position after the reply of the opponent.
+     * 
+     * @return the next move state, or {@code null} if the game is over.
+     * 
+     * @throws InterruptedException if interrupted while waiting for the
+     *                              pondering.
+     */
+    public ConnectFourBoard respond(final ConnectFourBoard position)
+            throws InterruptedException {
+        
+        if (root != null) {
+            final int reply = root.getPlyColumn(position);
+            
+            // Set before probing the results so that the pondering thread
+            // cannot move on to the next reply unnoticed:
+            finishing = true;
+            
+            ConnectFourBoard moveState = pondered.get(reply);
+            
+            if (moveState == null && reply >= 0 && reply == currentReply) {
+                // Keep searching the reply for the rest of its budget:
+                thread.join();
+                moveState = pondered.get(reply);
+            }
+            
+            abort();
+            
+            if (moveState != null) {
+                return moveState;
+            }
+        }
+        
+        return position.isTerminal() ?
+               null :
+               searchEngine.search(position, timeBudget, playerType);
+    }
+    
+    /**
+     * Returns {@code true} if the reply {@code x} of the opponent has been
+     * searched to the full budget.
+     * 
+     * @param x the column of the reply.
+     * 
+     * @return {@code true} if the reply is pondered.
+     */
+    public boolean isPondered(final int x) {
+        return pondered.containsKey(x);
+    }
+    
+    /**
+     * Stops pondering. If interrupted while waiting for the pondering thread
+     * to quit, returns right away with the interrupt status set.
+     */
+    @Override
+    public void close() {
+        try {
+            abort();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Stops the pondering thread and waits for it to quit.
+     */
+    private void abort() throws InterruptedException {
+        root = null;
+        
+        if (thread == null) {
+            return;
+        }
+        
+        aborted = true;
+        
+        // A stop request issued just before a search starts is lost, so it
+        // is repeated until the thread quits:
+        while (thread.isAlive()) {
+            searchEngine.stop();
+            thread.join(STOP_INTERVAL_MILLIS);
+        }
+        
+        thread = null;
+    }
+    
+    private void ponder(final ConnectFourBoard root) {
+        final PlayerType opponent = playerType.flip();
+        final long candidateMoves = root.getCandidateMoves(opponent);
+        
+        // Time-bounded, so that a stop request ends the prediction too:
+        final ConnectFourBoard predictedMoveState =
+                searchEngine.search(
+                        root,
+                        timeBudget.dividedBy(PREDICTION_BUDGET_DIVISOR),
+                        opponent);
+        
+        // A stopped prediction may return no move:
+        final int predictedReply =
+                predictedMoveState == null ?
+                -1 :
+                root.getPlyColumn(predictedMoveState);
+        
+        if (predictedReply >= 0) {
+            ponder(root, predictedReply, opponent);
+        }
+        
+        for (final int x : PLIES) {
+            if (x != predictedReply &&
+                    ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                ponder(root, x, opponent);
+            }
+        }
+    }
+    
+    /**
+     * Searches the position after the reply {@code x} of {@code opponent},
+     * unless the pondering is to quit.
+     */
+    private void ponder(final ConnectFourBoard root,
+                        final int x,
+                        final PlayerType opponent) {
+        
+        if (finishing || aborted) {
+            return;
+        }
+        
+        currentReply = x;
+        
+        final ConnectFourBoard position = new ConnectFourBoard(root);
+        
+        if (!position.makePly(x, opponent) || position.isTerminal()) {
+            return;
+        }
+        
+        final ConnectFourBoard moveState =
+                searchEngine.search(position, timeBudget, playerType);
+        
+        if (!aborted && moveState != null) {
+            pondered.put(x, moveState);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.coderodde.game.connect4.batch;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import java.time.Duration;
+
+/**
+ * This class holds the outcome of one {@link AnalysisTask}.
+ * 
+ * @version 1.0.0 (Jul 3, 2024)
+ * @since 1.0.0 (Jul 3, 2024)
+ */
+public final class AnalysisResult {
+    
+    private final AnalysisTask task;
+    private final int index;
+    private final ConnectFourBoard bestMoveState;
+    private final Duration duration;
+    
+    AnalysisResult(final AnalysisTask task,
+                   final int index,
+                   final ConnectFourBoard bestMoveState,
+                   final Duration duration) {
+        this.task = task;
+        this.index = index;
+        this.bestMoveState = bestMoveState;
+        this.duration = duration;
+    }
+    
+    public AnalysisTask getTask() {
+        return task;
+    }
+    
+    /**
+     * Returns the index of the task in the submitted batch. The results arrive
+     * in completion order, so this is the way to match them to the tasks.
+     * 
+     * @return the index of the task.
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Returns the state after the best move, or {@code null} if the root is 
+     * terminal.
+     * 
+     * @return the state after the best move.
+     */
+    public ConnectFourBoard getBestMoveState() {
+        return bestMoveState;
+    }
+    
+    /**
+     * Returns the time the search took, not counting the time the task waited
+     * for a free worker.
+     * 
+     * @return the search duration.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+}
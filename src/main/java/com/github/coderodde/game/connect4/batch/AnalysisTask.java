@@ -0,0 +1,94 @@
+package com.github.coderodde.game.connect4.batch;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * This class describes one position to analyze in a batch: the root board, 
+ * the player to move and either a fixed search depth or a time budget.
+ * 
+ * @version 1.0.0 (Jul 3, 2024)
+ * @since 1.0.0 (Jul 3, 2024)
+ */
+public final class AnalysisTask {
+    
+    private final ConnectFourBoard root;
+    private final PlayerType playerType;
+    private final int depth;
+    private final Duration timeBudget;
+    
+    private AnalysisTask(final ConnectFourBoard root,
+                         final PlayerType playerType,
+                         final int depth,
+                         final Duration timeBudget) {
+        
+        this.root = Objects.requireNonNull(root, "The root is null.");
+        this.playerType = 
+                Objects.requireNonNull(playerType, "The player type is null.");
+        this.depth = depth;
+        this.timeBudget = timeBudget;
+    }
+    
+    /**
+     * Returns a task searching {@code root} to the fixed depth {@code depth}.
+     * 
+     * @param root       the position to analyze.
+     * @param playerType the player to move.
+     * @param depth      the search depth.
+     * @return the analysis task.
+     */
+    public static AnalysisTask withDepth(final ConnectFourBoard root,
+                                         final PlayerType playerType,
+                                         final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException(
+                    "The depth must be positive: " + depth);
+        }
+        
+        return new AnalysisTask(root, playerType, depth, null);
+    }
+    
+    /**
+     * Returns a task searching {@code root} by iterative deepening until 
+     * {@code timeBudget} runs out.
+     * 
+     * @param root       the position to analyze.
+     * @param playerType the player to move.
+     * @param timeBudget the time budget of the search.
+     * @return the analysis task.
+     */
+    public static AnalysisTask withTimeBudget(final ConnectFourBoard root,
+                                              final PlayerType playerType,
+                                              final Duration timeBudget) {
+        Objects.requireNonNull(timeBudget, "The time budget is null.");
+        return new AnalysisTask(root, playerType, 0, timeBudget);
+    }
+    
+    public ConnectFourBoard getRoot() {
+        return root;
+    }
+    
+    public PlayerType getPlayerType() {
+        return playerType;
+    }
+    
+    /**
+     * Returns the fixed search depth, or 0 if this task has a time budget.
+     * 
+     * @return the search depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * Returns the time budget, or {@code null} if this task has a fixed depth.
+     * 
+     * @return the time budget.
+     */
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+}
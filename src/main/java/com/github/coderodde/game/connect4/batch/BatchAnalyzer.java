@@ -0,0 +1,249 @@
+package com.github.coderodde.game.connect4.batch;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This class analyzes batches of independent Connect Four positions 
+ * concurrently. The searches run on a bounded pool of platform threads, one
+ * per CPU by default, each thread keeping its own negamax engine. Every task
+ * of a batch is coordinated by a virtual thread of its own, which waits for 
+ * the search and publishes the result, so that a batch of thousands of 
+ * positions costs no more than that many cheap virtual threads. The results 
+ * are streamed back in completion order.
+ * <p>
+ * All the engines share one transposition table, so the positions of a batch 
+ * (and of the subsequent batches) benefit from each other's searches.
+ * <p>
+ * Closing the analyzer stops the running searches. The tasks that do not 
+ * complete before that fail, so that the streams of their results end with a
+ * {@link CompletionException} instead of waiting for them.
+ * 
+ * @version 1.1.0 (Jul 16, 2024)
+ * @since 1.0.0 (Jul 3, 2024)
+ */
+public final class BatchAnalyzer implements AutoCloseable {
+    
+    /**
+     * The number of milliseconds between two stop requests while closing.
+     */
+    private static final long STOP_INTERVAL_MILLIS = 10L;
+    
+    private final ExecutorService searchExecutor;
+    private final ExecutorService coordinatorExecutor = 
+            Executors.newVirtualThreadPerTaskExecutor();
+    
+    private final TranspositionTable transpositionTable;
+    private final ThreadLocal<ConnectFourNegamaxSearchEngine> engines;
+    
+    /**
+     * The engines of all the search threads, so that closing can stop them.
+     */
+    private final Set<ConnectFourNegamaxSearchEngine> createdEngines = 
+            ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean closed;
+    
+    public BatchAnalyzer(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
+        
+        this(heuristicFunction, Runtime.getRuntime().availableProcessors());
+    }
+    
+    public BatchAnalyzer(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final int threads) {
+        
+        this(heuristicFunction, threads, new TranspositionTable());
+    }
+    
+    /**
+     * Constructs this batch analyzer.
+     * 
+     * @param heuristicFunction  the heuristic function used by the engines.
+     * @param threads            the number of searches running at a time.
+     * @param transpositionTable the transposition table shared by the engines.
+     */
+    public BatchAnalyzer(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final int threads,
+            final TranspositionTable transpositionTable) {
+        
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive: " + threads);
+        }
+        
+        Objects.requireNonNull(heuristicFunction, 
+                               "The heuristic function is null.");
+        
+        this.transpositionTable = 
+                Objects.requireNonNull(transpositionTable, 
+                                       "The transposition table is null.");
+        
+        this.searchExecutor = Executors.newFixedThreadPool(threads);
+        this.engines = ThreadLocal.withInitial(() -> {
+            final ConnectFourNegamaxSearchEngine engine = 
+                    new ConnectFourNegamaxSearchEngine(heuristicFunction, 
+                                                       transpositionTable);
+            
+            createdEngines.add(engine);
+            return engine;
+        });
+    }
+    
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+    
+    /**
+     * Schedules all the {@code tasks} and returns the stream of their results
+     * in completion order. The stream blocks until the next result is ready. 
+     * If a search fails, or is cut short by {@link #close()}, the stream 
+     * throws a {@link CompletionException} wrapping the cause when it reaches
+     * the failed task.
+     * 
+     * @param tasks the positions to analyze.
+     * @return the stream of results in completion order.
+     */
+    public Stream<AnalysisResult> analyze(
+            final Collection<AnalysisTask> tasks) {
+        
+        final List<AnalysisTask> taskList = new ArrayList<>(tasks);
+        final BlockingQueue<Future<AnalysisResult>> completed = 
+                new LinkedBlockingQueue<>();
+        
+        for (int i = 0; i < taskList.size(); i++) {
+            final AnalysisTask task = taskList.get(i);
+            final int index = i;
+            
+            try {
+                coordinatorExecutor.execute(
+                        () -> coordinate(task, index, completed));
+            } catch (final RejectedExecutionException ex) {
+                // Closed while scheduling the batch:
+                completed.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+        
+        return Stream.generate(() -> take(completed))
+                     .limit(taskList.size());
+    }
+    
+    /**
+     * Stops all the running searches, waits for them to return and releases 
+     * the threads. The tasks not completed by then fail. If interrupted while 
+     * waiting, returns right away with the interrupt status set.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        coordinatorExecutor.shutdownNow();
+        searchExecutor.shutdownNow();
+        
+        try {
+            // A stop request issued just before a search starts is lost, so
+            // it is repeated until all the search threads quit:
+            do {
+                for (final ConnectFourNegamaxSearchEngine engine 
+                        : createdEngines) {
+                    engine.stop();
+                }
+            } while (!searchExecutor.awaitTermination(STOP_INTERVAL_MILLIS, 
+                                                      TimeUnit.MILLISECONDS));
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Runs {@code task} on the search threads, waits for it and publishes its
+     * future to {@code completed}. The future is published even if the task 
+     * could not be scheduled, so that the stream never waits for a task that 
+     * will not complete.
+     */
+    private void coordinate(
+            final AnalysisTask task,
+            final int index,
+            final BlockingQueue<Future<AnalysisResult>> completed) {
+        
+        Future<AnalysisResult> future = null;
+        
+        try {
+            future = searchExecutor.submit(() -> analyze(task, index));
+            future.get();
+        } catch (final InterruptedException ex) {
+            future.cancel(true);
+        } catch (final ExecutionException | CancellationException ex) {
+            // Reported when the stream reaches the future.
+        } catch (final RejectedExecutionException ex) {
+            // Closed before the task was scheduled:
+            future = CompletableFuture.failedFuture(ex);
+        } finally {
+            completed.add(future != null ? 
+                          future : 
+                          CompletableFuture.failedFuture(
+                                  new CancellationException(
+                                          "The task was not scheduled.")));
+        }
+    }
+    
+    private AnalysisResult analyze(final AnalysisTask task, final int index) {
+        final ConnectFourNegamaxSearchEngine engine = engines.get();
+        final ConnectFourBoard root = new ConnectFourBoard(task.getRoot());
+        final long startTime = System.nanoTime();
+        
+        final ConnectFourBoard bestMoveState = 
+                task.getTimeBudget() == null ?
+                engine.search(root, task.getDepth(), task.getPlayerType()) :
+                engine.search(root, 
+                              task.getTimeBudget(), 
+                              task.getPlayerType());
+        
+        if (closed) {
+            // The search may have been stopped before completing:
+            throw new CancellationException("The analyzer is closed.");
+        }
+        
+        return new AnalysisResult(
+                task, 
+                index,
+                bestMoveState,
+                Duration.ofNanos(System.nanoTime() - startTime));
+    }
+    
+    private static AnalysisResult take(
+            final BlockingQueue<Future<AnalysisResult>> completed) {
+        try {
+            return completed.take().get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        } catch (final ExecutionException ex) {
+            throw new CompletionException(ex.getCause());
+        } catch (final CancellationException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+}
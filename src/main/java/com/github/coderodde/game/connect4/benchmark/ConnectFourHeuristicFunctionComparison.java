@@ -0,0 +1,91 @@
+package com.github.coderodde.game.connect4.benchmark;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.ConnectFourHeuristicFunction;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Random;
+
+/**
+ * This class compares the throughput of the heuristic functions on random 
+ * positions.
+ * 
+ * @version 1.0.0 (Jun 27, 2024)
+ * @since 1.0.0 (Jun 27, 2024)
+ */
+public class ConnectFourHeuristicFunctionComparison {
+    
+    private static final int NUMBER_OF_POSITIONS = 10_000;
+    private static final int NUMBER_OF_ROUNDS = 5;
+    private static final int EVALUATIONS_PER_POSITION = 100;
+    private static final long SEED = 13L;
+    
+    public static void main(String[] args) {
+        final ConnectFourBoard[] positions = getRandomPositions();
+        
+        for (int round = 1; round <= NUMBER_OF_ROUNDS; round++) {
+            System.out.printf("Round %d:\n", round);
+            
+            benchmark("ConnectFourHeuristicFunction",
+                      new ConnectFourHeuristicFunction(),
+                      positions);
+            
+            benchmark("ConnectFourBitboardHeuristicFunction",
+                      new ConnectFourBitboardHeuristicFunction(),
+                      positions);
+        }
+    }
+    
+    private static void benchmark(
+            final String name,
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ConnectFourBoard[] positions) {
+        
+        long checksum = 0L;
+        
+        final long startTime = System.nanoTime();
+        
+        for (int i = 0; i < EVALUATIONS_PER_POSITION; i++) {
+            for (final ConnectFourBoard position : positions) {
+                checksum += heuristicFunction.evaluate(position, 0);
+            }
+        }
+        
+        final long endTime = System.nanoTime();
+        final long evaluations = 
+                (long) EVALUATIONS_PER_POSITION * positions.length;
+        
+        System.out.printf(
+                "  %s: %.1f million evaluations per second, checksum %d.\n",
+                name,
+                evaluations * 1e3 / (endTime - startTime),
+                checksum);
+    }
+    
+    private static ConnectFourBoard[] getRandomPositions() {
+        final Random random = new Random(SEED);
+        final ConnectFourBoard[] positions = 
+                new ConnectFourBoard[NUMBER_OF_POSITIONS];
+        
+        for (int i = 0; i < positions.length; i++) {
+            final ConnectFourBoard board = new ConnectFourBoard();
+            final int numberOfPlies = random.nextInt(ConnectFourBoard.COLUMNS *
+                                                     ConnectFourBoard.ROWS);
+            
+            PlayerType playerType = PlayerType.MINIMIZING_PLAYER;
+            
+            for (int ply = 0; ply < numberOfPlies && !board.isTerminal();) {
+                if (board.makePly(random.nextInt(ConnectFourBoard.COLUMNS),
+                                  playerType)) {
+                    playerType = playerType.flip();
+                    ply++;
+                }
+            }
+            
+            positions[i] = board;
+        }
+        
+        return positions;
+    }
+}
@@ -6,6 +6,7 @@ import com.github.coderodde.game.zerosum.PlayerType;
 import com.github.coderodde.game.zerosum.SearchEngine;
 import com.github.coderodde.game.zerosum.AlphaBetaPruningSearchEngine;
 import com.github.coderodde.game.connect4.impl.ConnectFourAlphaBetaPruningSearchEngine;
+import com.github.coderodde.game.connect4.impl.ConnectFourMTDFSearchEngine;
 import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
 import com.github.coderodde.game.connect4.impl.ConnectFourPrincipalVariationSearchEngine;
 import com.github.coderodde.game.connect4.impl.ParallelConnectFourAlphaBetaPruningSearchEngine;
@@ -82,6 +83,21 @@ public class ConnectFourSearchEngineComparison {
         
         startTime = System.currentTimeMillis();
         
+        r = new ConnectFourMTDFSearchEngine(heuristicFunction)
+                .search(b, DEPTH);
+        
+        endTime = System.currentTimeMillis();
+        
+        System.out.printf(
+            """
+            ConnectFourMTDFSearchEngine in %d milliseconds.
+            """,
+            endTime - startTime);
+        
+        System.out.println(r);
+        
+        startTime = System.currentTimeMillis();
+        
         r = new ConnectFourNegamaxSearchEngine(heuristicFunction)
                 .search(b, DEPTH);
         
@@ -0,0 +1,213 @@
+package com.github.coderodde.game.connect4.book;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class implements a read-only opening book mapped into memory. The book
+ * file consists of a header followed by fixed-size entries sorted by the
+ * position key. Each entry stores the canonical Zobrist key of a position 
+ * with the player to move, the best move and its score, so a lookup is a 
+ * binary search over the mapped file. A position and its mirror image share 
+ * an entry, the best move of which is stored for the orientation of the 
+ * canonical key; {@link #probe(ConnectFourBoard, PlayerType)} converts it back.
+ * <p>
+ * The scores are from the point of view of the player to move: positive is
+ * good for that player.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ *   int  magic
+ *   int  format version
+ *   long Zobrist fingerprint
+ *   int  maximum number of plies of a book position
+ *   int  search depth used for building the book
+ *   long number of entries
+ *   entries: long key, int (score &lt;&lt; 3 | column)
+ * </pre>
+ * 
+ * @version 1.0.0 (Jun 29, 2024)
+ * @since 1.0.0 (Jun 29, 2024)
+ */
+public final class OpeningBook implements AutoCloseable {
+    
+    /**
+     * The value returned by {@link #probe(ConnectFourBoard, PlayerType)} on a
+     * miss.
+     */
+    public static final long NO_ENTRY = -1L;
+    
+    static final int MAGIC = 0x43344f42; // "C4OB"
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    
+    private static final int MOVE_BITS = 3;
+    private static final int MOVE_MASK = (1 << MOVE_BITS) - 1;
+    
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer buffer;
+    private final long numberOfEntries;
+    private final int maximumPlies;
+    private final int searchDepth;
+    
+    private OpeningBook(final FileChannel fileChannel,
+                        final MappedByteBuffer buffer) {
+        
+        this.fileChannel = fileChannel;
+        this.buffer = buffer;
+        
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an opening book file.");
+        }
+        
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException(
+                    "Unsupported opening book version: " + buffer.getInt(4));
+        }
+        
+        if (buffer.getLong(8) != ConnectFourBoard.getZobristFingerprint()) {
+            throw new IllegalArgumentException(
+                    "The opening book was built with different Zobrist keys.");
+        }
+        
+        this.maximumPlies = buffer.getInt(16);
+        this.searchDepth = buffer.getInt(20);
+        this.numberOfEntries = buffer.getLong(24);
+        
+        if (HEADER_SIZE + numberOfEntries * ENTRY_SIZE != buffer.limit()) {
+            throw new IllegalArgumentException(
+                    "The opening book file is truncated.");
+        }
+    }
+    
+    /**
+     * Maps the book file {@code path} into memory.
+     * 
+     * @param path the path of the book file.
+     * 
+     * @return the opening book.
+     * 
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a valid book.
+     */
+    public static OpeningBook open(final Path path) throws IOException {
+        final FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ);
+        
+        try {
+            final MappedByteBuffer buffer =
+                    fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                                    0L,
+                                    fileChannel.size());
+            
+            return new OpeningBook(fileChannel, buffer);
+        } catch (final IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Looks up the position {@code board} with {@code playerType} to move.
+     * 
+     * @param board      the position.
+     * @param playerType the player to move.
+     * 
+     * @return the packed entry, or {@link #NO_ENTRY} if the position is not
+     *         in this book.
+     */
+    public long probe(final ConnectFourBoard board,
+                      final PlayerType playerType) {
+        
+        final long entry = probe(board.getCanonicalZobristKey(playerType));
+        
+        if (entry == NO_ENTRY) {
+            return NO_ENTRY;
+        }
+        
+        final int bestMove = 
+                board.getCanonicalColumn(getBestMove(entry), playerType);
+        
+        return pack(getScore(entry), bestMove) & 0xffffffffL;
+    }
+    
+    /**
+     * Looks up the position with key {@code key}.
+     * 
+     * @param key the canonical Zobrist key of the position with the player to
+     *            move.
+     * 
+     * @return the packed entry with the best move for the orientation of the
+     *         canonical key, or {@link #NO_ENTRY} if not present.
+     */
+    public long probe(final long key) {
+        long low = 0L;
+        long high = numberOfEntries - 1;
+        
+        while (low <= high) {
+            final long middle = (low + high) >>> 1;
+            final int offset = (int)(HEADER_SIZE + middle * ENTRY_SIZE);
+            final long middleKey = buffer.getLong(offset);
+            
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(offset + Long.BYTES) & 0xffffffffL;
+            }
+        }
+        
+        return NO_ENTRY;
+    }
+    
+    /**
+     * Returns the number of positions in this book.
+     * 
+     * @return the number of entries.
+     */
+    public long size() {
+        return numberOfEntries;
+    }
+    
+    /**
+     * Returns the maximum number of plies of a position in this book.
+     * 
+     * @return the maximum number of plies.
+     */
+    public int getMaximumPlies() {
+        return maximumPlies;
+    }
+    
+    /**
+     * Returns the search depth the book was built with.
+     * 
+     * @return the search depth.
+     */
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+    
+    public static int getBestMove(final long entry) {
+        return (int) entry & MOVE_MASK;
+    }
+    
+    public static int getScore(final long entry) {
+        return (int) entry >> MOVE_BITS;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+    
+    static int pack(final int score, final int bestMove) {
+        return (score << MOVE_BITS) | bestMove;
+    }
+}
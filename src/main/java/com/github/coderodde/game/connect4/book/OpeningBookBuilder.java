@@ -0,0 +1,337 @@
+package com.github.coderodde.game.connect4.book;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class builds opening books offline. It enumerates every position
+ * reachable in at most a given number of plies, searches each distinct
+ * position to a fixed depth in parallel and writes the results to a book file
+ * readable by {@link OpeningBook}.
+ * <p>
+ * Usage: {@code OpeningBookBuilder FILE [MAX_PLIES [DEPTH [THREADS]]]}.
+ * 
+ * @version 1.0.0 (Jun 29, 2024)
+ * @since 1.0.0 (Jun 29, 2024)
+ */
+public final class OpeningBookBuilder {
+    
+    public static final int DEFAULT_MAXIMUM_PLIES = 4;
+    public static final int DEFAULT_SEARCH_DEPTH = 12;
+    
+    /**
+     * The transposition table capacity of each search thread.
+     */
+    private static final int TRANSPOSITION_TABLE_CAPACITY = 1 << 20;
+    
+    private final int maximumPlies;
+    private final int searchDepth;
+    private final int threadCount;
+    private final PlayerType firstPlayerType;
+    
+    /**
+     * Constructs this builder.
+     * 
+     * @param maximumPlies    the maximum number of plies of a book position.
+     * @param searchDepth     the search depth for each book position.
+     * @param threadCount     the number of search threads.
+     * @param firstPlayerType the player making the first ply of the game.
+     */
+    public OpeningBookBuilder(final int maximumPlies,
+                              final int searchDepth,
+                              final int threadCount,
+                              final PlayerType firstPlayerType) {
+        
+        if (maximumPlies < 0) {
+            throw new IllegalArgumentException(
+                    "The maximum number of plies is negative: " +
+                            maximumPlies);
+        }
+        
+        if (searchDepth < 1) {
+            throw new IllegalArgumentException(
+                    "The search depth must be positive: " + searchDepth);
+        }
+        
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(
+                    "The thread count must be positive: " + threadCount);
+        }
+        
+        this.maximumPlies = maximumPlies;
+        this.searchDepth = searchDepth;
+        this.threadCount = threadCount;
+        this.firstPlayerType = firstPlayerType;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println(
+                    "Usage: OpeningBookBuilder FILE " +
+                    "[MAX_PLIES [DEPTH [THREADS]]]");
+            return;
+        }
+        
+        final int maximumPlies =
+                args.length > 1 ?
+                Integer.parseInt(args[1]) :
+                DEFAULT_MAXIMUM_PLIES;
+        
+        final int searchDepth =
+                args.length > 2 ?
+                Integer.parseInt(args[2]) :
+                DEFAULT_SEARCH_DEPTH;
+        
+        final int threadCount =
+                args.length > 3 ?
+                Integer.parseInt(args[3]) :
+                Runtime.getRuntime().availableProcessors();
+        
+        final long startTime = System.currentTimeMillis();
+        final int numberOfEntries =
+                new OpeningBookBuilder(maximumPlies,
+                                       searchDepth,
+                                       threadCount,
+                                       PlayerType.MINIMIZING_PLAYER)
+                        .build(Path.of(args[0]));
+        
+        final long endTime = System.currentTimeMillis();
+        
+        System.out.printf("Wrote %d positions in %d milliseconds.\n",
+                          numberOfEntries,
+                          endTime - startTime);
+    }
+    
+    /**
+     * Builds the book and writes it to {@code path}.
+     * 
+     * @param path the path of the book file.
+     * 
+     * @return the number of positions written.
+     * 
+     * @throws IOException if writing fails.
+     * @throws InterruptedException if interrupted while searching.
+     */
+    public int build(final Path path) throws IOException,
+                                             InterruptedException {
+        final List<BookPosition> positions = enumeratePositions();
+        final int[] entries = searchPositions(positions);
+        
+        // Sort the entries by key; each key is followed by its packed value:
+        final Integer[] order = new Integer[positions.size()];
+        
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        
+        Arrays.sort(order,
+                    (i, j) -> Long.compare(positions.get(i).key,
+                                           positions.get(j).key));
+        
+        writeBook(path, positions, entries, order);
+        return order.length;
+    }
+    
+    /**
+     * Enumerates all the distinct non-terminal positions reachable in at most
+     * {@link #maximumPlies} plies. Mirror images count as the same position.
+     * 
+     * @return the list of positions.
+     */
+    private List<BookPosition> enumeratePositions() {
+        final Map<Long, BookPosition> positionMap = new HashMap<>();
+        List<BookPosition> level = new ArrayList<>();
+        PlayerType playerType = firstPlayerType;
+        
+        level.add(new BookPosition(new ConnectFourBoard(), playerType));
+        
+        for (int ply = 0; ply <= maximumPlies; ply++) {
+            final List<BookPosition> nextLevel = new ArrayList<>();
+            
+            for (final BookPosition position : level) {
+                if (positionMap.putIfAbsent(position.key, position) != null) {
+                    // A transposition of an already enumerated position:
+                    continue;
+                }
+                
+                if (ply == maximumPlies) {
+                    continue;
+                }
+                
+                for (int x = 0; x < ConnectFourBoard.COLUMNS; x++) {
+                    final ConnectFourBoard child =
+                            new ConnectFourBoard(position.board);
+                    
+                    if (child.makePly(x, playerType) && !child.isTerminal()) {
+                        nextLevel.add(new BookPosition(child,
+                                                       playerType.flip()));
+                    }
+                }
+            }
+            
+            level = nextLevel;
+            playerType = playerType.flip();
+        }
+        
+        return new ArrayList<>(positionMap.values());
+    }
+    
+    /**
+     * Searches all the positions in parallel.
+     * 
+     * @param positions the positions to search.
+     * 
+     * @return the packed book values in the order of {@code positions}.
+     */
+    private int[] searchPositions(final List<BookPosition> positions)
+            throws InterruptedException {
+        
+        final int[] entries = new int[positions.size()];
+        final AtomicInteger nextPositionIndex = new AtomicInteger();
+        final ExecutorService executorService =
+                Executors.newFixedThreadPool(threadCount);
+        
+        try {
+            final List<Future<?>> futures = new ArrayList<>(threadCount);
+            
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executorService.submit(() -> {
+                    // Each thread keeps its own engine and table:
+                    final TranspositionTable transpositionTable =
+                            new TranspositionTable(
+                                    TRANSPOSITION_TABLE_CAPACITY);
+                    
+                    final ConnectFourNegamaxSearchEngine engine =
+                            new ConnectFourNegamaxSearchEngine(
+                                    new ConnectFourBitboardHeuristicFunction(),
+                                    transpositionTable);
+                    
+                    int index;
+                    
+                    while ((index = nextPositionIndex.getAndIncrement())
+                            < entries.length) {
+                        
+                        entries[index] =
+                                searchPosition(positions.get(index),
+                                               engine,
+                                               transpositionTable);
+                    }
+                }));
+            }
+            
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+        
+        return entries;
+    }
+    
+    private int searchPosition(
+            final BookPosition position,
+            final ConnectFourNegamaxSearchEngine engine,
+            final TranspositionTable transpositionTable) {
+        
+        final ConnectFourBoard board = position.board;
+        final ConnectFourBoard bestMoveState =
+                engine.search(board, searchDepth, position.playerType);
+        
+        // The root entry holds the exact score of the player to move:
+        final long entry = transpositionTable.probe(position.key);
+        
+        return OpeningBook.pack(
+                TranspositionTable.getScore(entry),
+                board.getCanonicalColumn(board.getPlyColumn(bestMoveState),
+                                         position.playerType));
+    }
+    
+    private void writeBook(final Path path,
+                           final List<BookPosition> positions,
+                           final int[] entries,
+                           final Integer[] order) throws IOException {
+        
+        try (final FileChannel fileChannel =
+                FileChannel.open(path,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE)) {
+            
+            final ByteBuffer header =
+                    ByteBuffer.allocate(OpeningBook.HEADER_SIZE);
+            
+            header.putInt(OpeningBook.MAGIC)
+                  .putInt(OpeningBook.FORMAT_VERSION)
+                  .putLong(ConnectFourBoard.getZobristFingerprint())
+                  .putInt(maximumPlies)
+                  .putInt(searchDepth)
+                  .putLong(order.length)
+                  .flip();
+            
+            writeFully(fileChannel, header);
+            
+            final ByteBuffer buffer =
+                    ByteBuffer.allocate(1024 * OpeningBook.ENTRY_SIZE);
+            
+            for (final int index : order) {
+                if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                    buffer.flip();
+                    writeFully(fileChannel, buffer);
+                    buffer.clear();
+                }
+                
+                buffer.putLong(positions.get(index).key)
+                      .putInt(entries[index]);
+            }
+            
+            buffer.flip();
+            writeFully(fileChannel, buffer);
+        }
+    }
+    
+    private static void writeFully(final FileChannel fileChannel,
+                                   final ByteBuffer buffer)
+            throws IOException {
+        
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+    }
+    
+    /**
+     * A book position along with the player to move.
+     */
+    private static final class BookPosition {
+        final ConnectFourBoard board;
+        final PlayerType playerType;
+        final long key;
+        
+        BookPosition(final ConnectFourBoard board,
+                     final PlayerType playerType) {
+            this.board = board;
+            this.playerType = playerType;
+            this.key = board.getCanonicalZobristKey(playerType);
+        }
+    }
+}
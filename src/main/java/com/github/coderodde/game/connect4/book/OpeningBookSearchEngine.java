@@ -0,0 +1,109 @@
+package com.github.coderodde.game.connect4.book;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import java.time.Duration;
+
+/**
+ * This class decorates any Connect Four search engine with an opening book.
+ * Positions found in the book are answered from the book; all the other 
+ * positions are delegated to the wrapped engine.
+ * 
+ * @version 1.0.0 (Jun 29, 2024)
+ * @since 1.0.0 (Jun 29, 2024)
+ */
+public final class OpeningBookSearchEngine 
+        implements SearchEngine<ConnectFourBoard> {
+    
+    private final SearchEngine<ConnectFourBoard> searchEngine;
+    private final OpeningBook openingBook;
+    
+    /**
+     * Whether the last search was answered from the book.
+     */
+    private boolean answeredFromBook;
+    
+    public OpeningBookSearchEngine(
+            final SearchEngine<ConnectFourBoard> searchEngine,
+            final OpeningBook openingBook) {
+        
+        this.searchEngine = searchEngine;
+        this.openingBook = openingBook;
+    }
+    
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root, 
+                                   final int depth, 
+                                   final PlayerType playerType) {
+        
+        final ConnectFourBoard bookMoveState = getBookMove(root, playerType);
+        answeredFromBook = bookMoveState != null;
+        
+        return bookMoveState != null ?
+               bookMoveState :
+               searchEngine.search(root, depth, playerType);
+    }
+    
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root,
+                                   final Duration timeBudget,
+                                   final PlayerType playerType) {
+        
+        final ConnectFourBoard bookMoveState = getBookMove(root, playerType);
+        answeredFromBook = bookMoveState != null;
+        
+        return bookMoveState != null ?
+               bookMoveState :
+               searchEngine.search(root, timeBudget, playerType);
+    }
+    
+    @Override
+    public void stop() {
+        searchEngine.stop();
+    }
+    
+    /**
+     * Returns the statistics of the wrapped engine, or empty statistics if 
+     * the last search was answered from the book.
+     * 
+     * @return the statistics of the last search.
+     */
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return answeredFromBook ? 
+               new SearchStatistics() :
+               searchEngine.getSearchStatistics();
+    }
+    
+    /**
+     * Returns the state after the book move of {@code playerType} in 
+     * {@code root}.
+     * 
+     * @param root       the position.
+     * @param playerType the player to move.
+     * 
+     * @return the next move state, or {@code null} if {@code root} is not in
+     *         the book.
+     */
+    private ConnectFourBoard getBookMove(final ConnectFourBoard root,
+                                         final PlayerType playerType) {
+        
+        final long entry = openingBook.probe(root, playerType);
+        
+        if (entry == OpeningBook.NO_ENTRY) {
+            return null;
+        }
+        
+        final ConnectFourBoard bookMoveState = new ConnectFourBoard(root);
+        
+        if (!bookMoveState.makePly(OpeningBook.getBestMove(entry), 
+                                   playerType)) {
+            // Only possible on a key collision:
+            return null;
+        }
+        
+        return bookMoveState;
+    }
+}
@@ -0,0 +1,589 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This abstract class implements the split point machinery shared by the
+ * parallel negamax engines running on a long-lived {@link ForkJoinPool}. At a
+ * split node, the eldest child is searched first and alone for a bound. Only
+ * then are the younger brothers forked as tasks that idle workers steal. The
+ * brothers share a {@link SplitPoint}: each finished brother raises its alpha
+ * for the brothers not started yet, and a brother failing high aborts all the
+ * other brothers along with everything they have split below. The split node
+ * joins all of its brothers before returning, so no task outlives the search.
+ * <p>
+ * The nodes that are not split are searched sequentially, ordering the plies
+ * by the killer and the history heuristics of the worker. All the workers
+ * share one lock-free transposition table. Subclasses decide which nodes to
+ * split in {@link #isSplitNode(int, int)}.
+ * 
+ * @version 1.0.0 (Jul 16, 2024)
+ * @since 1.0.0 (Jul 16, 2024)
+ */
+abstract class AbstractSplitPointSearchEngine
+        extends AbstractConnectFourSearchEngine
+        implements AutoCloseable {
+    
+    private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final TranspositionTable transpositionTable;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final StripedSearchStatistics stripes =
+            new StripedSearchStatistics();
+    
+    /**
+     * The move orderings of the workers. A worker orders the plies of all
+     * the sequential searches it runs by its own killer moves and history.
+     * The orderings of the retired workers are dropped between iterations.
+     */
+    private final Map<Thread, MoveOrdering> moveOrderings =
+            new ConcurrentHashMap<>();
+    
+    private final ThreadLocal<MoveOrdering> moveOrdering =
+            ThreadLocal.withInitial(() -> {
+                final MoveOrdering workerMoveOrdering = new MoveOrdering();
+                
+                moveOrderings.put(Thread.currentThread(), workerMoveOrdering);
+                return workerMoveOrdering;
+            });
+    
+    AbstractSplitPointSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final boolean ownsPool,
+            final TranspositionTable transpositionTable) {
+        
+        this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+    
+    /**
+     * Returns {@code true} if the children of a node are to be searched in
+     * parallel. The root is always split.
+     * 
+     * @param depth  the remaining depth of the node.
+     * @param height the distance of the node from the root.
+     * 
+     * @return {@code true} if the node is a split node.
+     */
+    abstract boolean isSplitNode(final int depth, final int height);
+    
+    /**
+     * Returns the pool running the search tasks of this engine.
+     * 
+     * @return the pool.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+    
+    /**
+     * Shuts down the pool if this engine owns it. The engine cannot search
+     * after closing.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+    
+    @Override
+    protected ConnectFourBoard searchIteration(final ConnectFourBoard root,
+                                               final int depth,
+                                               final PlayerType playerType,
+                                               final int firstPly) {
+        
+        final ConnectFourBoard preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
+        
+        moveOrderings.keySet().removeIf(thread -> !thread.isAlive());
+        
+        for (final MoveOrdering workerMoveOrdering : moveOrderings.values()) {
+            workerMoveOrdering.age();
+        }
+        
+        try {
+            return pool.invoke(
+                    new RootTask(preparedRoot,
+                                 depth,
+                                 playerType == PlayerType.MAXIMIZING_PLAYER ?
+                                         +1 :
+                                         -1,
+                                 firstPly));
+        } finally {
+            stripes.drainTo(searchStatistics);
+        }
+    }
+    
+    /**
+     * Searches {@code state}. Splits the node once the eldest child has been
+     * searched, if {@link #isSplitNode(int, int)} says so.
+     * 
+     * @param state      the state to search. Restored before returning.
+     * @param depth      the remaining depth.
+     * @param height     the distance from the root.
+     * @param alpha      the lower bound of the window.
+     * @param beta       the upper bound of the window.
+     * @param color      +1 if the maximizing player is to move, -1 otherwise.
+     * @param splitPoint the nearest split point above {@code state}, or
+     *                   {@code null}.
+     * @param statistics the statistics of the calling thread.
+     * 
+     * @return the negamax value, or garbage if aborted.
+     */
+    private int search(final ConnectFourBoard state,
+                       final int depth,
+                       final int height,
+                       int alpha,
+                       final int beta,
+                       final int color,
+                       final SplitPoint splitPoint,
+                       final SearchStatistics statistics) {
+        
+        if (!isSplitNode(depth, height)) {
+            return negamax(state,
+                           depth,
+                           height,
+                           alpha,
+                           beta,
+                           color,
+                           splitPoint,
+                           statistics,
+                           moveOrdering.get());
+        }
+        
+        statistics.countNode(height);
+        
+        if (depth == 0 || state.isTerminal()) {
+            statistics.countLeaf();
+            return color * heuristicFunction.evaluate(state, depth);
+        }
+        
+        if (isAborted(splitPoint)) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long key = state.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        int ttPly = TranspositionTable.NO_MOVE;
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            statistics.countTranspositionHit();
+            ttPly = state.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+            
+            if (TranspositionTable.isCutoff(entry, depth, alpha, beta)) {
+                return TranspositionTable.getScore(entry);
+            }
+        }
+        
+        final int originalAlpha = alpha;
+        final int[] plyOrder = getPlyOrder(ttPly);
+        final long candidateMoves = state.getCandidateMoves(playerType);
+        int value = MIN_INT;
+        int bestPly = ttPly;
+        int eldestIndex = 0;
+        
+        // The eldest brother is searched alone:
+        for (; eldestIndex < plyOrder.length; eldestIndex++) {
+            final int x = plyOrder[eldestIndex];
+            
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            state.makePly(x, playerType);
+            value = -search(state,
+                            depth - 1,
+                            height + 1,
+                            -beta,
+                            -alpha,
+                            -color,
+                            splitPoint,
+                            statistics);
+            bestPly = x;
+            state.unmakePly(x);
+            break;
+        }
+        
+        if (isAborted(splitPoint)) {
+            return 0;
+        }
+        
+        alpha = Math.max(alpha, value);
+        
+        if (alpha >= beta) {
+            statistics.countCutoff(0);
+        } else {
+            // The young brothers may start:
+            final SplitPoint childSplitPoint =
+                    new SplitPoint(splitPoint, alpha, beta, value, bestPly);
+            
+            searchYoungBrothers(state,
+                                depth,
+                                height,
+                                color,
+                                playerType,
+                                plyOrder,
+                                candidateMoves,
+                                eldestIndex + 1,
+                                childSplitPoint);
+            
+            if (isAborted(splitPoint)) {
+                return 0;
+            }
+            
+            value = childSplitPoint.getBestValue();
+            bestPly = childSplitPoint.getBestPly();
+        }
+        
+        transpositionTable.store(
+                key,
+                depth,
+                value,
+                TranspositionTable.getBoundType(value, originalAlpha, beta),
+                state.getCanonicalColumn(bestPly, playerType));
+        return value;
+    }
+    
+    /**
+     * Searches the children of {@code state} in {@code candidateMoves}
+     * starting from {@code plyOrder[startIndex]} in parallel, and waits for
+     * all of them. The brothers are joined even after a cutoff, so that no
+     * task outlives the search; the aborted ones return at their next node.
+     */
+    private void searchYoungBrothers(final ConnectFourBoard state,
+                                     final int depth,
+                                     final int height,
+                                     final int color,
+                                     final PlayerType playerType,
+                                     final int[] plyOrder,
+                                     final long candidateMoves,
+                                     final int startIndex,
+                                     final SplitPoint splitPoint) {
+        
+        final BrotherTask[] tasks = new BrotherTask[plyOrder.length];
+        
+        // The eldest brother has the move index 0:
+        int moveIndex = 1;
+        
+        for (int i = startIndex; i < plyOrder.length; i++) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves,
+                                                 plyOrder[i])) {
+                continue;
+            }
+            
+            final ConnectFourBoard child = new ConnectFourBoard(state);
+            
+            child.makePly(plyOrder[i], playerType);
+            tasks[i] = new BrotherTask(child,
+                                       plyOrder[i],
+                                       moveIndex++,
+                                       depth - 1,
+                                       height + 1,
+                                       -color,
+                                       splitPoint);
+            tasks[i].fork();
+        }
+        
+        for (final BrotherTask task : tasks) {
+            if (task != null) {
+                task.join();
+            }
+        }
+    }
+    
+    /**
+     * The sequential negamax below the split nodes. Gives up as soon as any
+     * split point above is aborted.
+     */
+    private int negamax(final ConnectFourBoard state,
+                        final int depth,
+                        final int height,
+                        int alpha,
+                        final int beta,
+                        final int color,
+                        final SplitPoint splitPoint,
+                        final SearchStatistics statistics,
+                        final MoveOrdering moveOrdering) {
+        
+        statistics.countNode(height);
+        
+        if (depth == 0 || state.isTerminal()) {
+            statistics.countLeaf();
+            return color * heuristicFunction.evaluate(state, depth);
+        }
+        
+        if (shouldAbortSearch()) {
+            return 0;
+        }
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long key = state.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        int ttPly = TranspositionTable.NO_MOVE;
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            statistics.countTranspositionHit();
+            ttPly = state.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+            
+            if (TranspositionTable.isCutoff(entry, depth, alpha, beta)) {
+                return TranspositionTable.getScore(entry);
+            }
+        }
+        
+        final int originalAlpha = alpha;
+        int value = MIN_INT;
+        int bestPly = ttPly;
+        int moveIndex = 0;
+        
+        final long candidateMoves = state.getCandidateMoves(playerType);
+        
+        for (int x : moveOrdering.getPlyOrder(height, ttPly, playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            state.makePly(x, playerType);
+            
+            final int score = -negamax(state,
+                                       depth - 1,
+                                       height + 1,
+                                       -beta,
+                                       -alpha,
+                                       -color,
+                                       splitPoint,
+                                       statistics,
+                                       moveOrdering);
+            
+            state.unmakePly(x);
+            
+            if (isAborted(splitPoint)) {
+                return 0;
+            }
+            
+            if (value < score) {
+                value = score;
+                bestPly = x;
+            }
+            
+            alpha = Math.max(alpha, value);
+            
+            if (alpha >= beta) {
+                statistics.countCutoff(moveIndex);
+                moveOrdering.recordCutoff(height, x, playerType, depth);
+                break;
+            }
+            
+            moveIndex++;
+        }
+        
+        transpositionTable.store(
+                key,
+                depth,
+                value,
+                TranspositionTable.getBoundType(value, originalAlpha, beta),
+                state.getCanonicalColumn(bestPly, playerType));
+        return value;
+    }
+    
+    /**
+     * Returns {@code true} if the time budget ran out or a split point on the
+     * path to the root has been cut off.
+     */
+    private boolean isAborted(final SplitPoint splitPoint) {
+        return shouldAbortSearch() ||
+               (splitPoint != null && splitPoint.isAborted());
+    }
+    
+    /**
+     * Searches the root state, always as a split node, and picks the best
+     * child.
+     */
+    @SuppressWarnings("serial")
+    private final class RootTask extends RecursiveTask<ConnectFourBoard> {
+        
+        private final ConnectFourBoard root;
+        private final int depth;
+        private final int color;
+        private final int firstPly;
+        
+        RootTask(final ConnectFourBoard root,
+                 final int depth,
+                 final int color,
+                 final int firstPly) {
+            this.root = root;
+            this.depth = depth;
+            this.color = color;
+            this.firstPly = firstPly;
+        }
+        
+        @Override
+        protected ConnectFourBoard compute() {
+            final PlayerType playerType =
+                    color == 1 ?
+                    PlayerType.MAXIMIZING_PLAYER :
+                    PlayerType.MINIMIZING_PLAYER;
+            
+            final long key = root.getCanonicalZobristKey(playerType);
+            final long entry = transpositionTable.probe(key);
+            final int ttPly = entry == TranspositionTable.NO_ENTRY ?
+                              TranspositionTable.NO_MOVE :
+                              root.getCanonicalColumn(
+                                      TranspositionTable.getBestMove(entry),
+                                      playerType);
+            
+            final int[] plyOrder =
+                    getPlyOrder(firstPly >= 0 ? firstPly : ttPly);
+            
+            final SearchStatistics statistics = stripes.get();
+            final ConnectFourBoard state = new ConnectFourBoard(root);
+            final long candidateMoves = state.getCandidateMoves(playerType);
+            int eldestIndex = 0;
+            
+            statistics.countNode(0);
+            int value = MIN_INT;
+            int bestPly = TranspositionTable.NO_MOVE;
+            
+            for (; eldestIndex < plyOrder.length; eldestIndex++) {
+                final int x = plyOrder[eldestIndex];
+                
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                    continue;
+                }
+                
+                state.makePly(x, playerType);
+                value = -search(state,
+                                depth - 1,
+                                1,
+                                MIN_INT,
+                                MAX_INT,
+                                -color,
+                                null,
+                                statistics);
+                bestPly = x;
+                state.unmakePly(x);
+                break;
+            }
+            
+            if (bestPly == TranspositionTable.NO_MOVE || isSearchAborted()) {
+                return null;
+            }
+            
+            final SplitPoint splitPoint =
+                    new SplitPoint(null, value, MAX_INT, value, bestPly);
+            
+            searchYoungBrothers(state,
+                                depth,
+                                0,
+                                color,
+                                playerType,
+                                plyOrder,
+                                candidateMoves,
+                                eldestIndex + 1,
+                                splitPoint);
+            
+            if (isSearchAborted()) {
+                return null;
+            }
+            
+            bestPly = splitPoint.getBestPly();
+            value = splitPoint.getBestValue();
+            
+            transpositionTable.store(
+                    key,
+                    depth,
+                    value,
+                    TranspositionTable.getBoundType(value, MIN_INT, MAX_INT),
+                    root.getCanonicalColumn(bestPly, playerType));
+            
+            final ConnectFourBoard bestMoveState = new ConnectFourBoard(root);
+            bestMoveState.makePly(bestPly, playerType);
+            return bestMoveState;
+        }
+    }
+    
+    /**
+     * Searches a young brother of a split point and reports the result to it.
+     */
+    @SuppressWarnings("serial")
+    private final class BrotherTask extends RecursiveAction {
+        
+        private final ConnectFourBoard state;
+        private final int ply;
+        private final int moveIndex;
+        private final int depth;
+        private final int height;
+        private final int color;
+        private final SplitPoint splitPoint;
+        
+        BrotherTask(final ConnectFourBoard state,
+                    final int ply,
+                    final int moveIndex,
+                    final int depth,
+                    final int height,
+                    final int color,
+                    final SplitPoint splitPoint) {
+            this.state = state;
+            this.ply = ply;
+            this.moveIndex = moveIndex;
+            this.depth = depth;
+            this.height = height;
+            this.color = color;
+            this.splitPoint = splitPoint;
+        }
+        
+        @Override
+        protected void compute() {
+            if (isAborted(splitPoint)) {
+                return;
+            }
+            
+            final SearchStatistics statistics = stripes.get();
+            
+            // Use the best bound found by the brothers finished so far:
+            final int alpha = splitPoint.getAlpha();
+            final int score = -search(state,
+                                      depth,
+                                      height,
+                                      -splitPoint.getBeta(),
+                                      -alpha,
+                                      color,
+                                      splitPoint,
+                                      statistics);
+            
+            if (!isAborted(splitPoint) && splitPoint.update(score, ply)) {
+                statistics.countCutoff(moveIndex);
+            }
+        }
+    }
+}
@@ -4,13 +4,16 @@ import com.github.coderodde.game.connect4.ConnectFourBoard;
 import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
 import com.github.coderodde.game.zerosum.PlayerType;
 import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
+import com.github.coderodde.game.zerosum.TranspositionTable;
 
 /**
  * This class implements the 
  * <a href="https://en.wikipedia.org/wiki/Alpha%E2%80%93beta_pruning">
- * Alpha-beta pruning</a> algorithm for making a move.
+ * Alpha-beta pruning</a> algorithm for making a move. The plies are ordered by
+ * the killer move and the history heuristics.
  * 
- * @version 1.0.0 (Jun 5, 2024)
+ * @version 1.1.0 (Jun 24, 2024)
  * @since 1.0.0 (Jun 5, 2024)
  */
 public final class ConnectFourAlphaBetaPruningSearchEngine
@@ -18,6 +21,7 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
     
     private ConnectFourBoard bestMoveState;
     private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final MoveOrdering moveOrdering = new MoveOrdering();
     
     public ConnectFourAlphaBetaPruningSearchEngine(
             final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
@@ -33,21 +37,32 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
     }   
 
     @Override
-    public ConnectFourBoard search(final ConnectFourBoard root,
-                                   int depth, 
-                                   final PlayerType playerType) {
+    protected ConnectFourBoard searchIteration(final ConnectFourBoard root,
+                                               int depth, 
+                                               final PlayerType playerType,
+                                               final int firstPly) {
+        
+        final ConnectFourBoard preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
+        moveOrdering.age();
         bestMoveState = null;
         
-        alphaBetaRootImpl(root, 
+        alphaBetaRootImpl(preparedRoot, 
                           depth,
-                          playerType);
+                          playerType,
+                          firstPly);
         
-        return bestMoveState;
+        return isSearchAborted() ? null : bestMoveState;
     }
     
     private void alphaBetaRootImpl(final ConnectFourBoard root, 
                                    final int depth,
-                                   final PlayerType playerType) {
+                                   final PlayerType playerType,
+                                   final int firstPly) {
+        
+        searchStatistics.countNode(0);
         
         if (playerType == PlayerType.MAXIMIZING_PLAYER) {
             
@@ -56,14 +71,23 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
             int value = Integer.MIN_VALUE;
             int tentativeValue = Integer.MIN_VALUE;
             
-            for (final int x : PLIES) {
-                if (!root.makePly(x, PlayerType.MAXIMIZING_PLAYER)) {
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER);
+            
+            for (final int x : 
+                    moveOrdering.getPlyOrder(0, 
+                                             firstPly,
+                                             PlayerType.MAXIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MAXIMIZING_PLAYER);
 
                 value = Math.max(value,
                                  alphaBetaImpl(root,
                                                depth - 1,
+                                               1,
                                                alpha,
                                                Double.POSITIVE_INFINITY,
                                                PlayerType.MINIMIZING_PLAYER));
@@ -75,6 +99,10 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
 
                 root.unmakePly(x);  
                 
+                if (isSearchAborted()) {
+                    return;
+                }
+                
                 alpha = Math.max(alpha, value);
             }
         } else {
@@ -83,14 +111,23 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
             int value = Integer.MAX_VALUE;
             int tentativeValue = Integer.MAX_VALUE;
             
-            for (final int x : PLIES) {
-                if (!root.makePly(x, PlayerType.MINIMIZING_PLAYER)) {
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MINIMIZING_PLAYER);
+            
+            for (final int x : 
+                    moveOrdering.getPlyOrder(0, 
+                                             firstPly,
+                                             PlayerType.MINIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MINIMIZING_PLAYER);
 
                 value = Math.min(value,
                                  alphaBetaImpl(root,
                                                depth - 1,
+                                               1,
                                                Double.NEGATIVE_INFINITY,
                                                beta,
                                                PlayerType.MAXIMIZING_PLAYER));
@@ -102,6 +139,10 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
 
                 root.unmakePly(x);
                 
+                if (isSearchAborted()) {
+                    return;
+                }
+                
                 beta = Math.min(beta, value);
             }
         }
@@ -109,61 +150,110 @@ public final class ConnectFourAlphaBetaPruningSearchEngine
     
     private int alphaBetaImpl(final ConnectFourBoard state,
                               final int depth, 
+                              final int height,
                               double alpha,
                               double beta,
                               final PlayerType playerType) {
         
+        searchStatistics.countNode(height);
+        
         if (depth == 0 || state.isTerminal()) {
+            searchStatistics.countLeaf();
             return heuristicFunction.evaluate(state, depth);
         }
         
+        if (shouldAbortSearch()) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
         if (playerType == PlayerType.MAXIMIZING_PLAYER) {
             int value = Integer.MIN_VALUE;
+            int moveIndex = 0;
+            
+            final long candidateMoves = 
+                    state.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER);
             
-            for (int x : PLIES) {
-                if (!state.makePly(x, PlayerType.MAXIMIZING_PLAYER)) {
+            for (int x : 
+                    moveOrdering.getPlyOrder(height,
+                                             TranspositionTable.NO_MOVE,
+                                             PlayerType.MAXIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
                 
+                state.makePly(x, PlayerType.MAXIMIZING_PLAYER);
+                
                 value = Math.max(value, 
                                  alphaBetaImpl(state,
                                                depth - 1,
+                                               height + 1,
                                                alpha,
                                                beta,
                                                PlayerType.MINIMIZING_PLAYER));
                 
                 state.unmakePly(x);
                 
+                if (isSearchAborted()) {
+                    return 0;
+                }
+                
                 if (value > beta) {
+                    searchStatistics.countCutoff(moveIndex);
+                    moveOrdering.recordCutoff(height, 
+                                              x, 
+                                              PlayerType.MAXIMIZING_PLAYER,
+                                              depth);
                     break;
                 }
                 
                 alpha = Math.max(alpha, value);
+                moveIndex++;
             }   
             
             return value;
         } else {
             int value = Integer.MAX_VALUE;
+            int moveIndex = 0;
+            
+            final long candidateMoves = 
+                    state.getCandidateMoves(PlayerType.MINIMIZING_PLAYER);
             
-            for (int x : PLIES) {
-                if (!state.makePly(x, PlayerType.MINIMIZING_PLAYER)) {
+            for (int x : 
+                    moveOrdering.getPlyOrder(height,
+                                             TranspositionTable.NO_MOVE,
+                                             PlayerType.MINIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
                 
+                state.makePly(x, PlayerType.MINIMIZING_PLAYER);
+                
                 value = Math.min(value,
                                  alphaBetaImpl(state,
                                                depth - 1,
+                                               height + 1,
                                                alpha,
                                                beta,
                                                PlayerType.MAXIMIZING_PLAYER));
                 
                 state.unmakePly(x);
                 
+                if (isSearchAborted()) {
+                    return 0;
+                }
+                
                 if (value < alpha) {
+                    searchStatistics.countCutoff(moveIndex);
+                    moveOrdering.recordCutoff(height,
+                                              x, 
+                                              PlayerType.MINIMIZING_PLAYER,
+                                              depth);
                     break;
                 }
                 
                 beta = Math.min(beta, value);
+                moveIndex++;
             }
             
             return value;
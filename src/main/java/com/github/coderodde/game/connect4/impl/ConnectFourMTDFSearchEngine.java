@@ -0,0 +1,287 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+
+/**
+ * This class implements the
+ * <a href="https://en.wikipedia.org/wiki/MTD(f)">MTD(f)</a> algorithm for
+ * playing Connect Four. Each search iteration converges on the minimax value
+ * of the root by a series of null-window negamax searches, each of which
+ * either raises the lower bound or lowers the upper bound of the value. The
+ * transposition table keeps the bounds of the previous passes, so the later
+ * passes revisit little.
+ * <p>
+ * The first guess of the value is the value of the previous iteration over 
+ * the same root, or else the score of the root in the transposition table, 
+ * or else the static evaluation of the root. Deepening the search is left to
+ * {@link #search(ConnectFourBoard, java.time.Duration, PlayerType)}.
+ * 
+ * @version 1.0.0 (Jul 9, 2024)
+ * @since 1.0.0 (Jul 9, 2024)
+ */
+public final class ConnectFourMTDFSearchEngine
+        extends AbstractConnectFourSearchEngine {
+    
+    private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final TranspositionTable transpositionTable;
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    
+    /**
+     * The best move state of the latest root pass that failed high.
+     */
+    private ConnectFourBoard bestMoveState;
+    
+    /**
+     * The key of the root of the latest completed iteration and its value, 
+     * the first guess of the next iteration over the same root.
+     */
+    private long previousRootKey;
+    private int previousValue;
+    private boolean hasPreviousValue;
+    
+    public ConnectFourMTDFSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
+        
+        this(heuristicFunction, new TranspositionTable());
+    }
+    
+    public ConnectFourMTDFSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final TranspositionTable transpositionTable) {
+        
+        this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+    }
+    
+    @Override
+    protected ConnectFourBoard searchIteration(final ConnectFourBoard root,
+                                               final int depth,
+                                               final PlayerType playerType,
+                                               final int firstPly) {
+        
+        final ConnectFourBoard preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
+        
+        final int color = playerType == PlayerType.MAXIMIZING_PLAYER ?
+                          +1 :
+                          -1;
+        
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        
+        moveOrdering.age();
+        
+        int value;
+        
+        if (hasPreviousValue && previousRootKey == key) {
+            value = previousValue;
+        } else if (entry != TranspositionTable.NO_ENTRY) {
+            value = TranspositionTable.getScore(entry);
+        } else {
+            value = color * heuristicFunction.evaluate(preparedRoot, depth);
+        }
+        
+        int lowerBound = MIN_INT;
+        int upperBound = MAX_INT;
+        int firstRootPly = firstPly;
+        
+        if (firstRootPly < 0 && entry != TranspositionTable.NO_ENTRY) {
+            firstRootPly = root.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+        }
+        
+        bestMoveState = null;
+        
+        while (lowerBound < upperBound) {
+            final int beta = value == lowerBound ? value + 1 : value;
+            
+            value = mtdfRoot(preparedRoot, depth, beta, color, firstRootPly);
+            
+            if (isSearchAborted()) {
+                return null;
+            }
+            
+            if (value < beta) {
+                upperBound = value;
+            } else {
+                lowerBound = value;
+                firstRootPly = root.getPlyColumn(bestMoveState);
+            }
+        }
+        
+        previousRootKey = key;
+        previousValue = value;
+        hasPreviousValue = true;
+        
+        if (bestMoveState != null) {
+            transpositionTable.store(
+                    key,
+                    depth,
+                    value,
+                    TranspositionTable.EXACT,
+                    root.getCanonicalColumn(root.getPlyColumn(bestMoveState),
+                                            playerType));
+        }
+        
+        return bestMoveState;
+    }
+    
+    /**
+     * Runs a null-window pass {@code (beta - 1, beta)} over the root. If the
+     * pass fails high, sets {@link #bestMoveState} to the move that did it.
+     * 
+     * @return the value of the root, a lower bound if at least {@code beta}
+     *         and an upper bound otherwise.
+     */
+    private int mtdfRoot(final ConnectFourBoard root,
+                         final int depth,
+                         final int beta,
+                         final int color,
+                         final int firstPly) {
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        searchStatistics.countNode(0);
+        
+        int value = MIN_INT;
+        int moveIndex = 0;
+        
+        final long candidateMoves = root.getCandidateMoves(playerType);
+        
+        for (int x : moveOrdering.getPlyOrder(0, firstPly, playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            root.makePly(x, playerType);
+            
+            final int score = -nullWindowSearch(root,
+                                                depth - 1,
+                                                1,
+                                                1 - beta,
+                                                -color);
+            
+            if (score >= beta) {
+                bestMoveState = new ConnectFourBoard(root);
+            }
+            
+            root.unmakePly(x);
+            
+            if (isSearchAborted()) {
+                return 0;
+            }
+            
+            value = Math.max(value, score);
+            
+            if (value >= beta) {
+                searchStatistics.countCutoff(moveIndex);
+                break;
+            }
+            
+            moveIndex++;
+        }
+        
+        return value;
+    }
+    
+    /**
+     * Runs a fail-soft negamax search with the null window
+     * {@code (beta - 1, beta)}.
+     */
+    private int nullWindowSearch(final ConnectFourBoard root,
+                                 final int depth,
+                                 final int height,
+                                 final int beta,
+                                 final int color) {
+        
+        searchStatistics.countNode(height);
+        
+        if (depth == 0 || root.isTerminal()) {
+            searchStatistics.countLeaf();
+            return color * heuristicFunction.evaluate(root, depth);
+        }
+        
+        if (shouldAbortSearch()) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        int ttPly = TranspositionTable.NO_MOVE;
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            searchStatistics.countTranspositionHit();
+            ttPly = root.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+            
+            if (TranspositionTable.isCutoff(entry, depth, beta - 1, beta)) {
+                return TranspositionTable.getScore(entry);
+            }
+        }
+        
+        int value = MIN_INT;
+        int bestPly = ttPly;
+        int moveIndex = 0;
+        
+        final long candidateMoves = root.getCandidateMoves(playerType);
+        
+        for (int x : moveOrdering.getPlyOrder(height, ttPly, playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            root.makePly(x, playerType);
+            
+            final int score = -nullWindowSearch(root,
+                                                depth - 1,
+                                                height + 1,
+                                                1 - beta,
+                                                -color);
+            
+            root.unmakePly(x);
+            
+            if (isSearchAborted()) {
+                return 0;
+            }
+            
+            if (value < score) {
+                value = score;
+                bestPly = x;
+            }
+            
+            if (value >= beta) {
+                searchStatistics.countCutoff(moveIndex);
+                moveOrdering.recordCutoff(height, x, playerType, depth);
+                break;
+            }
+            
+            moveIndex++;
+        }
+        
+        transpositionTable.store(
+                key,
+                depth,
+                value,
+                TranspositionTable.getBoundType(value, beta - 1, beta),
+                root.getCanonicalColumn(bestPly, playerType));
+        return value;
+    }
+}
@@ -3,43 +3,169 @@ package com.github.coderodde.game.connect4.impl;
 import com.github.coderodde.game.connect4.ConnectFourBoard;
 import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
 import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
 import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
 
 /**
  * This class implements a Negamax algorithm with alpha-beta pruning for playing
- * Connect Four.
+ * Connect Four. Transposed positions are looked up in a transposition table.
+ * The plies are ordered by the killer move and the history heuristics.
  * 
- * @version 1.0.0 (Jun 16, 2024)
+ * @version 1.3.0 (Jul 14, 2024)
  * @since 1.0.0 (Jun 16, 2024)
  */
 public final class ConnectFourNegamaxSearchEngine
         extends AbstractConnectFourSearchEngine {
 
     private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final TranspositionTable transpositionTable;
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    private final int aspirationWindowWidth;
+    
+    /**
+     * The value of the latest root search for the player to move. A bound if
+     * the search failed low or high or was cut short.
+     */
+    private int rootValue;
+    
+    /**
+     * The value of the root in the latest completed iteration, which 
+     * produced the returned move.
+     */
+    private int completedRootValue;
     
     public ConnectFourNegamaxSearchEngine(
             final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
         
+        this(heuristicFunction, new TranspositionTable());
+    }
+    
+    public ConnectFourNegamaxSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final TranspositionTable transpositionTable) {
+        
+        this(heuristicFunction, 
+             transpositionTable, 
+             DEFAULT_ASPIRATION_WINDOW_WIDTH);
+    }
+    
+    /**
+     * Constructs this search engine.
+     * 
+     * @param heuristicFunction     the heuristic function used to score the 
+     *                              states.
+     * @param transpositionTable    the transposition table.
+     * @param aspirationWindowWidth the distance from the score of the previous
+     *                              search to either bound of the aspiration 
+     *                              window at the root, or 0 for searching the 
+     *                              root with the full window.
+     */
+    public ConnectFourNegamaxSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final TranspositionTable transpositionTable,
+            final int aspirationWindowWidth) {
+        
+        if (aspirationWindowWidth < 0) {
+            throw new IllegalArgumentException(
+                    "The aspiration window width must not be negative: " +
+                            aspirationWindowWidth);
+        }
+        
         this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+        this.aspirationWindowWidth = aspirationWindowWidth;
+    }
+    
+    /**
+     * Returns the exact value of the root in the iteration that produced the 
+     * result of the latest search, from the point of view of the player to 
+     * move. A time-bounded search reports the value of its last completed 
+     * iteration, along with the move of that iteration.
+     * 
+     * @return the value of the root.
+     */
+    public int getRootValue() {
+        return completedRootValue;
+    }
+    
+    @Override
+    protected void iterationCompleted(final int depth) {
+        completedRootValue = rootValue;
     }
     
     @Override
-    public ConnectFourBoard search(final ConnectFourBoard root, 
-                                   final int depth, 
-                                   final PlayerType playerType) {
-        
-        if (playerType == PlayerType.MINIMIZING_PLAYER) {
-            return negamaxRoot(root, 
-                               depth,
-                               MIN_INT,
-                               MAX_INT,
-                               -1);
-        } else {
-            return negamaxRoot(root,
-                               depth,
-                               MIN_INT,
-                               MAX_INT,
-                               +1);
+    protected ConnectFourBoard searchIteration(final ConnectFourBoard root, 
+                                               final int depth, 
+                                               final PlayerType playerType,
+                                               final int firstPly) {
+        
+        final ConnectFourBoard preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
+        moveOrdering.age();
+        
+        return aspirationSearch(preparedRoot, 
+                                depth,
+                                playerType == PlayerType.MINIMIZING_PLAYER ?
+                                        -1 :
+                                        +1,
+                                firstPly);
+    }
+    
+    /**
+     * Searches the root with an aspiration window centered on the exact score
+     * of the previous search of the root, if the transposition table has one.
+     * A result falling outside the window is a bound only, so the root is 
+     * searched again with the window opened on the failing side.
+     */
+    private ConnectFourBoard aspirationSearch(final ConnectFourBoard root,
+                                              final int depth,
+                                              final int color,
+                                              final int firstPly) {
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long entry = 
+                transpositionTable.probe(
+                        root.getCanonicalZobristKey(playerType));
+        
+        if (aspirationWindowWidth == 0 || 
+                entry == TranspositionTable.NO_ENTRY ||
+                TranspositionTable.getBound(entry) != 
+                TranspositionTable.EXACT) {
+            
+            return negamaxRoot(root, depth, MIN_INT, MAX_INT, color, firstPly);
+        }
+        
+        final int score = TranspositionTable.getScore(entry);
+        int alpha = Math.max(MIN_INT, score - aspirationWindowWidth);
+        int beta = Math.min(MAX_INT, score + aspirationWindowWidth);
+        
+        searchStatistics.countAspirationSearch();
+        
+        while (true) {
+            final ConnectFourBoard bestMoveState = 
+                    negamaxRoot(root, depth, alpha, beta, color, firstPly);
+            
+            if (bestMoveState == null) {
+                // No moves, or aborted:
+                return null;
+            }
+            
+            if (rootValue <= alpha && alpha > MIN_INT) {
+                alpha = MIN_INT;
+            } else if (rootValue >= beta && beta < MAX_INT) {
+                beta = MAX_INT;
+            } else {
+                return bestMoveState;
+            }
+            
+            searchStatistics.countAspirationResearch();
         }
     }
     
@@ -47,34 +173,59 @@ public final class ConnectFourNegamaxSearchEngine
                                          final int depth,
                                          int alpha,
                                          int beta,
-                                         final int color) {
+                                         final int color,
+                                         final int firstPly) {
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        searchStatistics.countNode(0);
+        
+        final int originalAlpha = alpha;
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        final int ttPly = entry == TranspositionTable.NO_ENTRY ?
+                          TranspositionTable.NO_MOVE :
+                          root.getCanonicalColumn(
+                                  TranspositionTable.getBestMove(entry),
+                                  playerType);
         
         int value = MIN_INT;
+        int bestPly = TranspositionTable.NO_MOVE;
         ConnectFourBoard bestMoveState = null;
         
-        for (int x : PLIES) {
-            if (!root.makePly(
-                    x, 
-                    color == 1 ? 
-                            PlayerType.MAXIMIZING_PLAYER : 
-                            PlayerType.MINIMIZING_PLAYER)) {
-                
+        final long candidateMoves = root.getCandidateMoves(playerType);
+        
+        for (int x : moveOrdering.getPlyOrder(0,
+                                              firstPly >= 0 ? firstPly : ttPly,
+                                              playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                 continue;
             }
             
+            root.makePly(x, playerType);
+            
             final int score = -negamax(root,
                                        depth - 1,
+                                       1,
                                        -beta,
                                        -alpha,
                                        -color);
             
             if (value < score) {
                 value = score;
+                bestPly = x;
                 bestMoveState = new ConnectFourBoard(root);
             }
             
             root.unmakePly(x);
             
+            if (isSearchAborted()) {
+                return null;
+            }
+            
             alpha = Math.max(alpha, value);
             
             if (alpha >= beta) {
@@ -82,49 +233,108 @@ public final class ConnectFourNegamaxSearchEngine
             }
         }
         
+        rootValue = value;
+        
+        if (bestPly != TranspositionTable.NO_MOVE) {
+            transpositionTable.store(
+                    key,
+                    depth,
+                    value,
+                    TranspositionTable.getBoundType(value, originalAlpha, beta),
+                    root.getCanonicalColumn(bestPly, playerType));
+        }
+        
         return bestMoveState;
     }
     
     private int negamax(final ConnectFourBoard root, 
                         final int depth,
+                        final int height,
                         int alpha,
                         int beta,
                         final int color) {
         
+        searchStatistics.countNode(height);
+        
         if (depth == 0 || root.isTerminal()) {
+            searchStatistics.countLeaf();
             return color * heuristicFunction.evaluate(root, depth);
         }
         
+        if (shouldAbortSearch()) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        int ttPly = TranspositionTable.NO_MOVE;
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            searchStatistics.countTranspositionHit();
+            ttPly = root.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+            
+            if (TranspositionTable.isCutoff(entry, depth, alpha, beta)) {
+                return TranspositionTable.getScore(entry);
+            }
+        }
+        
+        final int originalAlpha = alpha;
         int value = MIN_INT;
+        int bestPly = ttPly;
+        int moveIndex = 0;
         
-        for (int x : PLIES) {
-            if (!root.makePly(
-                    x, 
-                    color == 1 ? 
-                            PlayerType.MAXIMIZING_PLAYER : 
-                            PlayerType.MINIMIZING_PLAYER)) {
-                
+        final long candidateMoves = root.getCandidateMoves(playerType);
+        
+        for (int x : moveOrdering.getPlyOrder(height, ttPly, playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                 continue;
             }
             
-            value = Math.max(
-                        value,
-                        -negamax(
-                                root, 
-                                depth - 1, 
-                                -beta, 
-                                -alpha, 
-                                -color));
+            root.makePly(x, playerType);
+            
+            final int score = -negamax(root,
+                                       depth - 1,
+                                       height + 1,
+                                       -beta,
+                                       -alpha,
+                                       -color);
             
             root.unmakePly(x);
             
+            if (isSearchAborted()) {
+                return 0;
+            }
+            
+            if (value < score) {
+                value = score;
+                bestPly = x;
+            }
+            
             alpha = Math.max(alpha, value);
             
             if (alpha >= beta) {
+                searchStatistics.countCutoff(moveIndex);
+                moveOrdering.recordCutoff(height, x, playerType, depth);
                 break;
             }
+            
+            moveIndex++;
         }
         
+        transpositionTable.store(
+                key,
+                depth,
+                value,
+                TranspositionTable.getBoundType(value, originalAlpha, beta),
+                root.getCanonicalColumn(bestPly, playerType));
         return value;
     }
-}
\ No newline at end of file
+}
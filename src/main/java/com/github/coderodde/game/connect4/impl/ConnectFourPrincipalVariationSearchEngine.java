@@ -3,71 +3,206 @@ package com.github.coderodde.game.connect4.impl;
 import com.github.coderodde.game.connect4.ConnectFourBoard;
 import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
 import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
 import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
 
 /**
  * This class implements the PVS (Principal Variation Search) algorithm for 
- * playing Connect Four.
+ * playing Connect Four. Transposed positions are looked up in a transposition
+ * table.
  * 
- * @version 1.0.0 (Jun 18, 2024)
+ * @version 1.2.0 (Jul 8, 2024)
  * @since 1.0.0 (Jun 18, 2024)
  */
 public final class ConnectFourPrincipalVariationSearchEngine 
         extends AbstractConnectFourSearchEngine {
 
     private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final TranspositionTable transpositionTable;
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    private final int aspirationWindowWidth;
+    
+    /**
+     * The value of the latest root search for the player to move.
+     */
+    private int rootValue;
     
     public ConnectFourPrincipalVariationSearchEngine(
             final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
         
+        this(heuristicFunction, new TranspositionTable());
+    }
+    
+    public ConnectFourPrincipalVariationSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final TranspositionTable transpositionTable) {
+        
+        this(heuristicFunction, 
+             transpositionTable, 
+             DEFAULT_ASPIRATION_WINDOW_WIDTH);
+    }
+    
+    /**
+     * Constructs this search engine.
+     * 
+     * @param heuristicFunction     the heuristic function used to score the 
+     *                              states.
+     * @param transpositionTable    the transposition table.
+     * @param aspirationWindowWidth the distance from the score of the previous
+     *                              search to either bound of the aspiration 
+     *                              window at the root, or 0 for searching the 
+     *                              root with the full window.
+     */
+    public ConnectFourPrincipalVariationSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final TranspositionTable transpositionTable,
+            final int aspirationWindowWidth) {
+        
+        if (aspirationWindowWidth < 0) {
+            throw new IllegalArgumentException(
+                    "The aspiration window width must not be negative: " +
+                            aspirationWindowWidth);
+        }
+        
         this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+        this.aspirationWindowWidth = aspirationWindowWidth;
     }
     
     @Override
-    public ConnectFourBoard search(final ConnectFourBoard root, 
-                                   final int depth, 
-                                   final PlayerType playerType) {
-        return pvsRoot(root,
-                       depth,
-                       MIN_INT,
-                       MAX_INT,
-                       playerType == PlayerType.MINIMIZING_PLAYER ?
-                                  -1 :
-                                  +1);
+    protected ConnectFourBoard searchIteration(final ConnectFourBoard root, 
+                                               final int depth, 
+                                               final PlayerType playerType,
+                                               final int firstPly) {
+        
+        final ConnectFourBoard preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
+        moveOrdering.age();
+        
+        return aspirationSearch(preparedRoot, 
+                                depth,
+                                playerType == PlayerType.MINIMIZING_PLAYER ?
+                                        -1 :
+                                        +1,
+                                firstPly);
+    }
+    
+    /**
+     * Searches the root with an aspiration window centered on the exact score
+     * of the previous search of the root, if the transposition table has one.
+     * A result falling outside the window is a bound only, so the root is 
+     * searched again with the window opened on the failing side.
+     */
+    private ConnectFourBoard aspirationSearch(final ConnectFourBoard root,
+                                              final int depth,
+                                              final int color,
+                                              final int firstPly) {
+        
+        final PlayerType playerType =
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long entry = 
+                transpositionTable.probe(
+                        root.getCanonicalZobristKey(playerType));
+        
+        if (aspirationWindowWidth == 0 || 
+                entry == TranspositionTable.NO_ENTRY ||
+                TranspositionTable.getBound(entry) != 
+                TranspositionTable.EXACT) {
+            
+            return pvsRoot(root, depth, MIN_INT, MAX_INT, color, firstPly);
+        }
+        
+        final int score = TranspositionTable.getScore(entry);
+        int alpha = Math.max(MIN_INT, score - aspirationWindowWidth);
+        int beta = Math.min(MAX_INT, score + aspirationWindowWidth);
+        
+        searchStatistics.countAspirationSearch();
+        
+        while (true) {
+            final ConnectFourBoard bestMoveState = 
+                    pvsRoot(root, depth, alpha, beta, color, firstPly);
+            
+            if (bestMoveState == null) {
+                // No moves, or aborted:
+                return null;
+            }
+            
+            if (rootValue <= alpha && alpha > MIN_INT) {
+                alpha = MIN_INT;
+            } else if (rootValue >= beta && beta < MAX_INT) {
+                beta = MAX_INT;
+            } else {
+                return bestMoveState;
+            }
+            
+            searchStatistics.countAspirationResearch();
+        }
     }
     
     private ConnectFourBoard pvsRoot(final ConnectFourBoard root,
                                      final int depth,
                                      int alpha,
                                      int beta,
-                                     final int color) {
+                                     final int color,
+                                     final int firstPly) {
+        
+        final PlayerType playerType = 
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER : 
+                PlayerType.MINIMIZING_PLAYER;
+        
+        searchStatistics.countNode(0);
+        
+        final int originalAlpha = alpha;
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        final int ttPly = entry == TranspositionTable.NO_ENTRY ?
+                          TranspositionTable.NO_MOVE :
+                          root.getCanonicalColumn(
+                                  TranspositionTable.getBestMove(entry),
+                                  playerType);
         
         int value = MIN_INT;   
+        int bestPly = TranspositionTable.NO_MOVE;
         ConnectFourBoard bestMoveState = null;
         
-        for (final int x : PLIES) {
-            if (!root.makePly(
-                    x,
-                    color == 1 ?
-                            PlayerType.MAXIMIZING_PLAYER : 
-                            PlayerType.MINIMIZING_PLAYER)) {
-                
+        final long candidateMoves = root.getCandidateMoves(playerType);
+        
+        for (final int x : 
+                moveOrdering.getPlyOrder(0,
+                                         firstPly >= 0 ? firstPly : ttPly,
+                                         playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                 continue;
             }
             
+            root.makePly(x, playerType);
+            
             final int score = -pvs(root, 
                                    depth - 1, 
+                                   1,
                                    -beta,
                                    -alpha,
                                    -color);
             
             if (value < score) {
                 value = score;
+                bestPly = x;
                 bestMoveState = new ConnectFourBoard(root);
             }
             
             root.unmakePly(x);
             
+            if (isSearchAborted()) {
+                return null;
+            }
+            
             alpha = Math.max(alpha, value);
             
             if (alpha >= beta) {
@@ -75,30 +210,77 @@ public final class ConnectFourPrincipalVariationSearchEngine
             }
         }
         
+        rootValue = value;
+        
+        if (bestPly != TranspositionTable.NO_MOVE) {
+            transpositionTable.store(
+                    key,
+                    depth,
+                    value,
+                    TranspositionTable.getBoundType(value, originalAlpha, beta),
+                    root.getCanonicalColumn(bestPly, playerType));
+        }
+        
         return bestMoveState;
     }
     
     private int pvs(final ConnectFourBoard root,
                     final int depth,
+                    final int height,
                     int alpha,
                     int beta,
                     final int color) {
         
+        searchStatistics.countNode(height);
+        
         if (depth == 0 || root.isTerminal()) {
+            searchStatistics.countLeaf();
             return color * heuristicFunction.evaluate(root, depth);
         }
         
+        if (shouldAbortSearch()) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
+        final PlayerType playerType = 
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER : 
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        int ttPly = TranspositionTable.NO_MOVE;
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            searchStatistics.countTranspositionHit();
+            ttPly = root.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+            
+            if (TranspositionTable.isCutoff(entry, depth, alpha, beta)) {
+                // Fail hard like the rest of the search:
+                return Math.max(alpha,
+                                Math.min(beta,
+                                         TranspositionTable.getScore(entry)));
+            }
+        }
+        
+        final int originalAlpha = alpha;
+        int bestPly = ttPly;
         boolean isFirstState = true;
+        int moveIndex = 0;
+        
+        final long candidateMoves = root.getCandidateMoves(playerType);
         
-        for (final int x : PLIES) {
-            if (!root.makePly(
-                    x, 
-                    color == 1 ? 
-                            PlayerType.MAXIMIZING_PLAYER : 
-                            PlayerType.MINIMIZING_PLAYER)) {
+        for (final int x : 
+                moveOrdering.getPlyOrder(height, ttPly, playerType)) {
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                 continue;
             }
             
+            root.makePly(x, playerType);
+            
             int score;
             
             if (isFirstState) {
@@ -106,12 +288,14 @@ public final class ConnectFourPrincipalVariationSearchEngine
                     
                 score = -pvs(root,
                              depth - 1,
+                             height + 1,
                              -beta,
                              -alpha,
                              -color);
             } else {
                 score = -pvs(root,
                              depth -1,
+                             height + 1,
                              -alpha - 1, 
                              -alpha,
                              -color);
@@ -119,6 +303,7 @@ public final class ConnectFourPrincipalVariationSearchEngine
                 if (alpha < score && score < beta) {
                     score = -pvs(root, 
                                  depth - 1, 
+                                 height + 1,
                                  -beta, 
                                  -alpha, 
                                  -color);
@@ -127,13 +312,30 @@ public final class ConnectFourPrincipalVariationSearchEngine
             
             root.unmakePly(x);
             
-            alpha = Math.max(alpha, score);
+            if (isSearchAborted()) {
+                return 0;
+            }
+            
+            if (alpha < score) {
+                alpha = score;
+                bestPly = x;
+            }
             
             if (alpha >= beta) {
+                searchStatistics.countCutoff(moveIndex);
+                moveOrdering.recordCutoff(height, x, playerType, depth);
                 break;
             }
+            
+            moveIndex++;
         }
         
+        transpositionTable.store(
+                key,
+                depth,
+                alpha,
+                TranspositionTable.getBoundType(alpha, originalAlpha, beta),
+                root.getCanonicalColumn(bestPly, playerType));
         return alpha;
     }
 }
@@ -0,0 +1,74 @@
+package com.github.coderodde.game.connect4.impl;
+
+/**
+ * This class holds the game-theoretic value of a Connect Four position as
+ * proven by {@link ConnectFourSolverSearchEngine}. All the values are from the
+ * point of view of the player to move.
+ * 
+ * @version 1.0.0 (Jun 30, 2024)
+ * @since 1.0.0 (Jun 30, 2024)
+ */
+public final class ConnectFourSolution {
+    
+    /**
+     * The outcome of perfect play for the player to move.
+     */
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS;
+    }
+    
+    /**
+     * The distance of a weak solution, which does not determine it.
+     */
+    public static final int UNKNOWN_DISTANCE = -1;
+    
+    private final Outcome outcome;
+    private final int score;
+    private final int distance;
+    
+    ConnectFourSolution(final Outcome outcome,
+                        final int score,
+                        final int distance) {
+        this.outcome = outcome;
+        this.score = score;
+        this.distance = distance;
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    /**
+     * Returns the score of the position. A positive score is a win: the
+     * greater the score, the sooner the win. A negative score is a loss: the
+     * smaller the score, the sooner the loss. A weak solution has score
+     * -1, 0 or 1.
+     * 
+     * @return the score.
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    /**
+     * Returns the number of plies until the game ends under perfect play, or
+     * {@link #UNKNOWN_DISTANCE} for a weak solution.
+     * 
+     * @return the distance to the result in plies.
+     */
+    public int getDistance() {
+        return distance;
+    }
+    
+    @Override
+    public String toString() {
+        return distance == UNKNOWN_DISTANCE ?
+               outcome.toString() :
+               String.format("%s in %d plies (score %d)",
+                             outcome,
+                             distance,
+                             score);
+    }
+}
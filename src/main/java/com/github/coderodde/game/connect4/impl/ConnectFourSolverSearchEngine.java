@@ -0,0 +1,588 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.getColumnMask;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.getNonLosingMoves;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.getPossibleCells;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.getWinningCells;
+import com.github.coderodde.game.zerosum.PersistentTranspositionTable;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * This class implements an exact Connect Four solver. Unlike the heuristic
+ * engines, it searches until the end of the game and proves the value of the
+ * position under perfect play.
+ * <p>
+ * The score of a position is from the point of view of the player to move. A
+ * win with the {@code k}th own disc scores {@code 22 - k}, a loss with the
+ * {@code k}th opponent disc scores {@code k - 22} and a draw scores zero. The
+ * solver narrows the score range by null-window searches, stores the bounds
+ * in a transposition table keyed by the exact position, and prunes the plies
+ * that let the opponent win right away. In the weak mode it only determines
+ * whether the position is a win, a draw or a loss, which is considerably
+ * faster.
+ * <p>
+ * The solver does not use the search depth or the time budget: every search
+ * runs until the position is solved.
+ * <p>
+ * Given a persistent transposition table, the solver looks up the proven
+ * values of the positions it solves and of the children of the roots it
+ * searches, and writes back the values it proves. The weak mode stores a win
+ * as a lower bound of one and a loss as an upper bound of minus one, so the
+ * two modes share a table file.
+ * 
+ * @version 1.1.0 (Jul 12, 2024)
+ * @since 1.0.0 (Jun 30, 2024)
+ */
+public final class ConnectFourSolverSearchEngine
+        implements SearchEngine<ConnectFourBoard> {
+    
+    /**
+     * The default transposition table capacity of the solver.
+     */
+    public static final int DEFAULT_TRANSPOSITION_TABLE_CAPACITY = 1 << 22;
+    
+    /**
+     * The key fingerprint of the persistent transposition tables of the 
+     * solver. Identifies the position keys and the score scale; change it
+     * whenever either changes.
+     */
+    public static final long PERSISTENT_TABLE_FINGERPRINT = 
+            0x436f6e6e34536f31L; // "Conn4So1"
+    
+    private static final int WIDTH = ConnectFourBoard.COLUMNS;
+    private static final int HEIGHT = ConnectFourBoard.ROWS;
+    private static final int SIZE = WIDTH * HEIGHT;
+    
+    private static final int[] COLUMN_ORDER = ConnectFourBoard.getColumnOrder();
+    
+    private final TranspositionTable transpositionTable;
+    private final PersistentTranspositionTable persistentTable;
+    private final boolean weak;
+    
+    /**
+     * The candidate plies of each height, ordered best first. The number of
+     * discs on the board is the height, so recursion never shares a buffer.
+     */
+    private final long[][] moveBuffers = new long[SIZE + 1][WIDTH];
+    private final int[][] moveScoreBuffers = new int[SIZE + 1][WIDTH];
+    
+    private long nodeCount;
+    
+    private final SearchStatistics searchStatistics = new SearchStatistics();
+    
+    /**
+     * The number of discs in the root of the current search. The height of a
+     * node is the number of its discs minus this.
+     */
+    private int rootMoves;
+    
+    public ConnectFourSolverSearchEngine() {
+        this(false);
+    }
+    
+    public ConnectFourSolverSearchEngine(final boolean weak) {
+        this(new TranspositionTable(DEFAULT_TRANSPOSITION_TABLE_CAPACITY),
+             weak);
+    }
+    
+    /**
+     * Constructs this solver.
+     * 
+     * @param transpositionTable the transposition table. Must not be shared
+     *                           with the heuristic engines, whose scores are
+     *                           not comparable with the scores of this solver.
+     * @param weak               whether to determine only the outcome.
+     */
+    public ConnectFourSolverSearchEngine(
+            final TranspositionTable transpositionTable,
+            final boolean weak) {
+        
+        this(transpositionTable, null, weak);
+    }
+    
+    /**
+     * Constructs this solver.
+     * 
+     * @param transpositionTable the transposition table. Must not be shared
+     *                           with the heuristic engines, whose scores are
+     *                           not comparable with the scores of this solver.
+     * @param persistentTable    the table of the proven values, or 
+     *                           {@code null}. Must be opened with
+     *                           {@link #PERSISTENT_TABLE_FINGERPRINT}.
+     * @param weak               whether to determine only the outcome.
+     */
+    public ConnectFourSolverSearchEngine(
+            final TranspositionTable transpositionTable,
+            final PersistentTranspositionTable persistentTable,
+            final boolean weak) {
+        
+        this.transpositionTable = transpositionTable;
+        this.persistentTable = persistentTable;
+        this.weak = weak;
+    }
+    
+    /**
+     * Opens or creates a persistent transposition table file for the solver.
+     * 
+     * @param path     the path of the table file.
+     * @param capacity the number of entries of a new file.
+     * 
+     * @return the table.
+     * 
+     * @throws IOException if the file cannot be opened.
+     * @throws IllegalArgumentException if the file is not a table file of
+     *                                  the solver.
+     */
+    public static PersistentTranspositionTable openPersistentTable(
+            final Path path,
+            final int capacity) throws IOException {
+        
+        return PersistentTranspositionTable.open(path,
+                                                 capacity,
+                                                 PERSISTENT_TABLE_FINGERPRINT);
+    }
+    
+    public boolean isWeak() {
+        return weak;
+    }
+    
+    /**
+     * Returns the number of nodes visited since the construction of this
+     * solver.
+     * 
+     * @return the number of visited nodes.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+    
+    /**
+     * Returns the statistics of the last {@code search} or {@code solve} 
+     * call.
+     * 
+     * @return the statistics of the last search.
+     */
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return new SearchStatistics(searchStatistics);
+    }
+    
+    /**
+     * Solves {@code board} with {@code playerType} to move.
+     * 
+     * @param board      the position to solve.
+     * @param playerType the player to move.
+     * 
+     * @return the solution of the position.
+     */
+    public ConnectFourSolution solve(final ConnectFourBoard board,
+                                     final PlayerType playerType) {
+        
+        final int moves = SIZE - board.getEmptyCellCount();
+        final PlayerType winner = board.getWinner();
+        
+        if (winner != null) {
+            // The winning disc was dropped into a board of 'moves - 1' discs:
+            final int score = (SIZE + 2 - moves) / 2;
+            
+            return toSolution(winner == playerType ? score : -score,
+                              moves,
+                              weak);
+        }
+        
+        final long startTime = System.nanoTime();
+        
+        searchStatistics.clear();
+        rootMoves = moves;
+        
+        final int score = solve(board.getBitboard(playerType),
+                                board.getOccupiedBitboard(),
+                                moves);
+        
+        searchStatistics.setDuration(System.nanoTime() - startTime);
+        return toSolution(score, moves, weak);
+    }
+    
+    /**
+     * Returns the state after the best ply of {@code playerType}. Plies with
+     * equal scores are ordered center first.
+     * 
+     * @param root       the position.
+     * @param depth      ignored: the solver always searches to the end.
+     * @param playerType the player to move.
+     * 
+     * @return the next move state, or {@code null} if the game is over.
+     */
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root,
+                                   final int depth,
+                                   final PlayerType playerType) {
+        
+        if (root.isTerminal()) {
+            return null;
+        }
+        
+        final long position = root.getBitboard(playerType);
+        final long mask = root.getOccupiedBitboard();
+        final int moves = SIZE - root.getEmptyCellCount();
+        final long startTime = System.nanoTime();
+        int bestScore = Integer.MIN_VALUE;
+        int bestColumn = -1;
+        
+        searchStatistics.clear();
+        searchStatistics.countNode(0);
+        rootMoves = moves;
+        
+        for (final int x : COLUMN_ORDER) {
+            final long move = getPossibleCells(mask) & getColumnMask(x);
+            
+            if (move == 0L) {
+                // The column is full:
+                continue;
+            }
+            
+            final int score;
+            
+            if ((getWinningCells(position, mask) & move) != 0L) {
+                // Wins right away:
+                score = (SIZE + 1 - moves) / 2;
+            } else {
+                score = -solve(position ^ mask,
+                               mask | move,
+                               moves + 1);
+            }
+            
+            if (bestScore < score) {
+                bestScore = score;
+                bestColumn = x;
+            }
+        }
+        
+        searchStatistics.setDuration(System.nanoTime() - startTime);
+        
+        final ConnectFourBoard bestMoveState = new ConnectFourBoard(root);
+        bestMoveState.makePly(bestColumn, playerType);
+        return bestMoveState;
+    }
+    
+    /**
+     * Solves the position. The solver always runs to the end, regardless of
+     * {@code timeBudget}.
+     * 
+     * @param root       the position.
+     * @param timeBudget ignored.
+     * @param playerType the player to move.
+     * 
+     * @return the next move state, or {@code null} if the game is over.
+     */
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root,
+                                   final Duration timeBudget,
+                                   final PlayerType playerType) {
+        
+        return search(root, 0, playerType);
+    }
+    
+    /**
+     * Computes the score of the position in which the player to move owns
+     * {@code position} and {@code mask} contains all the discs.
+     * 
+     * @param position the discs of the player to move.
+     * @param mask     all the discs.
+     * @param moves    the number of discs.
+     * 
+     * @return the exact score, or the sign of the score in the weak mode.
+     */
+    private int solve(final long position, final long mask, final int moves) {
+        if ((getWinningCells(position, mask) & getPossibleCells(mask)) != 0L) {
+            return weak ? 1 : (SIZE + 1 - moves) / 2;
+        }
+        
+        int min = weak ? -1 : -(SIZE - moves) / 2;
+        int max = weak ? +1 : (SIZE + 1 - moves) / 2;
+        
+        final long key = getKey(position, mask);
+        
+        if (persistentTable != null) {
+            final long entry = persistentTable.probe(key);
+            
+            if (entry != TranspositionTable.NO_ENTRY) {
+                searchStatistics.countTranspositionHit();
+                
+                // The sign of a bound is a bound of the outcome:
+                final int score = weak ?
+                        Integer.signum(TranspositionTable.getScore(entry)) :
+                        TranspositionTable.getScore(entry);
+                
+                final int bound = TranspositionTable.getBound(entry);
+                
+                if (bound != TranspositionTable.UPPER_BOUND) {
+                    min = Math.max(min, score);
+                }
+                
+                if (bound != TranspositionTable.LOWER_BOUND) {
+                    max = Math.min(max, score);
+                }
+            }
+        }
+        
+        // Bisect the score range by null-window searches. Probing near zero
+        // first proves the outcome early:
+        while (min < max) {
+            int median = min + (max - min) / 2;
+            
+            if (median <= 0 && min / 2 < median) {
+                median = min / 2;
+            } else if (median >= 0 && max / 2 > median) {
+                median = max / 2;
+            }
+            
+            final int score = negamax(position,
+                                      mask,
+                                      moves,
+                                      median,
+                                      median + 1);
+            
+            if (score <= median) {
+                max = score;
+            } else {
+                min = score;
+            }
+        }
+        
+        if (persistentTable != null) {
+            persistentTable.store(key,
+                                  SIZE - moves,
+                                  min,
+                                  getPersistentBound(min),
+                                  TranspositionTable.NO_MOVE);
+        }
+        
+        return min;
+    }
+    
+    /**
+     * Returns the bound type under which {@code score} is stored in the
+     * persistent table. A weak win is only known to score at least one, and a
+     * weak loss at most minus one.
+     */
+    private int getPersistentBound(final int score) {
+        if (!weak || score == 0) {
+            return TranspositionTable.EXACT;
+        }
+        
+        return score > 0 ?
+               TranspositionTable.LOWER_BOUND :
+               TranspositionTable.UPPER_BOUND;
+    }
+    
+    /**
+     * Returns the key of the position shared with its mirror image. The sum
+     * never carries over a column, so it mirrors column by column.
+     */
+    private static long getKey(final long position, final long mask) {
+        return Math.min(position + mask,
+                        ConnectFourBoard.mirrorBitboard(position + mask));
+    }
+    
+    /**
+     * Runs a fail-soft alpha-beta search. The player to move must not have an
+     * immediately winning ply.
+     * 
+     * @return the exact score if it is within {@code (alpha, beta)}, an upper
+     *         bound of the score if the result is at most {@code alpha}, and a
+     *         lower bound if the result is at least {@code beta}.
+     */
+    private int negamax(final long position,
+                        final long mask,
+                        final int moves,
+                        int alpha,
+                        int beta) {
+        nodeCount++;
+        searchStatistics.countNode(moves - rootMoves);
+        
+        final long nonLosingMoves = getNonLosingMoves(position, mask);
+        
+        if (nonLosingMoves == 0L) {
+            // The opponent wins with the next disc:
+            searchStatistics.countLeaf();
+            return -(SIZE - moves) / 2;
+        }
+        
+        if (moves >= SIZE - 2) {
+            // Neither player can win with the last two discs:
+            searchStatistics.countLeaf();
+            return 0;
+        }
+        
+        final int min = -(SIZE - 2 - moves) / 2;
+        
+        if (alpha < min) {
+            alpha = min;
+            
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+        
+        int max = (SIZE - 1 - moves) / 2;
+        
+        final long key = getKey(position, mask);
+        final long entry = transpositionTable.probe(key);
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            searchStatistics.countTranspositionHit();
+            
+            final int score = TranspositionTable.getScore(entry);
+            
+            if (TranspositionTable.getBound(entry) ==
+                    TranspositionTable.LOWER_BOUND) {
+                
+                if (alpha < score) {
+                    alpha = score;
+                    
+                    if (alpha >= beta) {
+                        return alpha;
+                    }
+                }
+            } else if (score < max) {
+                max = score;
+            }
+        }
+        
+        if (beta > max) {
+            beta = max;
+            
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+        
+        final int numberOfMoves = orderMoves(position,
+                                             mask,
+                                             nonLosingMoves,
+                                             moves);
+        
+        final long[] orderedMoves = moveBuffers[moves];
+        
+        for (int i = 0; i < numberOfMoves; i++) {
+            final long move = orderedMoves[i];
+            final int score = -negamax(position ^ mask,
+                                       mask | move,
+                                       moves + 1,
+                                       -beta,
+                                       -alpha);
+            
+            if (score >= beta) {
+                searchStatistics.countCutoff(i);
+                transpositionTable.store(key,
+                                         0,
+                                         score,
+                                         TranspositionTable.LOWER_BOUND,
+                                         TranspositionTable.NO_MOVE);
+                return score;
+            }
+            
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        
+        transpositionTable.store(key,
+                                 0,
+                                 alpha,
+                                 TranspositionTable.UPPER_BOUND,
+                                 TranspositionTable.NO_MOVE);
+        return alpha;
+    }
+    
+    /**
+     * Orders the plies in {@code moveSet} by the number of winning cells each
+     * of them creates for the player to move, best first. Ties keep the
+     * center-first order.
+     * 
+     * @return the number of plies, stored in {@code moveBuffers[moves]}.
+     */
+    private int orderMoves(final long position,
+                           final long mask,
+                           final long moveSet,
+                           final int moves) {
+        
+        final long[] orderedMoves = moveBuffers[moves];
+        final int[] moveScores = moveScoreBuffers[moves];
+        int size = 0;
+        
+        for (final int x : COLUMN_ORDER) {
+            final long move = moveSet & getColumnMask(x);
+            
+            if (move == 0L) {
+                continue;
+            }
+            
+            final int score = Long.bitCount(getWinningCells(position | move,
+                                                            mask));
+            int i = size++;
+            
+            while (i > 0 && moveScores[i - 1] < score) {
+                orderedMoves[i] = orderedMoves[i - 1];
+                moveScores[i] = moveScores[i - 1];
+                i--;
+            }
+            
+            orderedMoves[i] = move;
+            moveScores[i] = score;
+        }
+        
+        return size;
+    }
+    
+    /**
+     * Converts a score to a solution.
+     * 
+     * @param score the score.
+     * @param moves the number of discs in the solved position.
+     * @param weak  whether {@code score} is only the sign of the score.
+     * 
+     * @return the solution.
+     */
+    private static ConnectFourSolution toSolution(final int score,
+                                                  final int moves,
+                                                  final boolean weak) {
+        final ConnectFourSolution.Outcome outcome =
+                score > 0 ? ConnectFourSolution.Outcome.WIN :
+                score < 0 ? ConnectFourSolution.Outcome.LOSS :
+                            ConnectFourSolution.Outcome.DRAW;
+        
+        if (weak) {
+            return new ConnectFourSolution(outcome,
+                                           Integer.signum(score),
+                                           ConnectFourSolution
+                                                   .UNKNOWN_DISTANCE);
+        }
+        
+        if (score == 0) {
+            return new ConnectFourSolution(outcome, 0, SIZE - moves);
+        }
+        
+        // A winner's final disc is dropped into a board of 'lastMoves' discs
+        // with (SIZE + 1 - lastMoves) / 2 == |score|. The parity of
+        // 'lastMoves' tells which player drops the disc:
+        int lastMoves = SIZE + 1 - 2 * Math.abs(score);
+        final int requiredParity = score > 0 ? moves & 1 : (moves + 1) & 1;
+        
+        if ((lastMoves & 1) != requiredParity) {
+            lastMoves--;
+        }
+        
+        return new ConnectFourSolution(outcome,
+                                       score,
+                                       Math.max(0, lastMoves - moves + 1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class implements a parallel negamax search on top of a long-lived
+ * {@link ForkJoinPool}. The nodes near the root search their first child 
+ * alone for a bound, and then fork a task for each remaining child, so the 
+ * subtrees are split recursively and idle workers steal the pending subtrees
+ * of busy ones. Only the nodes within the split height of the root are split;
+ * the deeper ones are searched sequentially. All the workers share one 
+ * lock-free transposition table.
+ * <p>
+ * The forked siblings share a {@link SplitPoint}, whose alpha each completed 
+ * sibling raises. Once a sibling fails high, the split point is aborted: the
+ * siblings not started yet return at once, and the running ones give up at
+ * their next node. See {@link YoungBrothersWaitConnectFourSearchEngine} for
+ * the engine splitting by the remaining depth instead.
+ * <p>
+ * The engine owns its pool unless one is passed to the constructor. Call
+ * {@link #close()} to shut down an owned pool once the engine is no longer
+ * needed.
+ * 
+ * @version 1.1.0 (Jul 16, 2024)
+ * @since 1.0.0 (Jul 1, 2024)
+ */
+public final class ForkJoinConnectFourSearchEngine
+        extends AbstractSplitPointSearchEngine {
+    
+    /**
+     * The default number of levels below the root that fork their children.
+     */
+    public static final int DEFAULT_SPLIT_HEIGHT = 3;
+    
+    /**
+     * Nodes with less remaining depth are searched sequentially; forking them
+     * costs more than it saves.
+     */
+    private static final int MINIMUM_SPLIT_DEPTH = 4;
+    
+    private final int splitHeight;
+    
+    public ForkJoinConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
+        
+        this(heuristicFunction, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Constructs this search engine with a pool of its own.
+     * 
+     * @param heuristicFunction the heuristic function used to score the states.
+     * @param parallelism       the number of worker threads.
+     */
+    public ForkJoinConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final int parallelism) {
+        
+        this(heuristicFunction,
+             new ForkJoinPool(parallelism),
+             true,
+             DEFAULT_SPLIT_HEIGHT,
+             new TranspositionTable());
+    }
+    
+    public ForkJoinConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final int splitHeight) {
+        
+        this(heuristicFunction, pool, splitHeight, new TranspositionTable());
+    }
+    
+    /**
+     * Constructs this search engine on a shared pool. {@link #close()} does
+     * not shut down {@code pool}.
+     * 
+     * @param heuristicFunction  the heuristic function used to score the 
+     *                           states.
+     * @param pool               the pool to run the search tasks in.
+     * @param splitHeight        the number of levels below the root that fork
+     *                           their children.
+     * @param transpositionTable the transposition table to use.
+     */
+    public ForkJoinConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final int splitHeight,
+            final TranspositionTable transpositionTable) {
+        
+        this(heuristicFunction, pool, false, splitHeight, transpositionTable);
+    }
+    
+    private ForkJoinConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final boolean ownsPool,
+            final int splitHeight,
+            final TranspositionTable transpositionTable) {
+        
+        super(heuristicFunction, pool, ownsPool, transpositionTable);
+        
+        if (splitHeight < 1) {
+            throw new IllegalArgumentException(
+                    "The split height must be positive: " + splitHeight);
+        }
+        
+        this.splitHeight = splitHeight;
+    }
+    
+    @Override
+    boolean isSplitNode(final int depth, final int height) {
+        return height < splitHeight && depth >= MINIMUM_SPLIT_DEPTH;
+    }
+}
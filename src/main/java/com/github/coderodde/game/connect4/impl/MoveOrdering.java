@@ -0,0 +1,151 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+
+/**
+ * This class implements the killer move and the history heuristics for
+ * ordering the plies of a search. At each height (the distance from the root)
+ * the two most recent plies that caused a beta cutoff are tried first, right
+ * after the best ply of the transposition table. The rest of the plies are
+ * tried in the descending order of their history scores, which accumulate the
+ * squared remaining depths of the cutoffs each column caused for each player.
+ * Ties keep the default center-first order.
+ * <p>
+ * The ply order arrays are preallocated per height, so ordering does not
+ * allocate. An instance may be used by one search thread at a time.
+ * 
+ * @version 1.0.0 (Jun 28, 2024)
+ * @since 1.0.0 (Jun 28, 2024)
+ */
+final class MoveOrdering {
+    
+    /**
+     * The maximum height of a node: the board fills up after this many plies.
+     */
+    static final int MAXIMUM_HEIGHT =
+            ConnectFourBoard.COLUMNS * ConnectFourBoard.ROWS;
+    
+    private static final int[] PLIES = ConnectFourBoard.getColumnOrder();
+    
+    private static final int TRANSPOSITION_TABLE_PLY_SCORE = Integer.MAX_VALUE;
+    private static final int FIRST_KILLER_SCORE = Integer.MAX_VALUE - 1;
+    private static final int SECOND_KILLER_SCORE = Integer.MAX_VALUE - 2;
+    
+    /**
+     * Once a history score exceeds this value, all history scores are halved.
+     * Keeps the scores below the killer scores.
+     */
+    private static final int MAXIMUM_HISTORY_SCORE = 1 << 24;
+    
+    private final int[][] killers = new int[MAXIMUM_HEIGHT + 1][2];
+    private final int[][] history =
+            new int[PlayerType.values().length][ConnectFourBoard.COLUMNS];
+    
+    private final int[][] plyOrders =
+            new int[MAXIMUM_HEIGHT + 1][ConnectFourBoard.COLUMNS];
+    
+    private final int[][] plyScores =
+            new int[MAXIMUM_HEIGHT + 1][ConnectFourBoard.COLUMNS];
+    
+    MoveOrdering() {
+        for (final int[] heightKillers : killers) {
+            heightKillers[0] = TranspositionTable.NO_MOVE;
+            heightKillers[1] = TranspositionTable.NO_MOVE;
+        }
+    }
+    
+    /**
+     * Prepares for a new search iteration. The killer moves are kept, since
+     * they are likely to cause cutoffs at the same heights in the next
+     * iteration, while the history scores are halved so that the recent
+     * cutoffs weigh more.
+     */
+    void age() {
+        for (final int[] playerHistory : history) {
+            for (int x = 0; x < playerHistory.length; x++) {
+                playerHistory[x] >>>= 1;
+            }
+        }
+    }
+    
+    /**
+     * Returns the order to try the plies in at the height {@code height}. The
+     * returned array is reused by the next call with the same height.
+     * 
+     * @param height     the distance of the node from the root.
+     * @param firstPly   the column to try first, or
+     *                   {@link TranspositionTable#NO_MOVE}.
+     * @param playerType the player to move.
+     * 
+     * @return the ply order.
+     */
+    int[] getPlyOrder(final int height,
+                      final int firstPly,
+                      final PlayerType playerType) {
+        
+        final int[] plyOrder = plyOrders[height];
+        final int[] plyScore = plyScores[height];
+        final int[] heightKillers = killers[height];
+        final int[] playerHistory = history[playerType.ordinal()];
+        
+        for (int i = 0; i < PLIES.length; i++) {
+            final int x = PLIES[i];
+            final int score;
+            
+            if (x == firstPly) {
+                score = TRANSPOSITION_TABLE_PLY_SCORE;
+            } else if (x == heightKillers[0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (x == heightKillers[1]) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                score = playerHistory[x];
+            }
+            
+            // Insertion sort, stable with respect to the default order:
+            int j = i;
+            
+            while (j > 0 && plyScore[j - 1] < score) {
+                plyOrder[j] = plyOrder[j - 1];
+                plyScore[j] = plyScore[j - 1];
+                j--;
+            }
+            
+            plyOrder[j] = x;
+            plyScore[j] = score;
+        }
+        
+        return plyOrder;
+    }
+    
+    /**
+     * Records a ply that caused a beta cutoff.
+     * 
+     * @param height     the distance of the node from the root.
+     * @param x          the column of the ply.
+     * @param playerType the player who made the ply.
+     * @param depth      the remaining depth of the node.
+     */
+    void recordCutoff(final int height,
+                      final int x,
+                      final PlayerType playerType,
+                      final int depth) {
+        
+        final int[] heightKillers = killers[height];
+        
+        if (heightKillers[0] != x) {
+            heightKillers[1] = heightKillers[0];
+            heightKillers[0] = x;
+        }
+        
+        final int[] playerHistory = history[playerType.ordinal()];
+        
+        playerHistory[x] += depth * depth;
+        
+        if (playerHistory[x] > MAXIMUM_HISTORY_SCORE) {
+            age();
+        }
+    }
+}
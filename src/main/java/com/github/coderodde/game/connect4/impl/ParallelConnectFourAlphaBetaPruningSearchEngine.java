@@ -5,28 +5,49 @@ import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
 import com.github.coderodde.game.connect4.ConnectFourHeuristicFunction;
 import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
 import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.IncrementalHeuristicFunction;
 import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.github.coderodde.game.zerosum.TranspositionTable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class implements the parallel Alpha-beta pruning for playing Connect 
- * Four.
+ * Four. The search may be split among the threads in two ways; see 
+ * {@link ParallelSearchMode}. In the Lazy SMP mode, the engine keeps its 
+ * search threads between the searches, and should be closed when no longer 
+ * needed.
  * 
- * @version 1.0.0 (Jun 7, 2024) 
+ * @version 1.1.0 (Jun 22, 2024) 
  * @since 1.0.0 (Jun 7, 2024)
  */
 public final class ParallelConnectFourAlphaBetaPruningSearchEngine 
-extends AbstractConnectFourSearchEngine {
+extends AbstractConnectFourSearchEngine implements AutoCloseable {
 
     private static final int MINIMUM_SEED_DEPTH = 2;
     private static final int DEFAULT_SEED_DEPTH = 2;
     private static final int MINIMUM_DEPTH = 5;
     
     private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final ParallelSearchMode searchMode;
+    private final int threadCount;
+    private TranspositionTable transpositionTable;
+    
+    /**
+     * The Lazy SMP search threads, started on the first Lazy SMP search and
+     * reused by the later ones.
+     */
+    private ExecutorService lazySMPExecutor;
+    
     private int requestedDepth;
     private int seedDepth;
     
@@ -42,6 +63,31 @@ extends AbstractConnectFourSearchEngine {
         
         this.heuristicFunction = heuristicFunction;
         this.seedDepth = seedDepth;
+        this.searchMode = ParallelSearchMode.SEED_STATES;
+        this.threadCount = Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Constructs this search engine.
+     * 
+     * @param heuristicFunction the heuristic function used to score the states.
+     * @param searchMode        the way to split the search among threads.
+     * @param threadCount       the number of search threads.
+     */
+    public ParallelConnectFourAlphaBetaPruningSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ParallelSearchMode searchMode,
+            final int threadCount) {
+        
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(
+                    "The thread count must be positive: " + threadCount);
+        }
+        
+        this.heuristicFunction = heuristicFunction;
+        this.seedDepth = DEFAULT_SEED_DEPTH;
+        this.searchMode = searchMode;
+        this.threadCount = threadCount;
     }
     
     /**
@@ -55,31 +101,61 @@ extends AbstractConnectFourSearchEngine {
         this(heuristicFunction, DEFAULT_SEED_DEPTH);
     }
     
+    /**
+     * Stops the Lazy SMP search threads. The engine cannot run Lazy SMP 
+     * searches after closing.
+     */
+    @Override
+    public void close() {
+        if (lazySMPExecutor != null) {
+            lazySMPExecutor.shutdown();
+        }
+    }
+    
     /**
      * Performs the actual search for the next move state.
      * 
-     * @param root  the root state of the search.
-     * @param depth the depth of the search.
+     * @param root       the root state of the search.
+     * @param depth      the depth of the search.
+     * @param playerType the player to move.
+     * @param firstPly   the column to try first at the root.
      * 
      * @return next move state.
      */
     @Override
-    public ConnectFourBoard 
-        search(final ConnectFourBoard root, 
-               final int depth,
-               final PlayerType playerType) {
+    protected ConnectFourBoard 
+        searchIteration(final ConnectFourBoard root, 
+                        final int depth,
+                        final PlayerType playerType,
+                        final int firstPly) {
     
         this.requestedDepth = depth;
         
+        // The seed states and the thread-local copies inherit the running
+        // score from the root:
+        final ConnectFourBoard preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
+        
+        if (searchMode == ParallelSearchMode.LAZY_SMP) {
+            return lazySMPSearch(preparedRoot, depth, playerType, firstPly);
+        }
+        
         if (depth < Math.max(MINIMUM_SEED_DEPTH, MINIMUM_DEPTH)) {
             // If too shallow, delegate to single-threaded AI:
-            return new ConnectFourAlphaBetaPruningSearchEngine(
-                    heuristicFunction).search(root,
-                                              depth);
+            final ConnectFourAlphaBetaPruningSearchEngine engine = 
+                    new ConnectFourAlphaBetaPruningSearchEngine(
+                            heuristicFunction);
+            
+            final ConnectFourBoard bestMoveState = 
+                    engine.search(preparedRoot, depth);
+            searchStatistics.add(engine.getSearchStatistics());
+            return bestMoveState;
         }
         
         // Obtains the list of seed states. May lower the 'seedDepth':
-        final List<ConnectFourBoard> seedStates = getSeedStates(root,
+        final List<ConnectFourBoard> seedStates = getSeedStates(preparedRoot,
                                                                 playerType);
         
         // Randomly shuffle the seed states. This is a trivial load balancing:
@@ -87,8 +163,7 @@ extends AbstractConnectFourSearchEngine {
         
         // Get the list of thread workloads:
         final List<List<ConnectFourBoard>> threadLoads = 
-                bucketizeSeedStates(seedStates, 
-                                    Runtime.getRuntime().availableProcessors());
+                bucketizeSeedStates(seedStates, threadCount);
         
         // Create the list of search threads:
         final List<SearchThread> searchThreadList = 
@@ -100,9 +175,11 @@ extends AbstractConnectFourSearchEngine {
                     new SearchThread(
                             threadLoad,
                             heuristicFunction,
+                            this,
                             seedDepth % 2 == 0 ? PlayerType.MAXIMIZING_PLAYER :
                                                  PlayerType.MINIMIZING_PLAYER,
-                            depth - seedDepth);
+                            depth - seedDepth,
+                            seedDepth);
             
             searchThread.start();
             
@@ -114,8 +191,23 @@ extends AbstractConnectFourSearchEngine {
             try {
                 searchThread.join();
             } catch (final InterruptedException ex) {
+                // Give up the iteration. The threads not joined are still 
+                // running, so their statistics are not counted:
+                for (final SearchThread thread : searchThreadList) {
+                    thread.stopSearch();
+                }
                 
+                Thread.currentThread().interrupt();
+                return null;
             }
+            
+            // Each thread counts into statistics of its own:
+            searchStatistics.add(searchThread.getSearchStatistics());
+        }
+        
+        if (isSearchAborted()) {
+            // Some seed states were not scored:
+            return null;
         }
         
         // Compute the global seed state score map:
@@ -127,10 +219,93 @@ extends AbstractConnectFourSearchEngine {
                 new SeedStateHeuristicFunction(globalScoreMap);
         
         // Just compute above the seed states:
-        return alphaBetaImplRoot(root, 
+        return alphaBetaImplRoot(preparedRoot, 
                                  seedHeuristicFunction,
                                  requestedDepth,
-                                 playerType);
+                                 playerType,
+                                 firstPly);
+    }
+    
+    /**
+     * Runs the Lazy SMP search. All the threads search the root state and 
+     * share a transposition table. Each thread deepens its search from one 
+     * ply on, which fills the table with the best moves of the shallower 
+     * searches. Every second helper thread searches one ply deeper than 
+     * {@code depth}, and the helpers try the plies in orders of their own, so
+     * that the threads spread over different parts of the tree. The search 
+     * is over as soon as any thread completes its search, which is at least
+     * {@code depth} plies deep.
+     * 
+     * @param root       the root state.
+     * @param depth      the search depth.
+     * @param playerType the player to move.
+     * @param firstPly   the column to try first at the root, or a negative 
+     *                   value for the best move of the transposition table.
+     * 
+     * @return the next move state, or {@code null} if the search was aborted
+     *         or interrupted.
+     */
+    private ConnectFourBoard lazySMPSearch(final ConnectFourBoard root,
+                                           final int depth,
+                                           final PlayerType playerType,
+                                           final int firstPly) {
+        if (transpositionTable == null) {
+            transpositionTable = new TranspositionTable();
+        }
+        
+        if (lazySMPExecutor == null) {
+            lazySMPExecutor = Executors.newFixedThreadPool(
+                    threadCount, 
+                    runnable -> {
+                        // The threads must not keep the JVM alive:
+                        final Thread thread = new Thread(runnable);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        
+        final LazySMPSharedState sharedState = new LazySMPSharedState();
+        final List<LazySMPSearchTask> searchTaskList = 
+                new ArrayList<>(threadCount);
+        
+        final List<Future<?>> futureList = new ArrayList<>(threadCount);
+        
+        for (int i = 0; i < threadCount; i++) {
+            // Every second helper thread searches one ply deeper:
+            final LazySMPSearchTask searchTask = 
+                    new LazySMPSearchTask(new ConnectFourBoard(root),
+                                          heuristicFunction,
+                                          transpositionTable,
+                                          sharedState,
+                                          this,
+                                          playerType,
+                                          depth + i % 2,
+                                          firstPly,
+                                          i);
+            
+            searchTaskList.add(searchTask);
+            futureList.add(lazySMPExecutor.submit(searchTask));
+        }
+        
+        for (int i = 0; i < threadCount; i++) {
+            try {
+                futureList.get(i).get();
+            } catch (final InterruptedException ex) {
+                // Give up the search. The tasks not waited for are still 
+                // running, so their statistics are not counted:
+                sharedState.stop();
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (final ExecutionException ex) {
+                sharedState.stop();
+                throw new IllegalStateException(ex.getCause());
+            }
+            
+            // Each task counts into statistics of its own:
+            searchStatistics.add(searchTaskList.get(i).getSearchStatistics());
+        }
+        
+        return sharedState.getBestMoveState();
     }
     
     /**
@@ -147,9 +322,11 @@ extends AbstractConnectFourSearchEngine {
                 final ConnectFourBoard root,
                 final SeedStateHeuristicFunction seedHeuristicFunction,
                 final int depth,
-                final PlayerType playerType) {
+                final PlayerType playerType,
+                final int firstPly) {
             
         ConnectFourBoard bestMoveState = null;
+        searchStatistics.countNode(0);
         
         if (playerType == PlayerType.MAXIMIZING_PLAYER) {
             
@@ -157,12 +334,15 @@ extends AbstractConnectFourSearchEngine {
             double value = Double.NEGATIVE_INFINITY;
             double tentativeValue = Double.NEGATIVE_INFINITY;
 
-            for (int x = 0; x < COLUMNS; x++) {
-                // Try to make a ply at column 'x':
-                if (!root.makePly(x, PlayerType.MAXIMIZING_PLAYER)) {
-                    // The entire column at X=x is full. Omit.
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER);
+            
+            for (final int x : getPlyOrder(firstPly)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MAXIMIZING_PLAYER);
 
                 value = Math.max(value,
                                  alphaBetaImplAboveSeedLayer(
@@ -192,13 +372,16 @@ extends AbstractConnectFourSearchEngine {
             double value = Double.POSITIVE_INFINITY;
             double tentativeValue = Double.POSITIVE_INFINITY;
             
-            for (int x = 0; x < COLUMNS; x++) {
-                // Try to make a ply at column 'x':
-                if (!root.makePly(x, PlayerType.MINIMIZING_PLAYER)) {
-                    // The entire column at X=x is full. Omit.
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MINIMIZING_PLAYER);
+            
+            for (final int x : getPlyOrder(firstPly)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
                 
+                root.makePly(x, PlayerType.MINIMIZING_PLAYER);
+                
                 value = Math.min(value,
                                  alphaBetaImplAboveSeedLayer(
                                         root,
@@ -233,12 +416,20 @@ extends AbstractConnectFourSearchEngine {
             final PlayerType rootPlayerType,
             final SeedStateHeuristicFunction seedStateHeuristicFunction) {
         
+        final int height = requestedDepth - depth;
+        
         if (depth == 0 || root.isTerminal()) {
+            if (height < seedDepth) {
+                // The seed states are counted by the search threads:
+                searchStatistics.countNode(height);
+                searchStatistics.countLeaf();
+            }
+            
             // Once here, we have a loss, victory or tie:
             return heuristicFunction.evaluate(root, depth);
         }
         
-        if (requestedDepth - depth == seedDepth) {
+        if (height == seedDepth) {
             // Once here, we have reached the seed level.
             // 0 as the second argument is ignored. Just return the
             // score for 'root' as we have computed its score in a 
@@ -246,13 +437,21 @@ extends AbstractConnectFourSearchEngine {
             return seedStateHeuristicFunction.evaluate(root, 0);
         }
         
+        searchStatistics.countNode(height);
+        int moveIndex = 0;
+        
         if (rootPlayerType == PlayerType.MAXIMIZING_PLAYER) {
             double value = Double.NEGATIVE_INFINITY;
 
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER);
+            
             for (int x = 0; x < COLUMNS; x++) {
-                if (!root.makePly(x, PlayerType.MAXIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MAXIMIZING_PLAYER);
 
                 value = Math.max(value, 
                                  alphaBetaImplAboveSeedLayer(
@@ -265,20 +464,27 @@ extends AbstractConnectFourSearchEngine {
                 root.unmakePly(x);
 
                 if (value > beta) {
+                    searchStatistics.countCutoff(moveIndex);
                     break;
                 }
 
                 alpha = Math.max(alpha, value);
+                moveIndex++;
             }   
 
             return value;
         } else {
             double value = Double.POSITIVE_INFINITY;
 
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MINIMIZING_PLAYER);
+            
             for (int x = 0; x < COLUMNS; x++) {
-                if (!root.makePly(x, PlayerType.MINIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MINIMIZING_PLAYER);
 
                 value = Math.min(value,
                                  alphaBetaImplAboveSeedLayer(
@@ -291,10 +497,12 @@ extends AbstractConnectFourSearchEngine {
                 root.unmakePly(x);
 
                 if (value < alpha) {
+                    searchStatistics.countCutoff(moveIndex);
                     break;
                 }
 
                 beta = Math.min(beta, value);
+                moveIndex++;
             }
 
             return value;
@@ -423,6 +631,15 @@ extends AbstractConnectFourSearchEngine {
         
         return search(root, depth, PlayerType.MAXIMIZING_PLAYER);
     }
+    
+    /**
+     * Lets the search threads poll the deadline of a time-bounded search.
+     * 
+     * @return {@code true} if the current search must be aborted.
+     */
+    boolean shouldAbortThreadSearch() {
+        return shouldAbortSearch();
+    }
 }
 
 
@@ -446,6 +663,11 @@ final class SearchThread extends Thread {
      */
     private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
 
+    /**
+     * The engine running this thread. Polled for time-outs.
+     */
+    private final ParallelConnectFourAlphaBetaPruningSearchEngine engine;
+    
     /**
      * The beginning player type.
      */
@@ -456,25 +678,47 @@ final class SearchThread extends Thread {
      */
     private final int depth;
 
+    /**
+     * The height of the seed states.
+     */
+    private final int seedHeight;
+    
+    /**
+     * The statistics of this thread only, so that the threads never contend
+     * on the counters.
+     */
+    private final SearchStatistics searchStatistics = new SearchStatistics();
+    
+    /**
+     * Set when the engine gives up waiting for this thread.
+     */
+    private volatile boolean stopped;
+    
     /**
      * Constructs this search thread.
      * 
      * @param workload          the workload list of seed states.
      * @param heuristicFunction the heuristic function.
+     * @param engine            the engine running this thread.
      * @param rootPlayerType    the beginning player type.
      * @param depth             the maximal search depth.
+     * @param seedHeight        the height of the seed states.
      */
     SearchThread(final List<ConnectFourBoard> workload,
                  final HeuristicFunction<ConnectFourBoard> 
                        heuristicFunction,
+                 final ParallelConnectFourAlphaBetaPruningSearchEngine engine,
                  final PlayerType rootPlayerType,
-                 final int depth) {
+                 final int depth,
+                 final int seedHeight) {
 
         this.workload = workload;
         this.scoreMap = new HashMap<>(workload.size());
         this.heuristicFunction = heuristicFunction;
+        this.engine = engine;
         this.rootPlayerType = rootPlayerType;
         this.depth = depth;
+        this.seedHeight = seedHeight;
     }
 
     /**
@@ -485,6 +729,18 @@ final class SearchThread extends Thread {
     Map<ConnectFourBoard, Integer> getScoreMap() {
         return scoreMap;
     }
+    
+    SearchStatistics getSearchStatistics() {
+        return searchStatistics;
+    }
+    
+    /**
+     * Makes this thread quit as soon as possible without scoring the rest of
+     * its seed states.
+     */
+    void stopSearch() {
+        stopped = true;
+    }
 
     /**
      * Runs the search in this thread.
@@ -500,6 +756,10 @@ final class SearchThread extends Thread {
                             Double.POSITIVE_INFINITY,
                             rootPlayerType);
 
+            if (shouldStop()) {
+                return;
+            }
+            
             scoreMap.put(root, score);
         }
     }
@@ -510,17 +770,32 @@ final class SearchThread extends Thread {
                               double beta,
                               final PlayerType rootPlayerType) {
         
+        searchStatistics.countNode(seedHeight + this.depth - depth);
+        
         if (depth == 0 || root.isTerminal()) {
+            searchStatistics.countLeaf();
             return heuristicFunction.evaluate(root, depth);
         }
+        
+        if (shouldStop()) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
+        int moveIndex = 0;
 
         if (rootPlayerType == PlayerType.MAXIMIZING_PLAYER) {
             int value = AbstractConnectFourSearchEngine.MIN_INT;
 
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER);
+            
             for (int x = 0; x < COLUMNS; x++) {
-                if (!root.makePly(x, PlayerType.MAXIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MAXIMIZING_PLAYER);
 
                 value = Math.max(value, 
                                  alphaBetaImpl(root,
@@ -532,20 +807,27 @@ final class SearchThread extends Thread {
                 root.unmakePly(x);
 
                 if (value > beta) {
+                    searchStatistics.countCutoff(moveIndex);
                     break;
                 }
 
                 alpha = Math.max(alpha, value);
+                moveIndex++;
             }   
 
             return value;
         } else {
             int value = AbstractConnectFourSearchEngine.MAX_INT;
 
+            final long candidateMoves = 
+                    root.getCandidateMoves(PlayerType.MINIMIZING_PLAYER);
+            
             for (int x = 0; x < COLUMNS; x++) {
-                if (!root.makePly(x, PlayerType.MINIMIZING_PLAYER)) {
+                if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
                     continue;
                 }
+                
+                root.makePly(x, PlayerType.MINIMIZING_PLAYER);
 
                 value = Math.min(value,
                                  alphaBetaImpl(root,
@@ -557,15 +839,21 @@ final class SearchThread extends Thread {
                 root.unmakePly(x);
 
                 if (value < alpha) {
+                    searchStatistics.countCutoff(moveIndex);
                     break;
                 }
 
                 beta = Math.min(beta, value);
+                moveIndex++;
             }
 
             return value;
         }
     }
+    
+    private boolean shouldStop() {
+        return stopped || engine.shouldAbortThreadSearch();
+    }
 }
     
 /**
@@ -586,4 +874,323 @@ final class SeedStateHeuristicFunction
     public int evaluate(ConnectFourBoard state, int depth) {
         return scoreMap.get(state);
     }
-}
\ No newline at end of file
+}
+
+/**
+ * This class holds the state shared by all the Lazy SMP search tasks.
+ */
+final class LazySMPSharedState {
+    
+    /**
+     * Set once any task completes its search. Tells the other tasks to quit.
+     */
+    private volatile boolean stopped;
+    
+    /**
+     * The best move state found by the first completed search.
+     */
+    private ConnectFourBoard bestMoveState;
+    
+    boolean isStopped() {
+        return stopped;
+    }
+    
+    /**
+     * Stops all the tasks without a result.
+     */
+    void stop() {
+        stopped = true;
+    }
+    
+    synchronized void offerBestMoveState(final ConnectFourBoard moveState) {
+        if (!stopped) {
+            bestMoveState = moveState;
+            stopped = true;
+        }
+    }
+    
+    synchronized ConnectFourBoard getBestMoveState() {
+        return bestMoveState;
+    }
+}
+
+/**
+ * This class implements a Lazy SMP search task. The task runs iterative 
+ * deepening Negamax over the entire tree. Tasks differ only in their move
+ * orders and target depths, and cooperate via the shared transposition table.
+ */
+final class LazySMPSearchTask implements Runnable {
+    
+    private final ConnectFourBoard root;
+    private final HeuristicFunction<ConnectFourBoard> heuristicFunction;
+    private final TranspositionTable transpositionTable;
+    private final LazySMPSharedState sharedState;
+    private final ParallelConnectFourAlphaBetaPruningSearchEngine engine;
+    private final PlayerType rootPlayerType;
+    
+    /**
+     * The depth this task deepens to.
+     */
+    private final int targetDepth;
+    
+    /**
+     * The column to try first at the root, or a negative value for the best
+     * move of the transposition table.
+     */
+    private final int firstPly;
+    
+    /**
+     * The order in which this task tries the columns when the 
+     * transposition table does not suggest a column.
+     */
+    private final int[] plyOrder;
+    
+    /**
+     * The statistics of this task only, so that the tasks never contend on 
+     * the counters.
+     */
+    private final SearchStatistics searchStatistics = new SearchStatistics();
+    
+    /**
+     * The depth of the current iteration. The height of a node is this minus
+     * its remaining depth.
+     */
+    private int iterationDepth;
+    
+    LazySMPSearchTask(final ConnectFourBoard root,
+                      final HeuristicFunction<ConnectFourBoard> 
+                            heuristicFunction,
+                      final TranspositionTable transpositionTable,
+                      final LazySMPSharedState sharedState,
+                      final ParallelConnectFourAlphaBetaPruningSearchEngine 
+                            engine,
+                      final PlayerType rootPlayerType,
+                      final int targetDepth,
+                      final int firstPly,
+                      final int taskIndex) {
+        
+        this.root = root;
+        this.heuristicFunction = heuristicFunction;
+        this.transpositionTable = transpositionTable;
+        this.sharedState = sharedState;
+        this.engine = engine;
+        this.rootPlayerType = rootPlayerType;
+        this.targetDepth = targetDepth;
+        this.firstPly = firstPly;
+        this.plyOrder = getPlyOrder(taskIndex);
+    }
+    
+    SearchStatistics getSearchStatistics() {
+        return searchStatistics;
+    }
+    
+    @Override
+    public void run() {
+        final int color = 
+                rootPlayerType == PlayerType.MAXIMIZING_PLAYER ? +1 : -1;
+        
+        ConnectFourBoard bestMoveState = null;
+        
+        for (int depth = 1; depth <= targetDepth; depth++) {
+            bestMoveState = negamaxRoot(depth, color);
+            
+            if (bestMoveState == null) {
+                return;
+            }
+        }
+        
+        sharedState.offerBestMoveState(bestMoveState);
+    }
+    
+    private ConnectFourBoard negamaxRoot(final int depth, final int color) {
+        iterationDepth = depth;
+        searchStatistics.countNode(0);
+        
+        final long key = root.getCanonicalZobristKey(rootPlayerType);
+        final long entry = transpositionTable.probe(key);
+        final int rootFirstPly;
+        
+        if (firstPly >= 0) {
+            rootFirstPly = firstPly;
+        } else if (entry != TranspositionTable.NO_ENTRY) {
+            rootFirstPly = root.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    rootPlayerType);
+        } else {
+            rootFirstPly = TranspositionTable.NO_MOVE;
+        }
+        
+        int alpha = AbstractConnectFourSearchEngine.MIN_INT;
+        int value = AbstractConnectFourSearchEngine.MIN_INT;
+        int bestPly = TranspositionTable.NO_MOVE;
+        ConnectFourBoard bestMoveState = null;
+        
+        final long candidateMoves = root.getCandidateMoves(rootPlayerType);
+        
+        for (int i = -1; i < plyOrder.length; i++) {
+            final int x = i < 0 ? rootFirstPly : plyOrder[i];
+            
+            if (x < 0 || (i >= 0 && x == rootFirstPly)) {
+                continue;
+            }
+            
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            root.makePly(x, rootPlayerType);
+            
+            final int score = -negamax(depth - 1,
+                                       AbstractConnectFourSearchEngine.MIN_INT,
+                                       -alpha,
+                                       -color);
+            
+            if (value < score) {
+                value = score;
+                bestPly = x;
+                bestMoveState = new ConnectFourBoard(root);
+            }
+            
+            root.unmakePly(x);
+            
+            if (sharedState.isStopped()) {
+                return null;
+            }
+            
+            alpha = Math.max(alpha, value);
+        }
+        
+        if (bestPly != TranspositionTable.NO_MOVE) {
+            transpositionTable.store(key,
+                                     depth,
+                                     value,
+                                     TranspositionTable.EXACT,
+                                     root.getCanonicalColumn(bestPly,
+                                                             rootPlayerType));
+        }
+        
+        return bestMoveState;
+    }
+    
+    private int negamax(final int depth,
+                        int alpha,
+                        final int beta,
+                        final int color) {
+        
+        searchStatistics.countNode(iterationDepth - depth);
+        
+        if (depth == 0 || root.isTerminal()) {
+            searchStatistics.countLeaf();
+            return color * heuristicFunction.evaluate(root, depth);
+        }
+        
+        if (engine.shouldAbortThreadSearch()) {
+            // Out of time. Stop all the threads without a result:
+            sharedState.stop();
+        }
+        
+        if (sharedState.isStopped()) {
+            // The result is discarded anyway:
+            return 0;
+        }
+        
+        final PlayerType playerType = 
+                color == 1 ?
+                PlayerType.MAXIMIZING_PLAYER :
+                PlayerType.MINIMIZING_PLAYER;
+        
+        final long key = root.getCanonicalZobristKey(playerType);
+        final long entry = transpositionTable.probe(key);
+        int ttPly = TranspositionTable.NO_MOVE;
+        
+        if (entry != TranspositionTable.NO_ENTRY) {
+            searchStatistics.countTranspositionHit();
+            ttPly = root.getCanonicalColumn(
+                    TranspositionTable.getBestMove(entry),
+                    playerType);
+            
+            if (TranspositionTable.isCutoff(entry, depth, alpha, beta)) {
+                return TranspositionTable.getScore(entry);
+            }
+        }
+        
+        final int originalAlpha = alpha;
+        int value = AbstractConnectFourSearchEngine.MIN_INT;
+        int bestPly = ttPly;
+        int moveIndex = 0;
+        
+        final long candidateMoves = root.getCandidateMoves(playerType);
+        
+        for (int i = -1; i < plyOrder.length; i++) {
+            final int x = i < 0 ? ttPly : plyOrder[i];
+            
+            if (x < 0 || (i >= 0 && x == ttPly)) {
+                continue;
+            }
+            
+            if (!ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            root.makePly(x, playerType);
+            
+            final int score = -negamax(depth - 1, -beta, -alpha, -color);
+            
+            root.unmakePly(x);
+            
+            if (sharedState.isStopped()) {
+                return 0;
+            }
+            
+            if (value < score) {
+                value = score;
+                bestPly = x;
+            }
+            
+            alpha = Math.max(alpha, value);
+            
+            if (alpha >= beta) {
+                searchStatistics.countCutoff(moveIndex);
+                break;
+            }
+            
+            moveIndex++;
+        }
+        
+        transpositionTable.store(
+                key,
+                depth,
+                value,
+                TranspositionTable.getBoundType(value, originalAlpha, beta),
+                root.getCanonicalColumn(bestPly, playerType));
+        return value;
+    }
+    
+    /**
+     * Returns the column order of the task with index {@code taskIndex}. The
+     * main task uses the default order, and each helper task uses a 
+     * pseudorandom permutation of it.
+     * 
+     * @param taskIndex the index of the task.
+     * 
+     * @return the column order.
+     */
+    private static int[] getPlyOrder(final int taskIndex) {
+        final int[] plyOrder = ConnectFourBoard.getColumnOrder();
+        
+        if (taskIndex == 0) {
+            return plyOrder;
+        }
+        
+        final Random random = new Random(taskIndex);
+        
+        for (int i = COLUMNS - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int tmp = plyOrder[i];
+            plyOrder[i] = plyOrder[j];
+            plyOrder[j] = tmp;
+        }
+        
+        return plyOrder;
+    }
+}
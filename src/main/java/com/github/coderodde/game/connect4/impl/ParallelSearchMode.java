@@ -0,0 +1,25 @@
+package com.github.coderodde.game.connect4.impl;
+
+/**
+ * This enumeration lists the ways 
+ * {@link ParallelConnectFourAlphaBetaPruningSearchEngine} may split the search
+ * among threads.
+ * 
+ * @version 1.0.0 (Jun 22, 2024)
+ * @since 1.0.0 (Jun 22, 2024)
+ */
+public enum ParallelSearchMode {
+    
+    /**
+     * The seed states at a fixed depth are distributed among the threads, and
+     * each thread searches its seed states independently.
+     */
+    SEED_STATES,
+    
+    /**
+     * Each thread searches the entire tree with its own move order and depth
+     * offset. The threads share work only through a common transposition
+     * table.
+     */
+    LAZY_SMP;
+}
@@ -0,0 +1,243 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.AbstractConnectFourSearchEngine;
+import com.github.coderodde.game.zerosum.PersistentTranspositionTable;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * This class decorates any heuristic Connect Four search engine with a
+ * persistent transposition table. Before searching a position, the table is
+ * consulted for the best move of an earlier search of at least the requested
+ * depth; after searching, the best move is written back along with the depth.
+ * The results thus survive restarts and are shared by all the processes using
+ * the same table file.
+ * <p>
+ * The entries are keyed by the canonical Zobrist key, so a position and its
+ * mirror image share an entry. If the wrapped engine is a
+ * {@link ConnectFourNegamaxSearchEngine}, the exact value of the root is 
+ * stored along with the move. The other engines report only their best moves,
+ * so their entries carry the uninformative lower bound 
+ * {@link AbstractConnectFourSearchEngine#MIN_INT} as the score.
+ * <p>
+ * Only the roots of the searches are stored. Inside a search, the engines 
+ * probe their in-memory tables, which are much faster than the mapped file and
+ * would flood it with shallow entries. The exact solver persists its proven 
+ * values by itself; see {@link ConnectFourSolverSearchEngine}.
+ * 
+ * @version 1.0.0 (Jul 12, 2024)
+ * @since 1.0.0 (Jul 12, 2024)
+ */
+public final class PersistentTranspositionTableSearchEngine
+        implements SearchEngine<ConnectFourBoard> {
+    
+    private final SearchEngine<ConnectFourBoard> searchEngine;
+    private final PersistentTranspositionTable persistentTable;
+    
+    /**
+     * Whether the last search was answered from the table.
+     */
+    private boolean answeredFromTable;
+    
+    public PersistentTranspositionTableSearchEngine(
+            final SearchEngine<ConnectFourBoard> searchEngine,
+            final PersistentTranspositionTable persistentTable) {
+        
+        this.searchEngine = searchEngine;
+        this.persistentTable = persistentTable;
+    }
+    
+    /**
+     * Opens or creates a table file for this class.
+     * 
+     * @param path     the path of the table file.
+     * @param capacity the number of entries of a new file.
+     * 
+     * @return the table.
+     * 
+     * @throws IOException if the file cannot be opened.
+     * @throws IllegalArgumentException if the file is not a table file of
+     *                                  this class.
+     */
+    public static PersistentTranspositionTable openTable(final Path path,
+                                                         final int capacity)
+            throws IOException {
+        
+        return PersistentTranspositionTable.open(
+                path,
+                capacity,
+                ConnectFourBoard.getZobristFingerprint());
+    }
+    
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root,
+                                   final int depth,
+                                   final PlayerType playerType) {
+        
+        // Searching deeper than the number of empty cells changes nothing:
+        final int effectiveDepth = Math.min(depth, root.getEmptyCellCount());
+        final long key = root.getCanonicalZobristKey(playerType);
+        final ConnectFourBoard storedMoveState =
+                getStoredMove(root, key, effectiveDepth, playerType);
+        
+        answeredFromTable = storedMoveState != null;
+        
+        if (storedMoveState != null) {
+            return storedMoveState;
+        }
+        
+        final ConnectFourBoard moveState =
+                searchEngine.search(root, depth, playerType);
+        
+        store(root, key, effectiveDepth, moveState, playerType);
+        return moveState;
+    }
+    
+    /**
+     * Runs the time-bounded search of the wrapped engine, unless the table 
+     * holds a result searched to the end of the game. The deepest completed 
+     * iteration of the search is written back, if the wrapped engine reports
+     * its depth. If the table holds a deeper result, its move is returned 
+     * instead.
+     * 
+     * @param root       the root state.
+     * @param timeBudget the wall-clock time budget of the search.
+     * @param playerType the player to move.
+     * 
+     * @return the next move state.
+     */
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root,
+                                   final Duration timeBudget,
+                                   final PlayerType playerType) {
+        
+        final int maximumDepth = root.getEmptyCellCount();
+        final long key = root.getCanonicalZobristKey(playerType);
+        final ConnectFourBoard storedMoveState =
+                getStoredMove(root, key, maximumDepth, playerType);
+        
+        answeredFromTable = storedMoveState != null;
+        
+        if (storedMoveState != null) {
+            return storedMoveState;
+        }
+        
+        final ConnectFourBoard moveState =
+                searchEngine.search(root, timeBudget, playerType);
+        
+        if (!(searchEngine instanceof AbstractConnectFourSearchEngine)) {
+            // The depth of the result is unknown:
+            return moveState;
+        }
+        
+        final int completedDepth = 
+                ((AbstractConnectFourSearchEngine) searchEngine)
+                        .getCompletedDepth();
+        
+        if (completedDepth == 0) {
+            return moveState;
+        }
+        
+        final ConnectFourBoard deeperMoveState =
+                getStoredMove(root, key, completedDepth + 1, playerType);
+        
+        if (deeperMoveState != null) {
+            return deeperMoveState;
+        }
+        
+        store(root, key, completedDepth, moveState, playerType);
+        return moveState;
+    }
+    
+    @Override
+    public void stop() {
+        searchEngine.stop();
+    }
+    
+    /**
+     * Returns the statistics of the wrapped engine, or empty statistics if
+     * the last search was answered from the table.
+     * 
+     * @return the statistics of the last search.
+     */
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return answeredFromTable ?
+               new SearchStatistics() :
+               searchEngine.getSearchStatistics();
+    }
+    
+    /**
+     * Writes the result of a search of {@code root} back to the table.
+     */
+    private void store(final ConnectFourBoard root,
+                       final long key,
+                       final int depth,
+                       final ConnectFourBoard moveState,
+                       final PlayerType playerType) {
+        
+        if (moveState == null) {
+            return;
+        }
+        
+        final int bestMove = 
+                root.getCanonicalColumn(root.getPlyColumn(moveState), 
+                                        playerType);
+        
+        if (searchEngine instanceof ConnectFourNegamaxSearchEngine) {
+            persistentTable.store(
+                    key,
+                    depth,
+                    ((ConnectFourNegamaxSearchEngine) searchEngine)
+                            .getRootValue(),
+                    TranspositionTable.EXACT,
+                    bestMove);
+        } else {
+            persistentTable.store(key,
+                                  depth,
+                                  AbstractConnectFourSearchEngine.MIN_INT,
+                                  TranspositionTable.LOWER_BOUND,
+                                  bestMove);
+        }
+    }
+    
+    /**
+     * Returns the state after the stored best move of {@code playerType} in
+     * {@code root}.
+     * 
+     * @return the next move state, or {@code null} if no result of at least
+     *         {@code depth} is stored.
+     */
+    private ConnectFourBoard getStoredMove(final ConnectFourBoard root,
+                                           final long key,
+                                           final int depth,
+                                           final PlayerType playerType) {
+        
+        final long entry = persistentTable.probe(key);
+        
+        if (entry == TranspositionTable.NO_ENTRY
+                || TranspositionTable.getDepth(entry) < depth
+                || TranspositionTable.getBestMove(entry) ==
+                   TranspositionTable.NO_MOVE) {
+            return null;
+        }
+        
+        final ConnectFourBoard storedMoveState = new ConnectFourBoard(root);
+        final int x =
+                root.getCanonicalColumn(TranspositionTable.getBestMove(entry),
+                                        playerType);
+        
+        if (!storedMoveState.makePly(x, playerType)) {
+            // Only possible on a key collision:
+            return null;
+        }
+        
+        return storedMoveState;
+    }
+}
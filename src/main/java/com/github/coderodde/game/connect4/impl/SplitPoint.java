@@ -0,0 +1,93 @@
+package com.github.coderodde.game.connect4.impl;
+
+/**
+ * This class implements a split point of the parallel searches: a node whose
+ * young brothers are being searched in parallel. See
+ * {@link AbstractSplitPointSearchEngine}.
+ * 
+ * @version 1.0.0 (Jul 2, 2024)
+ * @since 1.0.0 (Jul 2, 2024)
+ */
+final class SplitPoint {
+    
+    private final SplitPoint parent;
+    private final int beta;
+    private volatile boolean cutoff;
+    private int alpha;
+    private int bestValue;
+    private int bestPly;
+    
+    SplitPoint(final SplitPoint parent,
+               final int alpha,
+               final int beta,
+               final int bestValue,
+               final int bestPly) {
+        this.parent = parent;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.bestValue = bestValue;
+        this.bestPly = bestPly;
+    }
+    
+    int getBeta() {
+        return beta;
+    }
+    
+    synchronized int getAlpha() {
+        return alpha;
+    }
+    
+    synchronized int getBestValue() {
+        return bestValue;
+    }
+    
+    synchronized int getBestPly() {
+        return bestPly;
+    }
+    
+    /**
+     * Returns {@code true} if this split point or any split point above it
+     * has been cut off.
+     * 
+     * @return {@code true} if the search below this split point is pointless.
+     */
+    boolean isAborted() {
+        for (SplitPoint splitPoint = this;
+                splitPoint != null;
+                splitPoint = splitPoint.parent) {
+            
+            if (splitPoint.cutoff) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Records the score of a finished brother. Aborts the remaining brothers
+     * on a beta cutoff.
+     * 
+     * @param score the score of the brother.
+     * @param ply   the column leading to the brother.
+     * 
+     * @return {@code true} if the brother caused a beta cutoff.
+     */
+    synchronized boolean update(final int score, final int ply) {
+        if (bestValue < score) {
+            bestValue = score;
+            bestPly = ply;
+        }
+        
+        if (alpha < score) {
+            alpha = score;
+            
+            if (alpha >= beta) {
+                cutoff = true;
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class gives each thread of a parallel search statistics of its own, so
+ * that the threads never contend on the counters. The stripes are added up 
+ * once the search is over.
+ * <p>
+ * A pool retires its idle workers and starts new ones, so the stripes of the
+ * terminated threads are dropped once they have been drained. The number of
+ * stripes thus stays bounded by the number of live threads.
+ * 
+ * @version 1.1.0 (Jul 16, 2024)
+ * @since 1.0.0 (Jul 6, 2024)
+ */
+final class StripedSearchStatistics {
+    
+    private final Map<Thread, SearchStatistics> stripes = 
+            new ConcurrentHashMap<>();
+    
+    private final ThreadLocal<SearchStatistics> stripe = 
+            ThreadLocal.withInitial(() -> {
+                final SearchStatistics searchStatistics = 
+                        new SearchStatistics();
+                
+                stripes.put(Thread.currentThread(), searchStatistics);
+                return searchStatistics;
+            });
+    
+    /**
+     * Returns the stripe of the calling thread. Tasks should call this once 
+     * and pass the stripe down the recursion.
+     * 
+     * @return the statistics of the calling thread.
+     */
+    SearchStatistics get() {
+        return stripe.get();
+    }
+    
+    /**
+     * Adds all the stripes to {@code target} and clears them. Drops the 
+     * stripes of the threads that have terminated. Must not run concurrently 
+     * with a search.
+     * 
+     * @param target the statistics to add the stripes to.
+     */
+    void drainTo(final SearchStatistics target) {
+        for (final SearchStatistics searchStatistics : stripes.values()) {
+            target.add(searchStatistics);
+            searchStatistics.clear();
+        }
+        
+        stripes.keySet().removeIf(thread -> !thread.isAlive());
+    }
+    
+    /**
+     * Returns the number of stripes kept.
+     * 
+     * @return the number of stripes.
+     */
+    int size() {
+        return stripes.size();
+    }
+}
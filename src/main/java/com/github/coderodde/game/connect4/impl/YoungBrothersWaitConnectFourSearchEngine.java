@@ -0,0 +1,116 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class implements the Young Brothers Wait Concept (YBWC) parallel
+ * negamax search. At each node, the eldest child is searched first and alone,
+ * which usually establishes a good bound. Only then are the younger brothers
+ * searched in parallel, all with the window narrowed by the eldest one. The
+ * node becomes a <i>split point</i> shared by the brothers: each finished
+ * brother raises the alpha of the split point for the brothers not started
+ * yet, and a brother failing high aborts all the other brothers along with
+ * everything they have split below.
+ * <p>
+ * Every node with at least the minimum split depth remaining is split, at 
+ * any distance from the root. The brothers run as tasks on a long-lived 
+ * {@link ForkJoinPool}. Nodes close to the leaves are searched sequentially,
+ * ordering the plies by the killer and the history heuristics of the worker.
+ * All the workers share one lock-free transposition table.
+ * 
+ * @version 1.1.0 (Jul 16, 2024)
+ * @since 1.0.0 (Jul 2, 2024)
+ */
+public final class YoungBrothersWaitConnectFourSearchEngine
+        extends AbstractSplitPointSearchEngine {
+    
+    /**
+     * Nodes with less remaining depth are searched sequentially.
+     */
+    public static final int DEFAULT_MINIMUM_SPLIT_DEPTH = 4;
+    
+    private final int minimumSplitDepth;
+    
+    public YoungBrothersWaitConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
+        
+        this(heuristicFunction, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Constructs this search engine with a pool of its own.
+     * 
+     * @param heuristicFunction the heuristic function used to score the states.
+     * @param parallelism       the number of worker threads.
+     */
+    public YoungBrothersWaitConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final int parallelism) {
+        
+        this(heuristicFunction,
+             new ForkJoinPool(parallelism),
+             true,
+             DEFAULT_MINIMUM_SPLIT_DEPTH,
+             new TranspositionTable());
+    }
+    
+    public YoungBrothersWaitConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final int minimumSplitDepth) {
+        
+        this(heuristicFunction, 
+             pool, 
+             minimumSplitDepth, 
+             new TranspositionTable());
+    }
+    
+    /**
+     * Constructs this search engine on a shared pool. {@link #close()} does
+     * not shut down {@code pool}.
+     * 
+     * @param heuristicFunction  the heuristic function used to score the 
+     *                           states.
+     * @param pool               the pool to run the brothers in.
+     * @param minimumSplitDepth  the minimum remaining depth of a split point.
+     * @param transpositionTable the transposition table to use.
+     */
+    public YoungBrothersWaitConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final int minimumSplitDepth,
+            final TranspositionTable transpositionTable) {
+        
+        this(heuristicFunction, 
+             pool, 
+             false, 
+             minimumSplitDepth, 
+             transpositionTable);
+    }
+    
+    private YoungBrothersWaitConnectFourSearchEngine(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final ForkJoinPool pool,
+            final boolean ownsPool,
+            final int minimumSplitDepth,
+            final TranspositionTable transpositionTable) {
+        
+        super(heuristicFunction, pool, ownsPool, transpositionTable);
+        
+        if (minimumSplitDepth < 2) {
+            throw new IllegalArgumentException(
+                    "The minimum split depth must be at least 2: " +
+                            minimumSplitDepth);
+        }
+        
+        this.minimumSplitDepth = minimumSplitDepth;
+    }
+    
+    @Override
+    boolean isSplitNode(final int depth, final int height) {
+        return depth >= minimumSplitDepth;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.coderodde.game.connect4.io;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Objects;
+
+/**
+ * This class holds one position of a position file: the board and the player
+ * to move.
+ * 
+ * @version 1.0.0 (Jul 10, 2024)
+ * @since 1.0.0 (Jul 10, 2024)
+ */
+public final class Position {
+    
+    private final ConnectFourBoard board;
+    private final PlayerType playerToMove;
+    
+    public Position(final ConnectFourBoard board,
+                    final PlayerType playerToMove) {
+        
+        this.board = Objects.requireNonNull(board, "The board is null.");
+        this.playerToMove =
+                Objects.requireNonNull(playerToMove,
+                                       "The player to move is null.");
+    }
+    
+    public ConnectFourBoard getBoard() {
+        return board;
+    }
+    
+    public PlayerType getPlayerToMove() {
+        return playerToMove;
+    }
+}
@@ -0,0 +1,354 @@
+package com.github.coderodde.game.connect4.io;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.ROWS;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class converts Connect Four positions to and from their compact
+ * encodings:
+ * <ul>
+ *   <li>A 64-bit key. Each column takes 7 bits: the lowest empty cell of the
+ *       column is marked by a one bit, and the bits below it are the discs of
+ *       the player to move. The most significant bit is set if the maximizing
+ *       player is to move.</li>
+ *   <li>A move sequence. A varint holds the number of plies and the player
+ *       to move, followed by the columns of the plies, two per byte.</li>
+ *   <li>A move string such as {@code "4453"}, listing the columns of the
+ *       plies counted from one.</li>
+ * </ul>
+ * A key does not remember the order of the plies, while the move sequence and
+ * the move string require a board whose plies alternate between the players.
+ * 
+ * @version 1.0.0 (Jul 10, 2024)
+ * @since 1.0.0 (Jul 10, 2024)
+ */
+public final class PositionCodec {
+    
+    /**
+     * The maximum size of a move sequence in bytes: the varint header fits in
+     * a single byte.
+     */
+    public static final int MAXIMUM_MOVES_RECORD_SIZE =
+            1 + (ROWS * COLUMNS + 1) / 2;
+    
+    private static final int COLUMN_HEIGHT = ROWS + 1;
+    private static final long COLUMN_BITS_MASK = (1L << COLUMN_HEIGHT) - 1L;
+    private static final long MAXIMIZING_PLAYER_TO_MOVE_BIT = 1L << 63;
+    
+    /**
+     * The lowest empty cells of the empty board.
+     */
+    private static final long BOTTOM_ROW_MASK = 
+            ConnectFourBoard.getPossibleCells(0L);
+    
+    private static final long KEY_MASK = 
+            (1L << (COLUMNS * COLUMN_HEIGHT)) - 1L;
+    
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK =
+            (1 << VARINT_PAYLOAD_BITS) - 1;
+    
+    private static final int VARINT_CONTINUATION_BIT = 
+            1 << VARINT_PAYLOAD_BITS;
+    
+    private static final int MOVE_BITS = 4;
+    
+    private PositionCodec() {
+    
+    }
+    
+    /**
+     * Encodes {@code board} with {@code playerToMove} to move as a 64-bit key.
+     * 
+     * @param board        the board to encode.
+     * @param playerToMove the player to move.
+     * 
+     * @return the key of the position.
+     */
+    public static long encodeKey(final ConnectFourBoard board,
+                                 final PlayerType playerToMove) {
+        
+        // The bitboards share the layout of the key. Adding the bottom row to
+        // the discs carries the marker bit over each column of discs:
+        final long key = board.getBitboard(playerToMove) +
+                         board.getOccupiedBitboard() +
+                         BOTTOM_ROW_MASK;
+        
+        return playerToMove == PlayerType.MAXIMIZING_PLAYER ?
+               key | MAXIMIZING_PLAYER_TO_MOVE_BIT :
+               key;
+    }
+    
+    /**
+     * Decodes the board of the key {@code key}. The board has no ply history.
+     * 
+     * @param key the key returned by
+     *            {@link #encodeKey(ConnectFourBoard, PlayerType)}.
+     * 
+     * @return the board.
+     * 
+     * @throws IllegalArgumentException if {@code key} is not a valid key.
+     */
+    public static ConnectFourBoard decodeKey(final long key) {
+        if ((key & ~(KEY_MASK | MAXIMIZING_PLAYER_TO_MOVE_BIT)) != 0L) {
+            throw new IllegalArgumentException("Not a position key: " + key);
+        }
+        
+        final PlayerType playerToMove = getPlayerToMove(key);
+        final ConnectFourBoard board = new ConnectFourBoard();
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            final int column =
+                    (int)((key >>> (x * COLUMN_HEIGHT)) & COLUMN_BITS_MASK);
+            
+            if (column == 0) {
+                throw new IllegalArgumentException(
+                        "Not a position key: " + key);
+            }
+            
+            // The marker bit is right above the topmost disc:
+            final int height = 31 - Integer.numberOfLeadingZeros(column);
+            
+            for (int h = 0; h < height; h++) {
+                board.set(x,
+                          ROWS - 1 - h,
+                          (column & (1 << h)) != 0 ?
+                                  playerToMove :
+                                  playerToMove.flip());
+            }
+        }
+        
+        return board;
+    }
+    
+    /**
+     * Returns the player to move in the position of the key {@code key}.
+     * 
+     * @param key the position key.
+     * 
+     * @return the player to move.
+     */
+    public static PlayerType getPlayerToMove(final long key) {
+        return (key & MAXIMIZING_PLAYER_TO_MOVE_BIT) != 0L ?
+               PlayerType.MAXIMIZING_PLAYER :
+               PlayerType.MINIMIZING_PLAYER;
+    }
+    
+    /**
+     * Writes the move sequence of {@code board} to {@code buffer}.
+     * 
+     * @param buffer       the target buffer.
+     * @param board        the board to encode.
+     * @param playerToMove the player to move.
+     * 
+     * @throws IllegalArgumentException if the ply history of {@code board} is
+     *                                  not known, or if the plies do not
+     *                                  alternate between the players.
+     */
+    public static void writeMoves(final ByteBuffer buffer,
+                                  final ConnectFourBoard board,
+                                  final PlayerType playerToMove) {
+        
+        final int[] plyColumns = getAlternatingPlyColumns(board, playerToMove);
+        
+        writeVarint(buffer,
+                    plyColumns.length << 1 |
+                    (playerToMove == PlayerType.MAXIMIZING_PLAYER ? 1 : 0));
+        
+        for (int i = 0; i < plyColumns.length; i += 2) {
+            final int high = i + 1 < plyColumns.length ? plyColumns[i + 1] : 0;
+            buffer.put((byte)(high << MOVE_BITS | plyColumns[i]));
+        }
+    }
+    
+    /**
+     * Reads a move sequence written by
+     * {@link #writeMoves(ByteBuffer, ConnectFourBoard, PlayerType)} from
+     * {@code buffer}.
+     * 
+     * @param buffer the source buffer.
+     * 
+     * @return the position.
+     * 
+     * @throws IllegalArgumentException if the move sequence is not valid.
+     * @throws BufferUnderflowException if the sequence is truncated.
+     */
+    public static Position readMoves(final ByteBuffer buffer) {
+        final int header = readVarint(buffer);
+        final int numberOfPlies = header >>> 1;
+        final PlayerType playerToMove = (header & 1) != 0 ?
+                                        PlayerType.MAXIMIZING_PLAYER :
+                                        PlayerType.MINIMIZING_PLAYER;
+        
+        if (numberOfPlies > ROWS * COLUMNS) {
+            throw new IllegalArgumentException(
+                    "Too many plies: " + numberOfPlies);
+        }
+        
+        final ConnectFourBoard board = new ConnectFourBoard();
+        PlayerType playerType = getFirstPlayerType(numberOfPlies,
+                                                   playerToMove);
+        int packedPlies = 0;
+        
+        for (int i = 0; i < numberOfPlies; i++) {
+            if ((i & 1) == 0) {
+                packedPlies = buffer.get();
+            }
+            
+            final int x = packedPlies & ((1 << MOVE_BITS) - 1);
+            packedPlies >>>= MOVE_BITS;
+            
+            makePly(board, x, playerType);
+            playerType = playerType.flip();
+        }
+        
+        return new Position(board, playerToMove);
+    }
+    
+    /**
+     * Returns the move string of {@code board}.
+     * 
+     * @param board the board to convert.
+     * 
+     * @return the columns of the plies counted from one.
+     * 
+     * @throws IllegalArgumentException if the ply history of {@code board} is
+     *                                  not known.
+     */
+    public static String toMoveString(final ConnectFourBoard board) {
+        final int[] plyColumns = board.getPlyColumns();
+        
+        if (plyColumns == null) {
+            throw new IllegalArgumentException(
+                    "The ply history of the board is not known.");
+        }
+        
+        final StringBuilder sb = new StringBuilder(plyColumns.length);
+        
+        for (final int x : plyColumns) {
+            sb.append((char)('1' + x));
+        }
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Plays the plies of {@code moveString} on an empty board, starting with
+     * {@code firstPlayerType}.
+     * 
+     * @param moveString      the columns of the plies counted from one.
+     * @param firstPlayerType the player making the first ply.
+     * 
+     * @return the position after the plies.
+     * 
+     * @throws IllegalArgumentException if a column is not valid, is full, or
+     *                                  if the game ends before the last ply.
+     */
+    public static Position parseMoveString(final String moveString,
+                                           final PlayerType firstPlayerType) {
+        
+        final ConnectFourBoard board = new ConnectFourBoard();
+        PlayerType playerType = firstPlayerType;
+        
+        for (int i = 0; i < moveString.length(); i++) {
+            makePly(board, moveString.charAt(i) - '1', playerType);
+            playerType = playerType.flip();
+        }
+        
+        return new Position(board, playerType);
+    }
+    
+    /**
+     * Writes {@code value} to {@code buffer} as an unsigned LEB128 varint.
+     */
+    static void writeVarint(final ByteBuffer buffer, int value) {
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            buffer.put((byte)(value & VARINT_PAYLOAD_MASK |
+                              VARINT_CONTINUATION_BIT));
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        
+        buffer.put((byte) value);
+    }
+    
+    /**
+     * Reads an unsigned LEB128 varint from {@code buffer}.
+     */
+    static int readVarint(final ByteBuffer buffer) {
+        int value = 0;
+        
+        for (int shift = 0; 
+                shift < Integer.SIZE; 
+                shift += VARINT_PAYLOAD_BITS) {
+            final int b = buffer.get();
+            value |= (b & VARINT_PAYLOAD_MASK) << shift;
+            
+            if ((b & VARINT_CONTINUATION_BIT) == 0) {
+                return value;
+            }
+        }
+        
+        throw new IllegalArgumentException("The varint is too long.");
+    }
+    
+    private static int[] getAlternatingPlyColumns(
+            final ConnectFourBoard board,
+            final PlayerType playerToMove) {
+        
+        final int[] plyColumns = board.getPlyColumns();
+        
+        if (plyColumns == null) {
+            throw new IllegalArgumentException(
+                    "The ply history of the board is not known.");
+        }
+        
+        // Replay the plies, alternating the players:
+        final ConnectFourBoard replay = new ConnectFourBoard();
+        PlayerType playerType = getFirstPlayerType(plyColumns.length,
+                                                   playerToMove);
+        
+        for (final int x : plyColumns) {
+            makePly(replay, x, playerType);
+            playerType = playerType.flip();
+        }
+        
+        if (replay.getBitboard(PlayerType.MAXIMIZING_PLAYER) !=
+                board.getBitboard(PlayerType.MAXIMIZING_PLAYER)) {
+            throw new IllegalArgumentException(
+                    "The plies do not alternate between the players.");
+        }
+        
+        return plyColumns;
+    }
+    
+    private static PlayerType getFirstPlayerType(
+            final int numberOfPlies,
+            final PlayerType playerToMove) {
+        
+        return (numberOfPlies & 1) == 0 ? playerToMove : playerToMove.flip();
+    }
+    
+    private static void makePly(final ConnectFourBoard board,
+                                final int x,
+                                final PlayerType playerType) {
+        
+        if (x < 0 || x >= COLUMNS) {
+            throw new IllegalArgumentException(
+                    "Not a valid column: " + (x + 1));
+        }
+        
+        if (board.isTerminal()) {
+            throw new IllegalArgumentException(
+                    "The game is over before the ply " + (x + 1));
+        }
+        
+        if (!board.makePly(x, playerType)) {
+            throw new IllegalArgumentException(
+                    "The column " + (x + 1) + " is full.");
+        }
+    }
+}
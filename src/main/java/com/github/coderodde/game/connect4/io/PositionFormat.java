@@ -0,0 +1,34 @@
+package com.github.coderodde.game.connect4.io;
+
+/**
+ * This enumeration lists the record formats of a position file.
+ * 
+ * @version 1.0.0 (Jul 10, 2024)
+ * @since 1.0.0 (Jul 10, 2024)
+ */
+public enum PositionFormat {
+    
+    /**
+     * Each position is a 64-bit key as returned by
+     * {@link PositionCodec#encodeKey}. The records have a fixed size, but the
+     * order of the plies is lost.
+     */
+    KEY,
+    
+    /**
+     * Each position is the sequence of its plies as written by
+     * {@link PositionCodec#writeMoves}. The records have a variable size.
+     */
+    MOVES;
+    
+    /**
+     * Returns the maximum size of a record in bytes.
+     * 
+     * @return the maximum record size.
+     */
+    int getMaximumRecordSize() {
+        return this == KEY ?
+               Long.BYTES :
+               PositionCodec.MAXIMUM_MOVES_RECORD_SIZE;
+    }
+}
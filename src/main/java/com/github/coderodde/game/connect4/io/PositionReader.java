@@ -0,0 +1,185 @@
+package com.github.coderodde.game.connect4.io;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads the position files written by {@link PositionWriter}. A
+ * reader either streams the file through a buffer refilled from the file
+ * channel, or maps the entire file into memory, which suits large corpora
+ * read over and over again.
+ * 
+ * @version 1.0.0 (Jul 10, 2024)
+ * @since 1.0.0 (Jul 10, 2024)
+ */
+public final class PositionReader implements AutoCloseable {
+    
+    private final FileChannel fileChannel;
+    private final ByteBuffer buffer;
+    
+    /**
+     * Whether {@link #buffer} is refilled from {@link #fileChannel}.
+     */
+    private final boolean streaming;
+    
+    private final PositionFormat format;
+    private boolean endOfFile;
+    
+    private PositionReader(final FileChannel fileChannel,
+                           final ByteBuffer buffer,
+                           final boolean streaming) throws IOException {
+        
+        this.fileChannel = fileChannel;
+        this.buffer = buffer;
+        this.streaming = streaming;
+        
+        fill(PositionWriter.HEADER_SIZE);
+        
+        if (buffer.remaining() < PositionWriter.HEADER_SIZE ||
+                buffer.getInt() != PositionWriter.MAGIC) {
+            throw new IllegalArgumentException("Not a position file.");
+        }
+        
+        final int version = buffer.getInt();
+        
+        if (version != PositionWriter.FORMAT_VERSION) {
+            throw new IllegalArgumentException(
+                    "Unsupported position file version: " + version);
+        }
+        
+        final int formatOrdinal = buffer.getInt();
+        
+        if (formatOrdinal < 0 ||
+                formatOrdinal >= PositionFormat.values().length) {
+            throw new IllegalArgumentException(
+                    "Unknown position format: " + formatOrdinal);
+        }
+        
+        this.format = PositionFormat.values()[formatOrdinal];
+    }
+    
+    /**
+     * Opens the position file {@code path} for streaming.
+     * 
+     * @param path the path of the position file.
+     * 
+     * @return the position reader.
+     * 
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a position file.
+     */
+    public static PositionReader open(final Path path) throws IOException {
+        final FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ);
+        
+        try {
+            final ByteBuffer buffer =
+                    ByteBuffer.allocateDirect(PositionWriter.BUFFER_SIZE);
+            
+            // Start empty; the constructor fills the buffer:
+            buffer.flip();
+            return new PositionReader(fileChannel, buffer, true);
+        } catch (final IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Maps the position file {@code path} into memory.
+     * 
+     * @param path the path of the position file.
+     * 
+     * @return the position reader.
+     * 
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a position file, or
+     *                                  is too large to be mapped at once.
+     */
+    public static PositionReader map(final Path path) throws IOException {
+        final FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ);
+        
+        try {
+            if (fileChannel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "The position file is too large to map: " +
+                        fileChannel.size());
+            }
+            
+            final ByteBuffer buffer =
+                    fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                                    0L,
+                                    fileChannel.size());
+            
+            return new PositionReader(fileChannel, buffer, false);
+        } catch (final IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+    
+    public PositionFormat getFormat() {
+        return format;
+    }
+    
+    /**
+     * Reads the next position.
+     * 
+     * @return the next position, or {@code null} at the end of the file.
+     * 
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file contains an invalid or a
+     *                                  truncated record.
+     */
+    public Position read() throws IOException {
+        fill(format.getMaximumRecordSize());
+        
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        
+        try {
+            if (format == PositionFormat.KEY) {
+                final long key = buffer.getLong();
+                
+                return new Position(PositionCodec.decodeKey(key),
+                                    PositionCodec.getPlayerToMove(key));
+            }
+            
+            return PositionCodec.readMoves(buffer);
+        } catch (final BufferUnderflowException ex) {
+            throw new IllegalArgumentException(
+                    "The position file is truncated.");
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+    
+    /**
+     * Refills the buffer until it holds at least {@code size} bytes or the end
+     * of the file is reached.
+     */
+    private void fill(final int size) throws IOException {
+        if (!streaming) {
+            return;
+        }
+        
+        while (buffer.remaining() < size && !endOfFile) {
+            buffer.compact();
+            
+            if (fileChannel.read(buffer) < 0) {
+                endOfFile = true;
+            }
+            
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.coderodde.game.connect4.io;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class writes position files. The positions are collected in a buffer
+ * and written to the file channel a buffer at a time.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ *   int  magic
+ *   int  format version
+ *   int  record format: the ordinal of a {@link PositionFormat}
+ *   records
+ * </pre>
+ * 
+ * @version 1.0.0 (Jul 10, 2024)
+ * @since 1.0.0 (Jul 10, 2024)
+ */
+public final class PositionWriter implements AutoCloseable {
+    
+    static final int MAGIC = 0x43345046; // "C4PF"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 3 * Integer.BYTES;
+    
+    /**
+     * The size of the write buffer in bytes.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+    
+    private final FileChannel fileChannel;
+    private final PositionFormat format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long numberOfPositions;
+    
+    private PositionWriter(final FileChannel fileChannel,
+                           final PositionFormat format) {
+        
+        this.fileChannel = fileChannel;
+        this.format = format;
+        
+        buffer.putInt(MAGIC)
+              .putInt(FORMAT_VERSION)
+              .putInt(format.ordinal());
+    }
+    
+    /**
+     * Creates or truncates the position file {@code path}.
+     * 
+     * @param path   the path of the position file.
+     * @param format the record format.
+     * 
+     * @return the position writer.
+     * 
+     * @throws IOException if the file cannot be opened.
+     */
+    public static PositionWriter open(final Path path,
+                                      final PositionFormat format)
+            throws IOException {
+        
+        Objects.requireNonNull(format, "The position format is null.");
+        
+        return new PositionWriter(
+                FileChannel.open(path,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE),
+                format);
+    }
+    
+    public PositionFormat getFormat() {
+        return format;
+    }
+    
+    /**
+     * Returns the number of positions written so far.
+     * 
+     * @return the number of positions.
+     */
+    public long getNumberOfPositions() {
+        return numberOfPositions;
+    }
+    
+    /**
+     * Writes the position {@code board} with {@code playerToMove} to move.
+     * 
+     * @param board        the board to write.
+     * @param playerToMove the player to move.
+     * 
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if the format is
+     *                                  {@link PositionFormat#MOVES} and the
+     *                                  plies of {@code board} are not known.
+     */
+    public void write(final ConnectFourBoard board,
+                      final PlayerType playerToMove) throws IOException {
+        
+        if (buffer.remaining() < format.getMaximumRecordSize()) {
+            flush();
+        }
+        
+        if (format == PositionFormat.KEY) {
+            buffer.putLong(PositionCodec.encodeKey(board, playerToMove));
+        } else {
+            PositionCodec.writeMoves(buffer, board, playerToMove);
+        }
+        
+        numberOfPositions++;
+    }
+    
+    public void write(final Position position) throws IOException {
+        write(position.getBoard(), position.getPlayerToMove());
+    }
+    
+    /**
+     * Writes the buffered positions to the file.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+        
+        buffer.clear();
+    }
+    
+    /**
+     * Flushes the buffered positions and closes the file.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.github.coderodde.game.connect4.perft;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.ROWS;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class implements <i>perft</i>: it enumerates all the ply sequences of 
+ * a given length from a Connect Four position, counting the nodes and the 
+ * distinct positions on each ply. The counts from the empty board are known
+ * (OEIS A212693 for the distinct positions), which makes perft a correctness
+ * oracle for the move generator, and its node rate a measure of the move
+ * generator throughput.
+ * <p>
+ * The tree is split into fork/join tasks near the root; the subtrees below
+ * {@link #DEFAULT_SEQUENTIAL_DEPTH} remaining plies are walked sequentially
+ * with {@link ConnectFourBoard#makePly(int, PlayerType)} and 
+ * {@link ConnectFourBoard#unmakePly(int)}. The distinct positions go into a
+ * concurrent hash set per ply.
+ * 
+ * @version 1.0.0 (Jul 5, 2024)
+ * @since 1.0.0 (Jul 5, 2024)
+ */
+public final class Perft {
+    
+    /**
+     * Subtrees with at most this many remaining plies run sequentially.
+     */
+    public static final int DEFAULT_SEQUENTIAL_DEPTH = 5;
+    
+    /**
+     * Added to the occupied bitboard, this sets the bit above the topmost disc
+     * of each column, which makes the position key unique.
+     */
+    private static final long BOTTOM_ROW;
+    
+    static {
+        long bottomRow = 0L;
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            bottomRow |= 1L << (x * (ROWS + 1));
+        }
+        
+        BOTTOM_ROW = bottomRow;
+    }
+    
+    private final ForkJoinPool pool;
+    private final int sequentialDepth;
+    private final boolean countUniquePositions;
+    
+    public Perft() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_DEPTH, true);
+    }
+    
+    /**
+     * Constructs this perft.
+     * 
+     * @param pool                 the pool to run the tasks in.
+     * @param sequentialDepth      the number of remaining plies below which 
+     *                             the subtrees are walked sequentially.
+     * @param countUniquePositions whether to count the distinct positions. 
+     *                             Turning this off leaves only the move 
+     *                             generator in the measurement.
+     */
+    public Perft(final ForkJoinPool pool, 
+                 final int sequentialDepth,
+                 final boolean countUniquePositions) {
+        
+        if (sequentialDepth < 0) {
+            throw new IllegalArgumentException(
+                    "The sequential depth is negative: " + sequentialDepth);
+        }
+        
+        this.pool = pool;
+        this.sequentialDepth = sequentialDepth;
+        this.countUniquePositions = countUniquePositions;
+    }
+    
+    /**
+     * Runs perft from {@code root} to {@code depth} plies.
+     * 
+     * @param root       the root position. Not modified.
+     * @param playerType the player to move at {@code root}.
+     * @param depth      the number of plies.
+     * @return the per-ply counts.
+     */
+    public PerftResult perft(final ConnectFourBoard root,
+                             final PlayerType playerType,
+                             final int depth) {
+        
+        if (depth < 0) {
+            throw new IllegalArgumentException(
+                    "The depth is negative: " + depth);
+        }
+        
+        final List<Set<Long>> uniquePositions = new ArrayList<>(depth + 1);
+        
+        for (int ply = 0; ply <= depth && countUniquePositions; ply++) {
+            uniquePositions.add(ConcurrentHashMap.newKeySet());
+        }
+        
+        final long[] nodeCounts = 
+                pool.invoke(new PerftTask(new ConnectFourBoard(root),
+                                          playerType,
+                                          0,
+                                          depth,
+                                          uniquePositions));
+        
+        final long[] uniquePositionCounts = new long[depth + 1];
+        
+        for (int ply = 0; ply <= depth && countUniquePositions; ply++) {
+            uniquePositionCounts[ply] = uniquePositions.get(ply).size();
+        }
+        
+        return new PerftResult(nodeCounts, uniquePositionCounts);
+    }
+    
+    /**
+     * Returns a key identifying the position of {@code board} exactly.
+     * 
+     * @param board the board.
+     * @return the position key.
+     */
+    static long getPositionKey(final ConnectFourBoard board) {
+        return board.getBitboard(PlayerType.MINIMIZING_PLAYER) 
+             + board.getOccupiedBitboard() 
+             + BOTTOM_ROW;
+    }
+    
+    @SuppressWarnings("serial")
+    private final class PerftTask extends RecursiveTask<long[]> {
+        
+        private final ConnectFourBoard board;
+        private final PlayerType playerType;
+        private final int ply;
+        private final int depth;
+        private final List<Set<Long>> uniquePositions;
+        
+        PerftTask(final ConnectFourBoard board,
+                  final PlayerType playerType,
+                  final int ply,
+                  final int depth,
+                  final List<Set<Long>> uniquePositions) {
+            this.board = board;
+            this.playerType = playerType;
+            this.ply = ply;
+            this.depth = depth;
+            this.uniquePositions = uniquePositions;
+        }
+        
+        @Override
+        protected long[] compute() {
+            final long[] nodeCounts = new long[depth + 1];
+            
+            if (depth - ply <= sequentialDepth) {
+                perft(board, playerType, ply, nodeCounts);
+                return nodeCounts;
+            }
+            
+            visit(board, ply, nodeCounts);
+            
+            if (board.isTerminal()) {
+                return nodeCounts;
+            }
+            
+            final List<PerftTask> tasks = new ArrayList<>(COLUMNS);
+            
+            for (int x = 0; x < COLUMNS; x++) {
+                final ConnectFourBoard child = new ConnectFourBoard(board);
+                
+                if (child.makePly(x, playerType)) {
+                    final PerftTask task = new PerftTask(child,
+                                                         playerType.flip(),
+                                                         ply + 1,
+                                                         depth,
+                                                         uniquePositions);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            
+            for (final PerftTask task : tasks) {
+                final long[] childNodeCounts = task.join();
+                
+                for (int i = ply + 1; i <= depth; i++) {
+                    nodeCounts[i] += childNodeCounts[i];
+                }
+            }
+            
+            return nodeCounts;
+        }
+        
+        private void perft(final ConnectFourBoard board, 
+                           final PlayerType playerType,
+                           final int ply,
+                           final long[] nodeCounts) {
+            
+            visit(board, ply, nodeCounts);
+            
+            if (ply == depth || board.isTerminal()) {
+                return;
+            }
+            
+            for (int x = 0; x < COLUMNS; x++) {
+                if (board.makePly(x, playerType)) {
+                    perft(board, playerType.flip(), ply + 1, nodeCounts);
+                    board.unmakePly(x);
+                }
+            }
+        }
+        
+        private void visit(final ConnectFourBoard board, 
+                           final int ply, 
+                           final long[] nodeCounts) {
+            nodeCounts[ply]++;
+            
+            if (countUniquePositions) {
+                uniquePositions.get(ply).add(getPositionKey(board));
+            }
+        }
+    }
+    
+    /**
+     * Runs perft from the empty board and prints the counts and the node rate
+     * of each depth. Usage: {@code Perft [MAX_DEPTH [THREADS]]}.
+     * 
+     * @param args the command line arguments.
+     */
+    public static void main(final String[] args) {
+        final int maximumDepth = args.length > 0 ? 
+                                 Integer.parseInt(args[0]) : 
+                                 10;
+        
+        final int threads = 
+                args.length > 1 ? 
+                Integer.parseInt(args[1]) : 
+                Runtime.getRuntime().availableProcessors();
+        
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        
+        try {
+            final Perft perft = 
+                    new Perft(pool, DEFAULT_SEQUENTIAL_DEPTH, false);
+            
+            final Perft uniquePerft = 
+                    new Perft(pool, DEFAULT_SEQUENTIAL_DEPTH, true);
+            
+            System.out.printf("%5s %15s %15s %12s %15s\n",
+                              "depth", 
+                              "leaves", 
+                              "unique", 
+                              "millis", 
+                              "nodes/s");
+            
+            for (int depth = 0; depth <= maximumDepth; depth++) {
+                final long startTime = System.nanoTime();
+                final PerftResult result = 
+                        perft.perft(new ConnectFourBoard(), 
+                                    PlayerType.MINIMIZING_PLAYER, 
+                                    depth);
+                
+                final long duration = System.nanoTime() - startTime;
+                final PerftResult uniqueResult = 
+                        uniquePerft.perft(new ConnectFourBoard(), 
+                                          PlayerType.MINIMIZING_PLAYER, 
+                                          depth);
+                
+                System.out.printf(
+                        "%5d %15d %15d %12d %15d\n",
+                        depth,
+                        result.getLeafCount(),
+                        uniqueResult.getUniquePositionCount(depth),
+                        duration / 1_000_000L,
+                        result.getTotalNodeCount() * 1_000_000_000L 
+                                / Math.max(duration, 1L));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.coderodde.game.connect4.perft;
+
+/**
+ * This class holds the per-ply counts of a {@link Perft} run. Ply 0 is the 
+ * root itself.
+ * 
+ * @version 1.0.0 (Jul 5, 2024)
+ * @since 1.0.0 (Jul 5, 2024)
+ */
+public final class PerftResult {
+    
+    private final long[] nodeCounts;
+    private final long[] uniquePositionCounts;
+    
+    PerftResult(final long[] nodeCounts, final long[] uniquePositionCounts) {
+        this.nodeCounts = nodeCounts;
+        this.uniquePositionCounts = uniquePositionCounts;
+    }
+    
+    /**
+     * Returns the depth of the run.
+     * 
+     * @return the depth of the run.
+     */
+    public int getDepth() {
+        return nodeCounts.length - 1;
+    }
+    
+    /**
+     * Returns the number of ply sequences of length {@code ply}. A sequence 
+     * ends early when the game does, so it is not counted on the later plies.
+     * 
+     * @param ply the ply.
+     * @return the number of ply sequences.
+     */
+    public long getNodeCount(final int ply) {
+        return nodeCounts[ply];
+    }
+    
+    /**
+     * Returns the number of distinct positions after {@code ply} plies.
+     * 
+     * @param ply the ply.
+     * @return the number of distinct positions.
+     */
+    public long getUniquePositionCount(final int ply) {
+        return uniquePositionCounts[ply];
+    }
+    
+    /**
+     * Returns the number of leaves: the ply sequences of length 
+     * {@link #getDepth()}.
+     * 
+     * @return the number of leaves.
+     */
+    public long getLeafCount() {
+        return nodeCounts[getDepth()];
+    }
+    
+    /**
+     * Returns the number of nodes over all the plies.
+     * 
+     * @return the total number of nodes.
+     */
+    public long getTotalNodeCount() {
+        long total = 0L;
+        
+        for (final long nodeCount : nodeCounts) {
+            total += nodeCount;
+        }
+        
+        return total;
+    }
+}
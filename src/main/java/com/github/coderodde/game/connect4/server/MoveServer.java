@@ -0,0 +1,345 @@
+package com.github.coderodde.game.connect4.server;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.connect4.io.Position;
+import com.github.coderodde.game.connect4.io.PositionCodec;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class implements an HTTP service computing Connect Four moves. Each
+ * request is handled by a virtual thread of its own, which borrows an engine
+ * from a {@link SearchEnginePool} for the duration of the search. Hundreds of
+ * concurrent games thus cost hundreds of cheap virtual threads, while the
+ * number of searches running at a time is bounded by the size of the pool.
+ * <p>
+ * The service answers {@code GET /move} with the following parameters:
+ * <ul>
+ *   <li>{@code moves}: the plies played so far as 1-based columns, as in
+ *       {@link PositionCodec#toMoveString(ConnectFourBoard)}. The minimizing
+ *       player moves first. May be empty.</li>
+ *   <li>{@code depth}: the search depth. At most
+ *       {@value #MAXIMUM_DEPTH}.</li>
+ *   <li>{@code millis}: the time budget of the search in milliseconds. At
+ *       most {@value #MAXIMUM_TIME_BUDGET_MILLIS}.</li>
+ * </ul>
+ * At most one of {@code depth} and {@code millis} may be given; if neither
+ * is, the search depth is {@value #DEFAULT_DEPTH}. The response is a JSON
+ * object such as
+ * <pre>
+ * {"move":4,"moves":"44534","score":12,"depth":8,
+ *  "statistics":{"nodes":1234,"leaves":567,"cutoffs":89,
+ *                "transpositionHits":10,"maximumHeight":8,"millis":3}}
+ * </pre>
+ * where {@code move} is the 1-based column of the ply, {@code score} is the
+ * value of the position for the player to move and {@code depth} is the 
+ * depth of the search producing them; a time-bounded search reports its 
+ * deepest completed iteration. Invalid requests are
+ * answered with the status 400 and a JSON object holding an {@code error}
+ * message.
+ * 
+ * @version 1.0.0 (Jul 14, 2024)
+ * @since 1.0.0 (Jul 14, 2024)
+ */
+public final class MoveServer implements AutoCloseable {
+    
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_DEPTH = 8;
+    public static final int MAXIMUM_DEPTH = 16;
+    public static final long MAXIMUM_TIME_BUDGET_MILLIS = 10_000L;
+    
+    /**
+     * The maximum number of pending connections.
+     */
+    private static final int BACKLOG = 1024;
+    
+    private static final String CONTENT_TYPE = "application/json";
+    
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final SearchEnginePool enginePool;
+    
+    private MoveServer(final HttpServer httpServer,
+                       final ExecutorService executor,
+                       final SearchEnginePool enginePool) {
+        
+        this.httpServer = httpServer;
+        this.executor = executor;
+        this.enginePool = enginePool;
+    }
+    
+    /**
+     * Starts a move service on {@code address}.
+     * 
+     * @param address    the address to listen on. Port 0 selects any free
+     *                   port.
+     * @param enginePool the engines running the searches.
+     * 
+     * @return the running service.
+     * 
+     * @throws IOException if the server socket cannot be bound.
+     */
+    public static MoveServer start(final InetSocketAddress address,
+                                   final SearchEnginePool enginePool)
+            throws IOException {
+        
+        final HttpServer httpServer = HttpServer.create(address, BACKLOG);
+        final ExecutorService executor =
+                Executors.newVirtualThreadPerTaskExecutor();
+        
+        final MoveServer moveServer =
+                new MoveServer(httpServer, executor, enginePool);
+        
+        httpServer.createContext("/move", moveServer::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        return moveServer;
+    }
+    
+    /**
+     * Returns the port this service listens on.
+     * 
+     * @return the port.
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+    
+    public SearchEnginePool getEnginePool() {
+        return enginePool;
+    }
+    
+    /**
+     * Stops accepting requests and waits for the running ones to complete.
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.close();
+    }
+    
+    /**
+     * Starts a move service with one engine per CPU and runs it until the
+     * process is killed.
+     * 
+     * @param args the optional port to listen on.
+     * 
+     * @throws IOException if the server socket cannot be bound.
+     */
+    public static void main(final String[] args) throws IOException {
+        final int port =
+                args.length == 0 ? DEFAULT_PORT : Integer.parseInt(args[0]);
+        
+        final SearchEnginePool enginePool =
+                new SearchEnginePool(
+                        new ConnectFourBitboardHeuristicFunction());
+        
+        final MoveServer moveServer =
+                start(new InetSocketAddress(port), enginePool);
+        
+        System.out.printf(">>> Serving moves on port %d with %d engines.\n",
+                          moveServer.getPort(),
+                          enginePool.getSize());
+    }
+    
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, toErrorJson("Only GET is supported."));
+                return;
+            }
+            
+            final String json;
+            
+            try {
+                json = computeMove(
+                        parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (final IllegalArgumentException ex) {
+                respond(exchange, 400, toErrorJson(ex.getMessage()));
+                return;
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, toErrorJson("The service is stopping."));
+                return;
+            }
+            
+            respond(exchange, 200, json);
+        }
+    }
+    
+    /**
+     * Runs the search requested by {@code parameters} on a pooled engine.
+     * 
+     * @return the JSON response.
+     */
+    private String computeMove(final Map<String, String> parameters)
+            throws InterruptedException {
+        
+        final String moves = parameters.get("moves");
+        
+        if (moves == null) {
+            throw new IllegalArgumentException("The moves are missing.");
+        }
+        
+        final Position position =
+                PositionCodec.parseMoveString(moves,
+                                              PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourBoard root = position.getBoard();
+        final PlayerType playerType = position.getPlayerToMove();
+        
+        if (root.isTerminal()) {
+            throw new IllegalArgumentException("The game is over.");
+        }
+        
+        final String depthParameter = parameters.get("depth");
+        final String millisParameter = parameters.get("millis");
+        
+        if (depthParameter != null && millisParameter != null) {
+            throw new IllegalArgumentException(
+                    "Give either the depth or the time budget, not both.");
+        }
+        
+        final int depth =
+                depthParameter == null ?
+                DEFAULT_DEPTH :
+                parseNumber(depthParameter, "depth", MAXIMUM_DEPTH);
+        
+        final Duration timeBudget =
+                millisParameter == null ?
+                null :
+                Duration.ofMillis(parseNumber(millisParameter,
+                                              "millis",
+                                              MAXIMUM_TIME_BUDGET_MILLIS));
+        
+        final ConnectFourNegamaxSearchEngine engine = enginePool.acquire();
+        
+        try {
+            final ConnectFourBoard moveState =
+                    timeBudget == null ?
+                    engine.search(root, depth, playerType) :
+                    engine.search(root, timeBudget, playerType);
+            
+            final int x = root.getPlyColumn(moveState);
+            
+            return toMoveJson(x + 1,
+                              moves + (x + 1),
+                              engine.getRootValue(),
+                              engine.getCompletedDepth(),
+                              engine.getSearchStatistics());
+        } finally {
+            enginePool.release(engine);
+        }
+    }
+    
+    private static int parseNumber(final String value,
+                                   final String name,
+                                   final long maximum) {
+        final int number;
+        
+        try {
+            number = Integer.parseInt(value);
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                    "The " + name + " is not a number: " + value);
+        }
+        
+        if (number < 1 || number > maximum) {
+            throw new IllegalArgumentException(
+                    "The " + name + " must be within [1, " + maximum + "]: " +
+                    number);
+        }
+        
+        return number;
+    }
+    
+    private static Map<String, String> parseQuery(final String query) {
+        final Map<String, String> parameters = new HashMap<>();
+        
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        
+        for (final String pair : query.split("&")) {
+            final int equalsIndex = pair.indexOf('=');
+            final String name = equalsIndex < 0 ?
+                                pair :
+                                pair.substring(0, equalsIndex);
+            
+            final String value = equalsIndex < 0 ?
+                                 "" :
+                                 pair.substring(equalsIndex + 1);
+            
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                           URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        
+        return parameters;
+    }
+    
+    private static String toMoveJson(final int move,
+                                     final String moves,
+                                     final int score,
+                                     final int depth,
+                                     final SearchStatistics statistics) {
+        
+        return "{\"move\":" + move
+                + ",\"moves\":\"" + moves + "\""
+                + ",\"score\":" + score
+                + ",\"depth\":" + depth
+                + ",\"statistics\":{"
+                + "\"nodes\":" + statistics.getNodeCount()
+                + ",\"leaves\":" + statistics.getLeafCount()
+                + ",\"cutoffs\":" + statistics.getCutoffCount()
+                + ",\"transpositionHits\":"
+                + statistics.getTranspositionHitCount()
+                + ",\"maximumHeight\":" + statistics.getMaximumHeight()
+                + ",\"millis\":" + statistics.getDuration().toMillis()
+                + "}}";
+    }
+    
+    private static String toErrorJson(final String message) {
+        final StringBuilder sb = new StringBuilder("{\"error\":\"");
+        
+        for (final char c : message.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        
+        return sb.append("\"}").toString();
+    }
+    
+    private static void respond(final HttpExchange exchange,
+                                final int status,
+                                final String json) throws IOException {
+        
+        final byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        
+        try (final OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
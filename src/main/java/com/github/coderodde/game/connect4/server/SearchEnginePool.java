@@ -0,0 +1,120 @@
+package com.github.coderodde.game.connect4.server;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.zerosum.HeuristicFunction;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * This class implements a fixed pool of negamax engines. An engine is lent to
+ * one search at a time and returned afterwards, so its move ordering state
+ * survives from one search to the next. All the engines share one
+ * transposition table, which stays warm across the searches of all the games.
+ * <p>
+ * The size of the pool bounds the number of searches running at a time. A
+ * caller finding the pool empty waits for an engine; on a virtual thread the
+ * wait costs next to nothing.
+ * 
+ * @version 1.0.0 (Jul 14, 2024)
+ * @since 1.0.0 (Jul 14, 2024)
+ */
+public final class SearchEnginePool {
+    
+    private final BlockingQueue<ConnectFourNegamaxSearchEngine> engines;
+    private final TranspositionTable transpositionTable;
+    private final int size;
+    
+    public SearchEnginePool(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction) {
+        
+        this(heuristicFunction, Runtime.getRuntime().availableProcessors());
+    }
+    
+    public SearchEnginePool(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final int size) {
+        
+        this(heuristicFunction, size, new TranspositionTable());
+    }
+    
+    /**
+     * Constructs this pool.
+     * 
+     * @param heuristicFunction  the heuristic function used by the engines.
+     * @param size               the number of engines.
+     * @param transpositionTable the transposition table shared by the engines.
+     */
+    public SearchEnginePool(
+            final HeuristicFunction<ConnectFourBoard> heuristicFunction,
+            final int size,
+            final TranspositionTable transpositionTable) {
+        
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                    "The pool size must be positive: " + size);
+        }
+        
+        Objects.requireNonNull(heuristicFunction,
+                               "The heuristic function is null.");
+        
+        this.transpositionTable =
+                Objects.requireNonNull(transpositionTable,
+                                       "The transposition table is null.");
+        
+        this.engines = new ArrayBlockingQueue<>(size);
+        this.size = size;
+        
+        for (int i = 0; i < size; i++) {
+            engines.add(new ConnectFourNegamaxSearchEngine(heuristicFunction,
+                                                           transpositionTable));
+        }
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+    
+    /**
+     * Returns the number of engines not lent out at the moment.
+     * 
+     * @return the number of idle engines.
+     */
+    public int getIdleCount() {
+        return engines.size();
+    }
+    
+    /**
+     * Takes an engine from this pool, waiting until one is available. The
+     * engine must be returned by
+     * {@link #release(ConnectFourNegamaxSearchEngine)} once the search is
+     * over.
+     * 
+     * @return the engine.
+     * 
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public ConnectFourNegamaxSearchEngine acquire()
+            throws InterruptedException {
+        return engines.take();
+    }
+    
+    /**
+     * Returns an engine taken by {@link #acquire()} to this pool.
+     * 
+     * @param engine the engine to return.
+     */
+    public void release(final ConnectFourNegamaxSearchEngine engine) {
+        if (!engines.offer(Objects.requireNonNull(engine,
+                                                  "The engine is null."))) {
+            throw new IllegalStateException(
+                    "The engine does not belong to the pool.");
+        }
+    }
+}
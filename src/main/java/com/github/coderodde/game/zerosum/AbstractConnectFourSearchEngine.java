@@ -1,18 +1,320 @@
 package com.github.coderodde.game.zerosum;
 
 import com.github.coderodde.game.connect4.ConnectFourBoard;
+import java.time.Duration;
 
 /**
  * This abstract class defines some basic infrastructure for Connect Four AI
- * algorithms.
+ * algorithms, including iterative deepening under a time budget. Subclasses 
+ * implement {@link #searchIteration(ConnectFourBoard, int, PlayerType, int)} 
+ * and poll {@link #shouldAbortSearch()} in their search routines.
  * 
- * @version 1.0.0 (Jun 18, 2024)
+ * @version 1.3.0 (Jul 16, 2024)
  * @since 1.0.0 (Jun 18, 2024)
  */
 public abstract class AbstractConnectFourSearchEngine 
         implements SearchEngine<ConnectFourBoard> {
    
-    protected static final int[] PLIES = { 3, 2, 4, 1, 5, 0, 6 };
+    /**
+     * The columns in the center-first order, the default order of trying the
+     * plies.
+     */
+    private static final int[] PLIES = ConnectFourBoard.getColumnOrder();
+    
     public static final int MAX_INT = +1_000_000_000;
     public static final int MIN_INT = -1_000_000_000;
+    
+    /**
+     * The default distance from the previous score of the root to either 
+     * bound of an aspiration window: two three-in-a-row terms of the default
+     * heuristic function.
+     */
+    public static final int DEFAULT_ASPIRATION_WINDOW_WIDTH = 20;
+    
+    /**
+     * The number of {@link #shouldAbortSearch()} calls between two reads of
+     * the clock.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    
+    /**
+     * {@code PLY_ORDERS[x]} is {@link #PLIES} with the column {@code x} moved
+     * to the front.
+     */
+    private static final int[][] PLY_ORDERS =
+            new int[ConnectFourBoard.COLUMNS][];
+    
+    static {
+        for (int x = 0; x < ConnectFourBoard.COLUMNS; x++) {
+            final int[] plyOrder = new int[PLIES.length];
+            int index = 0;
+            
+            plyOrder[index++] = x;
+            
+            for (final int ply : PLIES) {
+                if (ply != x) {
+                    plyOrder[index++] = ply;
+                }
+            }
+            
+            PLY_ORDERS[x] = plyOrder;
+        }
+    }
+    
+    /**
+     * Whether the current search has run out of time or was stopped.
+     */
+    private volatile boolean searchAborted;
+    
+    /**
+     * Whether a search that may be stopped is running.
+     */
+    private volatile boolean searching;
+    
+    /**
+     * Whether a time-bounded search is running.
+     */
+    private volatile boolean hasDeadline;
+    
+    /**
+     * The deadline of the current time-bounded search in 
+     * {@link System#nanoTime()} units.
+     */
+    private volatile long deadlineNanos;
+    
+    /**
+     * The number of {@link #shouldAbortSearch()} calls left until the next 
+     * read of the clock. Updated racily when several threads poll the same
+     * engine, which only affects how often the clock is read.
+     */
+    private int callsUntilDeadlineCheck = DEADLINE_CHECK_INTERVAL;
+    
+    /**
+     * The depth of the iteration that produced the result of the latest 
+     * search, or 0 if the search produced no result.
+     */
+    private int completedDepth;
+    
+    /**
+     * The statistics of the current search. Sequential engines count into 
+     * this directly; parallel engines count into per-thread statistics and 
+     * add them here at the end of each iteration.
+     */
+    protected final SearchStatistics searchStatistics = new SearchStatistics();
+    
+    /**
+     * Runs a single fixed-depth search iteration.
+     * 
+     * @param root       the root state.
+     * @param depth      the search depth.
+     * @param playerType the player to move.
+     * @param firstPly   the column to try first at the root, or a negative 
+     *                   value for the default order.
+     * 
+     * @return the next move state, or {@code null} if there are no moves or 
+     *         the iteration was aborted.
+     */
+    protected abstract ConnectFourBoard searchIteration(
+            final ConnectFourBoard root,
+            final int depth,
+            final PlayerType playerType,
+            final int firstPly);
+    
+    /**
+     * Called whenever an iteration has completed and its result becomes the 
+     * result of the search. Engines reporting more than the best move, such 
+     * as the value of the root, latch it here, so that the report always 
+     * belongs to the move returned, and never to an aborted iteration.
+     * 
+     * @param depth the depth of the completed iteration.
+     */
+    protected void iterationCompleted(final int depth) {
+        // Only the depth is recorded by default.
+    }
+    
+    /**
+     * Returns the depth of the iteration that produced the result of the 
+     * latest search. A time-bounded search returns the result of its deepest
+     * completed iteration.
+     * 
+     * @return the depth searched, or 0 if the latest search returned no move.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A search stopped by {@link #stop()} returns {@code null}.
+     */
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root, 
+                                   final int depth, 
+                                   final PlayerType playerType) {
+        searchStatistics.clear();
+        completedDepth = 0;
+        searchAborted = false;
+        searching = true;
+        final long startTime = System.nanoTime();
+        
+        try {
+            final ConnectFourBoard moveState = 
+                    searchIteration(root, depth, playerType, -1);
+            
+            if (moveState == null || searchAborted) {
+                return null;
+            }
+            
+            complete(depth);
+            return moveState;
+        } finally {
+            searching = false;
+            searchAborted = false;
+            searchStatistics.setDuration(System.nanoTime() - startTime);
+        }
+    }
+    
+    /**
+     * Runs iterative deepening until the time budget runs out. An iteration 
+     * still running at the deadline is aborted and its result discarded. Each
+     * iteration tries the best move of the previous one first.
+     * 
+     * @param root       the root state.
+     * @param timeBudget the wall-clock time budget of the search.
+     * @param playerType the player to move.
+     * 
+     * @return the best move state of the last completed iteration.
+     */
+    @Override
+    public ConnectFourBoard search(final ConnectFourBoard root,
+                                   final Duration timeBudget,
+                                   final PlayerType playerType) {
+        
+        final long startTime = System.nanoTime();
+        
+        searchStatistics.clear();
+        completedDepth = 0;
+        deadlineNanos = startTime + timeBudget.toNanos();
+        searchAborted = false;
+        hasDeadline = true;
+        searching = true;
+        
+        ConnectFourBoard bestMoveState = null;
+        int bestPly = -1;
+        
+        try {
+            final int maximumDepth = root.getEmptyCellCount();
+            
+            for (int depth = 1; depth <= maximumDepth; depth++) {
+                final ConnectFourBoard moveState = 
+                        searchIteration(root, depth, playerType, bestPly);
+                
+                if (searchAborted || moveState == null) {
+                    break;
+                }
+                
+                bestMoveState = moveState;
+                bestPly = root.getPlyColumn(moveState);
+                complete(depth);
+                
+                if (System.nanoTime() - deadlineNanos >= 0L) {
+                    break;
+                }
+            }
+        } finally {
+            searching = false;
+            hasDeadline = false;
+            searchAborted = false;
+        }
+        
+        if (bestMoveState == null) {
+            // Not even the first iteration completed in time:
+            bestMoveState = searchIteration(root, 1, playerType, -1);
+            
+            if (bestMoveState != null) {
+                complete(1);
+            }
+        }
+        
+        searchStatistics.setDuration(System.nanoTime() - startTime);
+        return bestMoveState;
+    }
+    
+    /**
+     * Aborts the running search. The search polls 
+     * {@link #shouldAbortSearch()}, so it returns within a node of the call.
+     * A stopped time-bounded search returns the result of its last completed
+     * iteration, and a stopped fixed-depth search returns {@code null}.
+     */
+    @Override
+    public void stop() {
+        if (searching) {
+            searchAborted = true;
+        }
+    }
+    
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return new SearchStatistics(searchStatistics);
+    }
+    
+    /**
+     * Polls the stop request and the deadline of the current search. Search 
+     * routines call this at every node and return immediately once it returns 
+     * {@code true}. The clock is read only on every 
+     * {@value #DEADLINE_CHECK_INTERVAL}th call.
+     * 
+     * @return {@code true} if the current search must be aborted.
+     */
+    protected final boolean shouldAbortSearch() {
+        if (!searching) {
+            return false;
+        }
+        
+        if (searchAborted) {
+            return true;
+        }
+        
+        if (!hasDeadline || --callsUntilDeadlineCheck > 0) {
+            return false;
+        }
+        
+        callsUntilDeadlineCheck = DEADLINE_CHECK_INTERVAL;
+        
+        if (System.nanoTime() - deadlineNanos >= 0L) {
+            searchAborted = true;
+        }
+        
+        return searchAborted;
+    }
+    
+    /**
+     * Returns {@code true} if the current search was aborted. Unlike 
+     * {@link #shouldAbortSearch()}, never reads the clock.
+     * 
+     * @return {@code true} if the current search was aborted.
+     */
+    protected final boolean isSearchAborted() {
+        return searchAborted;
+    }
+    
+    private void complete(final int depth) {
+        completedDepth = depth;
+        iterationCompleted(depth);
+    }
+    
+    /**
+     * Returns the column order to try the plies in, such that the column
+     * {@code firstPly} is tried first. The returned array must not be
+     * modified.
+     * 
+     * @param firstPly the column to try first, or a negative value for the
+     *                 default order.
+     * 
+     * @return the column order.
+     */
+    protected static int[] getPlyOrder(final int firstPly) {
+        return firstPly < 0 ? PLIES : PLY_ORDERS[firstPly];
+    }
 }
@@ -4,15 +4,25 @@ import com.github.coderodde.game.zerosum.PlayerType;
 import com.github.coderodde.game.zerosum.GameState;
 import com.github.coderodde.game.zerosum.HeuristicFunction;
 import com.github.coderodde.game.zerosum.SearchEngine;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class implements the 
  * <a href="https://en.wikipedia.org/wiki/Alpha%E2%80%93beta_pruning">
  * Alpha-beta pruning</a> algorithm for making a move.
+ * <p>
+ * The states supporting the move protocol get their root children from 
+ * {@link GameState#getChild(int, PlayerType)} in the order of 
+ * {@link GameState#generateMoves(PlayerType, int[])}. Below the root, they 
+ * are searched in place via {@link GameState#makeMove(int, PlayerType)} and 
+ * {@link GameState#unmakeMove(int)}, which allocates nothing per node. The 
+ * other states are expanded via {@link GameState#expand(PlayerType)} at every
+ * node.
  * 
  * @param <S> the game state type.
  * 
- * @version 1.0.0 (Jun 5, 2024)
+ * @version 1.1.0 (Jul 7, 2024)
  * @since 1.0.0 (Jun 5, 2024)
  */
 public final class AlphaBetaPruningSearchEngine<S extends GameState<S>>
@@ -20,20 +30,48 @@ public final class AlphaBetaPruningSearchEngine<S extends GameState<S>>
 
     private S bestMoveState;
     private final HeuristicFunction<S> heuristicFunction;
+    private final SearchStatistics searchStatistics = new SearchStatistics();
+    
+    /**
+     * The move buffers of the move protocol, one per height.
+     */
+    private int[][] moveBuffers = new int[0][];
     
     public AlphaBetaPruningSearchEngine(
             final HeuristicFunction<S> heuristicFunction) {
         this.heuristicFunction = heuristicFunction;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws IllegalArgumentException if {@code depth} is less than one.
+     */
     @Override
     public S search(S root, int depth, PlayerType playerType) {
+        if (depth < 1) {
+            throw new IllegalArgumentException(
+                    "The depth must be positive: " + depth);
+        }
+        
+        final S preparedRoot =
+                IncrementalHeuristicFunction.prepareIfIncremental(
+                        heuristicFunction,
+                        root);
         bestMoveState = null;
+        searchStatistics.clear();
+        
+        if (preparedRoot.supportsMoves()) {
+            ensureMoveBuffers(depth, preparedRoot.getMaximumNumberOfMoves());
+        }
         
-        alphaBetaRootImpl(root, 
+        final long startTime = System.nanoTime();
+        
+        alphaBetaRootImpl(preparedRoot, 
                           depth,
                           playerType);
         
+        searchStatistics.setDuration(System.nanoTime() - startTime);
         return bestMoveState;
     }
     
@@ -44,25 +82,33 @@ public final class AlphaBetaPruningSearchEngine<S extends GameState<S>>
                       PlayerType.MAXIMIZING_PLAYER);
     }
     
+    @Override
+    public SearchStatistics getSearchStatistics() {
+        return new SearchStatistics(searchStatistics);
+    }
+    
     private void alphaBetaRootImpl(final S root, 
                                    final int depth,
                                    final PlayerType playerType) {
         
+        searchStatistics.countNode(0);
+        
         if (playerType == PlayerType.MAXIMIZING_PLAYER) {
             
             // Try to maximize the alpha:
-            double alpha = Double.NEGATIVE_INFINITY;
-            double value = Double.NEGATIVE_INFINITY;
-            double tentativeValue = Double.NEGATIVE_INFINITY;
+            int alpha = Integer.MIN_VALUE;
+            int value = Integer.MIN_VALUE;
+            int tentativeValue = Integer.MIN_VALUE;
 
-            for (final S child : root.expand(PlayerType.MAXIMIZING_PLAYER)) {
+            for (final S child : getRootChildren(root, 
+                                                 PlayerType.MAXIMIZING_PLAYER)) {
                 
                 value = Math.max(value, 
-                                 alphaBetaImpl(child,
-                                               depth - 1,
-                                               alpha,
-                                               Double.POSITIVE_INFINITY,
-                                               PlayerType.MINIMIZING_PLAYER));
+                                 searchChild(child,
+                                             depth - 1,
+                                             alpha,
+                                             Integer.MAX_VALUE,
+                                             PlayerType.MINIMIZING_PLAYER));
 
                 if (tentativeValue < value) {
                     tentativeValue = value;
@@ -73,18 +119,19 @@ public final class AlphaBetaPruningSearchEngine<S extends GameState<S>>
             }
         } else {
             
-            double beta = Double.POSITIVE_INFINITY;
-            double value = Double.POSITIVE_INFINITY;
-            double tentativeValue = Double.POSITIVE_INFINITY;
+            int beta = Integer.MAX_VALUE;
+            int value = Integer.MAX_VALUE;
+            int tentativeValue = Integer.MAX_VALUE;
             
-            for (final S child : root.expand(PlayerType.MINIMIZING_PLAYER)) {
+            for (final S child : getRootChildren(root, 
+                                                 PlayerType.MINIMIZING_PLAYER)) {
                 
                 value = Math.min(value,
-                                 alphaBetaImpl(child,
-                                               depth - 1,
-                                               Double.NEGATIVE_INFINITY,
-                                               beta,
-                                               PlayerType.MAXIMIZING_PLAYER));
+                                 searchChild(child,
+                                             depth - 1,
+                                             Integer.MIN_VALUE,
+                                             beta,
+                                             PlayerType.MAXIMIZING_PLAYER));
 
                 if (tentativeValue > value) {
                     tentativeValue = value;
@@ -96,55 +143,196 @@ public final class AlphaBetaPruningSearchEngine<S extends GameState<S>>
         }
     }
     
-    private double alphaBetaImpl(final S state,
-                                 final int depth, 
-                                 double alpha,
-                                 double beta,
-                                 final PlayerType playerType) {
+    /**
+     * Returns the children of the root. The children of a state supporting the
+     * move protocol are listed in the order of 
+     * {@link GameState#generateMoves(PlayerType, int[])}, the same order the
+     * inner nodes try the moves in.
+     */
+    private List<S> getRootChildren(final S root, 
+                                    final PlayerType playerType) {
+        
+        if (!root.supportsMoves()) {
+            return root.expand(playerType);
+        }
+        
+        final int[] moves = moveBuffers[0];
+        final int numberOfMoves = root.generateMoves(playerType, moves);
+        final List<S> children = new ArrayList<>(numberOfMoves);
+        
+        for (int i = 0; i < numberOfMoves; i++) {
+            children.add(root.getChild(moves[i], playerType));
+        }
+        
+        return children;
+    }
+    
+    /**
+     * Searches the child {@code child} of the root. The children are fresh 
+     * states, so the ones supporting the move protocol may be searched in 
+     * place.
+     */
+    private int searchChild(final S child,
+                            final int depth,
+                            final int alpha,
+                            final int beta,
+                            final PlayerType playerType) {
+        
+        return child.supportsMoves() ?
+               alphaBetaInPlaceImpl(child, depth, 1, alpha, beta, playerType) :
+               alphaBetaImpl(child, depth, 1, alpha, beta, playerType);
+    }
+    
+    private int alphaBetaImpl(final S state,
+                              final int depth, 
+                              final int height,
+                              int alpha,
+                              int beta,
+                              final PlayerType playerType) {
+        
+        searchStatistics.countNode(height);
         
         if (depth == 0 || state.isTerminal()) {
+            searchStatistics.countLeaf();
             return heuristicFunction.evaluate(state, depth);
         }
         
         if (playerType == PlayerType.MAXIMIZING_PLAYER) {
-            double value = Double.NEGATIVE_INFINITY;
+            int value = Integer.MIN_VALUE;
+            int moveIndex = 0;
             
             for (final S child : state.expand(PlayerType.MAXIMIZING_PLAYER)) {
                 
                 value = Math.max(value,
                                  alphaBetaImpl(child, 
                                                depth - 1,
+                                               height + 1,
                                                alpha,
                                                beta,
                                                PlayerType.MINIMIZING_PLAYER));
                 if (value > beta) {
+                    searchStatistics.countCutoff(moveIndex);
                     break;
                 }
                 
                 alpha = Math.max(alpha, value);
+                moveIndex++;
             }
                 
             return value;
         } else {
-            double value = Double.POSITIVE_INFINITY;
+            int value = Integer.MAX_VALUE;
+            int moveIndex = 0;
             
             for (final S child : state.expand(PlayerType.MINIMIZING_PLAYER)) {
                 
                 value = Math.min(value, 
                                  alphaBetaImpl(child, 
                                                depth - 1, 
+                                               height + 1,
                                                alpha, 
                                                beta, 
                                                PlayerType.MAXIMIZING_PLAYER));
                 
                 if (value < alpha) {
+                    searchStatistics.countCutoff(moveIndex);
                     break;
                 }
                 
                 beta = Math.min(beta, value);
+                moveIndex++;
             }
             
             return value;
         }
     }   
+    
+    private int alphaBetaInPlaceImpl(final S state,
+                                     final int depth, 
+                                     final int height,
+                                     int alpha,
+                                     int beta,
+                                     final PlayerType playerType) {
+        
+        searchStatistics.countNode(height);
+        
+        if (depth == 0 || state.isTerminal()) {
+            searchStatistics.countLeaf();
+            return heuristicFunction.evaluate(state, depth);
+        }
+        
+        final int[] moves = moveBuffers[height];
+        final int numberOfMoves = state.generateMoves(playerType, moves);
+        
+        if (playerType == PlayerType.MAXIMIZING_PLAYER) {
+            int value = Integer.MIN_VALUE;
+            
+            for (int i = 0; i < numberOfMoves; i++) {
+                state.makeMove(moves[i], PlayerType.MAXIMIZING_PLAYER);
+                
+                value = Math.max(value,
+                                 alphaBetaInPlaceImpl(
+                                         state, 
+                                         depth - 1,
+                                         height + 1,
+                                         alpha,
+                                         beta,
+                                         PlayerType.MINIMIZING_PLAYER));
+                
+                state.unmakeMove(moves[i]);
+                
+                if (value > beta) {
+                    searchStatistics.countCutoff(i);
+                    break;
+                }
+                
+                alpha = Math.max(alpha, value);
+            }
+            
+            return value;
+        } else {
+            int value = Integer.MAX_VALUE;
+            
+            for (int i = 0; i < numberOfMoves; i++) {
+                state.makeMove(moves[i], PlayerType.MINIMIZING_PLAYER);
+                
+                value = Math.min(value, 
+                                 alphaBetaInPlaceImpl(
+                                         state, 
+                                         depth - 1, 
+                                         height + 1,
+                                         alpha, 
+                                         beta, 
+                                         PlayerType.MAXIMIZING_PLAYER));
+                
+                state.unmakeMove(moves[i]);
+                
+                if (value < alpha) {
+                    searchStatistics.countCutoff(i);
+                    break;
+                }
+                
+                beta = Math.min(beta, value);
+            }
+            
+            return value;
+        }
+    }
+    
+    /**
+     * Makes sure there is a move buffer of {@code maximumNumberOfMoves} 
+     * elements for every height up to {@code depth}. The buffers are reused
+     * over the searches.
+     */
+    private void ensureMoveBuffers(final int depth, 
+                                   final int maximumNumberOfMoves) {
+        
+        if (moveBuffers.length > depth && 
+                moveBuffers[0].length >= maximumNumberOfMoves) {
+            return;
+        }
+        
+        moveBuffers = new int[Math.max(depth + 1, moveBuffers.length)]
+                             [maximumNumberOfMoves];
+    }
 }
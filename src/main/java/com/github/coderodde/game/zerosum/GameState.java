@@ -3,10 +3,17 @@ package com.github.coderodde.game.zerosum;
 import java.util.List;
 
 /**
+ * This interface defines the game states searched by the engines. A state 
+ * must be able to {@link #expand(PlayerType) expand} into its children. On top
+ * of that, a state may implement the move protocol: 
+ * {@link #generateMoves(PlayerType, int[])}, 
+ * {@link #makeMove(int, PlayerType)}, {@link #unmakeMove(int)} and 
+ * {@link #getChild(int, PlayerType)} with int-encoded moves, which lets the 
+ * engines search a single state in place without allocating the children.
  *
  * @param <B> the board type.
  * 
- * @version 1.0.0 (Jun 5, 2024)
+ * @version 1.1.0 (Jul 7, 2024)
  * @since 1.0.0 (Jun 5, 2024)
  */
 public interface GameState<B extends GameState<B>> {
@@ -47,4 +54,76 @@ public interface GameState<B extends GameState<B>> {
                isWinningFor(PlayerType.MINIMIZING_PLAYER) ||
                isTie();
     }
+    
+    /**
+     * Returns {@code true} iff this state implements the move protocol. The
+     * default implementation returns {@code false}.
+     * 
+     * @return {@code true} if the move protocol is supported.
+     */
+    public default boolean supportsMoves() {
+        return false;
+    }
+    
+    /**
+     * Returns the maximum number of moves 
+     * {@link #generateMoves(PlayerType, int[])} may generate in any state of 
+     * the game.
+     * 
+     * @return the maximum number of moves.
+     */
+    public default int getMaximumNumberOfMoves() {
+        throw new UnsupportedOperationException();
+    }
+    
+    /**
+     * Writes the legal moves of {@code playerType} to the beginning of 
+     * {@code moves}, the most promising moves first.
+     * 
+     * @param playerType the player to move.
+     * @param moves      the target array of at least 
+     *                   {@link #getMaximumNumberOfMoves()} elements.
+     * 
+     * @return the number of moves written.
+     */
+    public default int generateMoves(final PlayerType playerType, 
+                                     final int[] moves) {
+        throw new UnsupportedOperationException();
+    }
+    
+    /**
+     * Makes the move {@code move} generated by 
+     * {@link #generateMoves(PlayerType, int[])} on this state.
+     * 
+     * @param move       the move to make.
+     * @param playerType the player making the move.
+     */
+    public default void makeMove(final int move, 
+                                 final PlayerType playerType) {
+        throw new UnsupportedOperationException();
+    }
+    
+    /**
+     * Undoes the move {@code move}, which must be the latest move made on this
+     * state.
+     * 
+     * @param move the move to undo.
+     */
+    public default void unmakeMove(final int move) {
+        throw new UnsupportedOperationException();
+    }
+    
+    /**
+     * Returns the child state reached by making the move {@code move} 
+     * generated by {@link #generateMoves(PlayerType, int[])}. This state is 
+     * left intact.
+     * 
+     * @param move       the move to make.
+     * @param playerType the player making the move.
+     * 
+     * @return the child state.
+     */
+    public default B getChild(final int move, final PlayerType playerType) {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -0,0 +1,52 @@
+package com.github.coderodde.game.zerosum;
+
+/**
+ * This interface extends {@link HeuristicFunction} with incremental 
+ * evaluation. A prepared game state keeps a running score that every ply 
+ * adjusts by looking only at the part of the state the ply changed, so
+ * {@link #evaluate(GameState, int)} reads the running score instead of 
+ * scanning the entire state.
+ * 
+ * @param <S> the game state type.
+ * 
+ * @version 1.0.0 (Jun 26, 2024)
+ * @since 1.0.0 (Jun 26, 2024)
+ */
+public interface IncrementalHeuristicFunction<S extends GameState<S>> 
+        extends HeuristicFunction<S> {
+    
+    /**
+     * Returns a copy of {@code state} that keeps the running score. The states
+     * derived from the copy by making plies or copying keep it as well. 
+     * {@code state} itself is left intact, so search engines may call this on 
+     * the root state of their callers before searching.
+     * 
+     * @param state the state to prepare.
+     * 
+     * @return the prepared copy of {@code state}.
+     */
+    public S prepare(final S state);
+    
+    /**
+     * Returns a prepared copy of {@code state} if {@code heuristicFunction} 
+     * supports incremental evaluation, and {@code state} itself otherwise.
+     * 
+     * @param <S>               the game state type.
+     * @param heuristicFunction the heuristic function to be used.
+     * @param state             the state to prepare.
+     * 
+     * @return the state to search.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S extends GameState<S>> 
+        S prepareIfIncremental(final HeuristicFunction<S> heuristicFunction,
+                               final S state) {
+        
+        if (heuristicFunction instanceof IncrementalHeuristicFunction) {
+            return ((IncrementalHeuristicFunction<S>) heuristicFunction)
+                    .prepare(state);
+        }
+        
+        return state;
+    }
+}
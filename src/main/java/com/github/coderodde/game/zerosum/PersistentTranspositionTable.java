@@ -0,0 +1,382 @@
+package com.github.coderodde.game.zerosum;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class implements a transposition table stored in a memory-mapped file.
+ * The entries survive restarts, and all the processes mapping the same file
+ * share them through the page cache of the operating system.
+ * <p>
+ * The entries are packed exactly as in {@link TranspositionTable}, so the
+ * static accessors of that class unpack the probed entries. Unlike the
+ * in-memory table, this table is open-addressed: a position may occupy any of
+ * {@value #PROBE_LENGTH} consecutive slots starting at its home slot, and a
+ * full window evicts its shallowest entry. Deep results, which are the
+ * expensive ones to recompute, are thus rarely lost.
+ * <p>
+ * Slots are read and written without locking, as in
+ * {@link TranspositionTable}: each slot stores the entry along with the key
+ * XORed with the entry, and a slot torn by concurrent writes, whether by
+ * another thread or by another process, is reported as a miss. Only the
+ * creation of the file is done under a file lock.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ *   int  magic
+ *   int  format version
+ *   long key fingerprint
+ *   int  capacity
+ *   12 bytes of padding
+ *   capacity slots: long key XOR entry, long entry
+ * </pre>
+ * 
+ * @version 1.0.0 (Jul 12, 2024)
+ * @since 1.0.0 (Jul 12, 2024)
+ */
+public final class PersistentTranspositionTable implements AutoCloseable {
+    
+    /**
+     * The largest supported capacity. The whole table is mapped as a single
+     * buffer, which is limited to two gigabytes.
+     */
+    public static final int MAXIMUM_CAPACITY = 1 << 26;
+    
+    /**
+     * The number of consecutive slots a position may occupy.
+     */
+    public static final int PROBE_LENGTH = 4;
+    
+    static final int MAGIC = 0x5a535454; // "ZSTT"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SLOT_SIZE = 2 * Long.BYTES;
+    
+    /**
+     * Accesses the slots with opaque semantics, so that a write is neither
+     * split into smaller writes nor cached in a register.
+     */
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class,
+                                                  ByteOrder.BIG_ENDIAN);
+    
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    
+    private PersistentTranspositionTable(final FileChannel fileChannel,
+                                         final MappedByteBuffer buffer,
+                                         final int capacity) {
+        
+        this.fileChannel = fileChannel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+    
+    /**
+     * Opens the table file {@code path}, creating it if it does not exist or
+     * is empty. An existing file keeps its own capacity.
+     * 
+     * @param path           the path of the table file.
+     * @param capacity       the requested number of entries of a new file.
+     *                       Rounded up to the nearest power of two.
+     * @param keyFingerprint a value identifying how the keys and the scores
+     *                       were computed. A file created with another
+     *                       fingerprint is rejected.
+     * 
+     * @return the table.
+     * 
+     * @throws IOException if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if the file is not a table file or
+     *                                  uses another key fingerprint.
+     */
+    public static PersistentTranspositionTable open(final Path path,
+                                                    final int capacity,
+                                                    final long keyFingerprint)
+            throws IOException {
+        
+        if (capacity < 1 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "The capacity must be within [1, " + MAXIMUM_CAPACITY +
+                    "]: " + capacity);
+        }
+        
+        final FileChannel fileChannel =
+                FileChannel.open(path,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.READ,
+                                 StandardOpenOption.WRITE);
+        
+        try {
+            final FileLock lock = fileChannel.lock();
+            final int actualCapacity;
+            
+            try {
+                actualCapacity =
+                        fileChannel.size() == 0L ?
+                        create(fileChannel, capacity, keyFingerprint) :
+                        readCapacity(fileChannel, keyFingerprint);
+            } finally {
+                lock.release();
+            }
+            
+            final MappedByteBuffer buffer =
+                    fileChannel.map(FileChannel.MapMode.READ_WRITE,
+                                    0L,
+                                    getFileSize(actualCapacity));
+            
+            return new PersistentTranspositionTable(fileChannel,
+                                                    buffer,
+                                                    actualCapacity);
+        } catch (final IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Returns the number of entries in this table.
+     * 
+     * @return the capacity of this table.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Looks up the entry for the position with key {@code key}.
+     * 
+     * @param key the position key.
+     * 
+     * @return the packed entry, or {@link TranspositionTable#NO_ENTRY} if not
+     *         present.
+     */
+    public long probe(final long key) {
+        final int homeIndex = getIndex(key);
+        
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            final int index = (homeIndex + i) & mask;
+            final long entry = getEntry(index);
+            
+            if (entry == TranspositionTable.NO_ENTRY) {
+                // Slots are never vacated, so the key is not further away:
+                return TranspositionTable.NO_ENTRY;
+            }
+            
+            if ((getKey(index) ^ entry) == key) {
+                return entry;
+            }
+        }
+        
+        return TranspositionTable.NO_ENTRY;
+    }
+    
+    /**
+     * Stores a search result. An entry of the same position is replaced only
+     * by a result of at least the same depth. Otherwise, the result takes the
+     * first free slot of the window, or replaces the shallowest entry of a
+     * full window.
+     * 
+     * @param key      the position key.
+     * @param depth    the search depth that produced {@code score}.
+     * @param score    the score.
+     * @param bound    the bound type of {@code score}.
+     * @param bestMove the best move, or {@link TranspositionTable#NO_MOVE}.
+     */
+    public void store(final long key,
+                      final int depth,
+                      final int score,
+                      final int bound,
+                      final int bestMove) {
+        
+        final int homeIndex = getIndex(key);
+        int targetIndex = homeIndex;
+        int targetDepth = Integer.MAX_VALUE;
+        
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            final int index = (homeIndex + i) & mask;
+            final long storedEntry = getEntry(index);
+            
+            if (storedEntry == TranspositionTable.NO_ENTRY) {
+                targetIndex = index;
+                break;
+            }
+            
+            if ((getKey(index) ^ storedEntry) == key) {
+                if (TranspositionTable.getDepth(storedEntry) > depth) {
+                    return;
+                }
+                
+                targetIndex = index;
+                break;
+            }
+            
+            final int storedDepth = TranspositionTable.getDepth(storedEntry);
+            
+            if (targetDepth > storedDepth) {
+                targetDepth = storedDepth;
+                targetIndex = index;
+            }
+        }
+        
+        final long entry = TranspositionTable.pack(depth,
+                                                   score,
+                                                   bound,
+                                                   bestMove);
+        
+        final int offset = getOffset(targetIndex);
+        
+        LONGS.setOpaque(buffer, offset, key ^ entry);
+        LONGS.setOpaque(buffer, offset + Long.BYTES, entry);
+    }
+    
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        for (int index = 0; index < capacity; index++) {
+            final int offset = getOffset(index);
+            
+            LONGS.setOpaque(buffer, offset, 0L);
+            LONGS.setOpaque(buffer, offset + Long.BYTES, 0L);
+        }
+    }
+    
+    /**
+     * Writes the modified entries to the file. The entries are visible to
+     * the other processes mapping the file even without flushing; flushing
+     * only protects them against a crash of the operating system.
+     */
+    public void flush() {
+        buffer.force();
+    }
+    
+    /**
+     * Flushes and closes this table. The table must not be used afterwards.
+     * 
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            fileChannel.close();
+        }
+    }
+    
+    private long getKey(final int index) {
+        return (long) LONGS.getOpaque(buffer, getOffset(index));
+    }
+    
+    private long getEntry(final int index) {
+        return (long) LONGS.getOpaque(buffer, getOffset(index) + Long.BYTES);
+    }
+    
+    private int getIndex(final long key) {
+        return (int)(key ^ (key >>> 32)) & mask;
+    }
+    
+    private static int getOffset(final int index) {
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+    
+    private static long getFileSize(final int capacity) {
+        return HEADER_SIZE + (long) capacity * SLOT_SIZE;
+    }
+    
+    /**
+     * Writes the header of a new table file and grows it to its full size. 
+     * Both happen under the file lock, so another process never sees a table
+     * file shorter than its capacity.
+     * 
+     * @return the actual capacity.
+     */
+    private static int create(final FileChannel fileChannel,
+                              final int capacity,
+                              final long keyFingerprint) throws IOException {
+        
+        final int actualCapacity =
+                capacity == 1 ?
+                1 :
+                Integer.highestOneBit(capacity - 1) << 1;
+        
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        
+        header.putInt(MAGIC)
+              .putInt(FORMAT_VERSION)
+              .putLong(keyFingerprint)
+              .putInt(actualCapacity)
+              .clear();
+        
+        while (header.hasRemaining()) {
+            fileChannel.write(header, header.position());
+        }
+        
+        // Writing the last byte grows the file without filling the slots:
+        final ByteBuffer lastByte = ByteBuffer.allocate(1);
+        
+        while (lastByte.hasRemaining()) {
+            fileChannel.write(lastByte, getFileSize(actualCapacity) - 1L);
+        }
+        
+        return actualCapacity;
+    }
+    
+    /**
+     * Validates the header of an existing table file.
+     * 
+     * @return the capacity of the file.
+     */
+    private static int readCapacity(final FileChannel fileChannel,
+                                    final long keyFingerprint)
+            throws IOException {
+        
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        
+        while (header.hasRemaining()) {
+            if (fileChannel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException(
+                    "Not a transposition table file.");
+        }
+        
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException(
+                    "Unsupported transposition table version: " +
+                    header.getInt(4));
+        }
+        
+        if (header.getLong(8) != keyFingerprint) {
+            throw new IllegalArgumentException(
+                    "The transposition table was built with different keys.");
+        }
+        
+        final int capacity = header.getInt(16);
+        
+        if (capacity < 1
+                || capacity > MAXIMUM_CAPACITY
+                || Integer.bitCount(capacity) != 1
+                || fileChannel.size() != getFileSize(capacity)) {
+            
+            throw new IllegalArgumentException(
+                    "The transposition table file is corrupted.");
+        }
+        
+        return capacity;
+    }
+}
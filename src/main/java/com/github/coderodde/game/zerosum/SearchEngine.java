@@ -1,14 +1,21 @@
 package com.github.coderodde.game.zerosum;
 
+import java.time.Duration;
+
 /**
  *
  * @param <S> the game state type. 
  * 
- * @version 1.0.0 (Jun 5, 2024)
+ * @version 1.3.0 (Jul 16, 2024)
  * @since 1.0.0 (Jun 5, 2024)
  */
 public interface SearchEngine<S extends GameState<S>> {
     
+    /**
+     * The maximum depth the default iterative deepening goes to.
+     */
+    public static final int MAXIMUM_ITERATIVE_DEEPENING_DEPTH = 64;
+    
     /**
      * Runs the search for the next most move assuming its the turn of the 
      * maximizing player type.
@@ -34,4 +41,83 @@ public interface SearchEngine<S extends GameState<S>> {
     public S search(final S root, 
                     final int depth, 
                     final PlayerType playerType);
+    
+    /**
+     * Runs the time-bounded search for the next move assuming it is the turn 
+     * of the maximizing player type.
+     * 
+     * @param root       the root of the game tree.
+     * @param timeBudget the wall-clock time budget of the search.
+     * 
+     * @return the next move to perform.
+     */
+    public default S search(final S root, final Duration timeBudget) {
+        return search(root, timeBudget, PlayerType.MAXIMIZING_PLAYER);
+    }
+    
+    /**
+     * Computes the next move state for a particular player type by iterative
+     * deepening: searches to depth 1, 2, 3, and so on until the time budget 
+     * runs out, and returns the result of the last completed iteration.
+     * <p>
+     * This default implementation checks the clock only between the 
+     * iterations, so the last iteration may overrun the budget. Engines that 
+     * can abort a running iteration override this method.
+     * 
+     * @param root       the root node of the game search tree.
+     * @param timeBudget the wall-clock time budget of the search.
+     * @param playerType the type of the player: minimizing vs. maximizing.
+     * 
+     * @return the next move state.
+     */
+    public default S search(final S root, 
+                            final Duration timeBudget,
+                            final PlayerType playerType) {
+        
+        final long deadline = System.nanoTime() + timeBudget.toNanos();
+        S bestMoveState = null;
+        
+        for (int depth = 1; 
+                depth <= MAXIMUM_ITERATIVE_DEEPENING_DEPTH; 
+                depth++) {
+            
+            final S moveState = search(root, depth, playerType);
+            
+            if (moveState == null) {
+                // No moves at all:
+                break;
+            }
+            
+            bestMoveState = moveState;
+            
+            if (System.nanoTime() - deadline >= 0L) {
+                break;
+            }
+        }
+        
+        return bestMoveState;
+    }
+    
+    /**
+     * Asks the running time-bounded search to stop as soon as possible and to
+     * return the result of its last completed iteration. Engines that can 
+     * also abort a fixed-depth search make it return {@code null}. May be 
+     * called from any thread. Has no effect if no search is running, so a 
+     * caller racing with the start of a search must repeat the request until
+     * the search returns.
+     * <p>
+     * This default implementation does nothing: the search runs until its 
+     * time budget runs out.
+     */
+    public default void stop() {
+    
+    }
+    
+    /**
+     * Returns the statistics of the last search. The returned object is a 
+     * snapshot, not updated by the later searches.
+     * 
+     * @return the statistics of the last search.
+     */
+    public SearchStatistics getSearchStatistics();
 }
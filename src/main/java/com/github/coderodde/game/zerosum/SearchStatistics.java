@@ -0,0 +1,302 @@
+package com.github.coderodde.game.zerosum;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * This class collects the statistics of a search: the nodes visited per
+ * height, the leaf evaluations, the beta cutoffs by the index of the move
+ * causing them, the transposition table hits, and the aspiration window 
+ * searches at the root along with their re-searches. The height of a node is its
+ * distance in plies from the root; the root has height 0.
+ * <p>
+ * The counters are plain fields, so an instance must be updated by one thread
+ * at a time. Parallel engines keep an instance per thread and
+ * {@link #add(SearchStatistics) add} them up after the search.
+ * 
+ * @version 1.0.0 (Jul 6, 2024)
+ * @since 1.0.0 (Jul 6, 2024)
+ */
+public final class SearchStatistics {
+    
+    /**
+     * The greatest height counted separately. The nodes below are counted on
+     * this height.
+     */
+    public static final int MAXIMUM_HEIGHT =
+            SearchEngine.MAXIMUM_ITERATIVE_DEEPENING_DEPTH;
+    
+    /**
+     * The greatest move index counted separately. The cutoffs caused by the
+     * later moves are counted on this index.
+     */
+    public static final int MAXIMUM_MOVE_INDEX = 7;
+    
+    private final long[] nodeCounts = new long[MAXIMUM_HEIGHT + 1];
+    private final long[] cutoffCounts = new long[MAXIMUM_MOVE_INDEX + 1];
+    private long leafCount;
+    private long transpositionHitCount;
+    private long aspirationSearchCount;
+    private long aspirationResearchCount;
+    private long durationNanos;
+    
+    public SearchStatistics() {
+    
+    }
+    
+    public SearchStatistics(final SearchStatistics other) {
+        add(other);
+        this.durationNanos = other.durationNanos;
+    }
+    
+    /**
+     * Counts a visit to a node at height {@code height}.
+     * 
+     * @param height the height of the node.
+     */
+    public void countNode(final int height) {
+        nodeCounts[Math.min(height, MAXIMUM_HEIGHT)]++;
+    }
+    
+    /**
+     * Counts a leaf evaluation.
+     */
+    public void countLeaf() {
+        leafCount++;
+    }
+    
+    /**
+     * Counts a beta cutoff caused by the {@code moveIndex}th move searched at
+     * the node, counting from zero.
+     * 
+     * @param moveIndex the index of the move causing the cutoff.
+     */
+    public void countCutoff(final int moveIndex) {
+        cutoffCounts[Math.min(moveIndex, MAXIMUM_MOVE_INDEX)]++;
+    }
+    
+    /**
+     * Counts a transposition table probe that found an entry.
+     */
+    public void countTranspositionHit() {
+        transpositionHitCount++;
+    }
+    
+    /**
+     * Counts a root search started with an aspiration window.
+     */
+    public void countAspirationSearch() {
+        aspirationSearchCount++;
+    }
+    
+    /**
+     * Counts a root re-search after the result fell outside the aspiration 
+     * window.
+     */
+    public void countAspirationResearch() {
+        aspirationResearchCount++;
+    }
+    
+    /**
+     * Sets the wall-clock duration of the search.
+     * 
+     * @param durationNanos the duration in nanoseconds.
+     */
+    public void setDuration(final long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+    
+    /**
+     * Adds the counters of {@code other} to these counters. The duration is
+     * not added.
+     * 
+     * @param other the statistics to add.
+     */
+    public void add(final SearchStatistics other) {
+        for (int i = 0; i < nodeCounts.length; i++) {
+            nodeCounts[i] += other.nodeCounts[i];
+        }
+        
+        for (int i = 0; i < cutoffCounts.length; i++) {
+            cutoffCounts[i] += other.cutoffCounts[i];
+        }
+        
+        leafCount += other.leafCount;
+        transpositionHitCount += other.transpositionHitCount;
+        aspirationSearchCount += other.aspirationSearchCount;
+        aspirationResearchCount += other.aspirationResearchCount;
+    }
+    
+    /**
+     * Resets all the counters and the duration to zero.
+     */
+    public void clear() {
+        Arrays.fill(nodeCounts, 0L);
+        Arrays.fill(cutoffCounts, 0L);
+        leafCount = 0L;
+        transpositionHitCount = 0L;
+        aspirationSearchCount = 0L;
+        aspirationResearchCount = 0L;
+        durationNanos = 0L;
+    }
+    
+    /**
+     * Returns the total number of nodes visited, the root included.
+     * 
+     * @return the number of nodes.
+     */
+    public long getNodeCount() {
+        long nodeCount = 0L;
+        
+        for (final long count : nodeCounts) {
+            nodeCount += count;
+        }
+        
+        return nodeCount;
+    }
+    
+    /**
+     * Returns the number of nodes visited at height {@code height}.
+     * 
+     * @param height the height.
+     * @return the number of nodes at the height.
+     */
+    public long getNodeCount(final int height) {
+        return nodeCounts[height];
+    }
+    
+    /**
+     * Returns the greatest height with any nodes visited, or -1 if there are
+     * none.
+     * 
+     * @return the greatest height reached.
+     */
+    public int getMaximumHeight() {
+        for (int height = MAXIMUM_HEIGHT; height >= 0; height--) {
+            if (nodeCounts[height] != 0L) {
+                return height;
+            }
+        }
+        
+        return -1;
+    }
+    
+    public long getLeafCount() {
+        return leafCount;
+    }
+    
+    /**
+     * Returns the total number of beta cutoffs.
+     * 
+     * @return the number of beta cutoffs.
+     */
+    public long getCutoffCount() {
+        long cutoffCount = 0L;
+        
+        for (final long count : cutoffCounts) {
+            cutoffCount += count;
+        }
+        
+        return cutoffCount;
+    }
+    
+    /**
+     * Returns the number of beta cutoffs caused by the {@code moveIndex}th
+     * move searched. A good move ordering has most cutoffs at index 0.
+     * 
+     * @param moveIndex the move index.
+     * @return the number of beta cutoffs at the move index.
+     */
+    public long getCutoffCount(final int moveIndex) {
+        return cutoffCounts[moveIndex];
+    }
+    
+    public long getTranspositionHitCount() {
+        return transpositionHitCount;
+    }
+    
+    public long getAspirationSearchCount() {
+        return aspirationSearchCount;
+    }
+    
+    public long getAspirationResearchCount() {
+        return aspirationResearchCount;
+    }
+    
+    /**
+     * Returns the number of re-searches per aspiration window search.
+     * 
+     * @return the re-search rate, or 0 if there were no aspiration window
+     *         searches.
+     */
+    public double getAspirationResearchRate() {
+        return aspirationSearchCount == 0L ?
+               0.0 :
+               (double) aspirationResearchCount / aspirationSearchCount;
+    }
+    
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+    
+    /**
+     * Returns the number of nodes visited per second of the search.
+     * 
+     * @return the node rate.
+     */
+    public double getNodesPerSecond() {
+        return durationNanos == 0L ?
+               0.0 :
+               getNodeCount() * 1e9 / durationNanos;
+    }
+    
+    /**
+     * Returns the effective branching factor at height {@code height}: the
+     * number of nodes at the height divided by the number of nodes one ply
+     * closer to the root.
+     * 
+     * @param height the height, at least 1.
+     * @return the effective branching factor, or 0 if there were no nodes
+     *         above.
+     */
+    public double getEffectiveBranchingFactor(final int height) {
+        final long parentCount = nodeCounts[height - 1];
+        
+        return parentCount == 0L ?
+               0.0 :
+               (double) nodeCounts[height] / parentCount;
+    }
+    
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        
+        sb.append(String.format(
+                "nodes: %d, leaves: %d, nodes/s: %.0f, " +
+                "cutoffs: %d, transposition hits: %d, " +
+                "aspiration re-searches: %d/%d, duration: %d ms",
+                getNodeCount(),
+                leafCount,
+                getNodesPerSecond(),
+                getCutoffCount(),
+                transpositionHitCount,
+                aspirationResearchCount,
+                aspirationSearchCount,
+                durationNanos / 1_000_000L));
+        
+        sb.append("\ncutoffs by move index:");
+        
+        for (int i = 0; i <= MAXIMUM_MOVE_INDEX; i++) {
+            sb.append(' ').append(cutoffCounts[i]);
+        }
+        
+        sb.append("\neffective branching factor by height:");
+        
+        for (int height = 1; height <= getMaximumHeight(); height++) {
+            sb.append(String.format(" %.2f",
+                                    getEffectiveBranchingFactor(height)));
+        }
+        
+        return sb.toString();
+    }
+}
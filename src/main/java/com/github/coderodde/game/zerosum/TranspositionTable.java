@@ -0,0 +1,269 @@
+package com.github.coderodde.game.zerosum;
+
+/**
+ * This class implements a fixed-size transposition table mapping 64-bit
+ * position keys to the results of earlier searches. Each entry stores the
+ * score, whether the score is exact or a lower or an upper bound, the depth of
+ * the search that produced the score and the best move found.
+ * <p>
+ * Entries are packed into {@code long} values so that probing and storing do
+ * not allocate. Use the static accessors such as {@link #getScore(long)} for
+ * unpacking a probed entry.
+ * <p>
+ * The table may be shared by several search threads without locking. Each 
+ * slot stores the entry along with the position key XORed with the entry. A 
+ * slot torn by concurrent writes fails the key check on probing and is 
+ * reported as a miss.
+ * 
+ * @version 1.1.0 (Jun 22, 2024)
+ * @since 1.0.0 (Jun 20, 2024)
+ */
+public final class TranspositionTable {
+    
+    /**
+     * The bound type denoting that the stored score is exact.
+     */
+    public static final int EXACT = 0;
+    
+    /**
+     * The bound type denoting that the actual score is at least the stored
+     * score.
+     */
+    public static final int LOWER_BOUND = 1;
+    
+    /**
+     * The bound type denoting that the actual score is at most the stored
+     * score.
+     */
+    public static final int UPPER_BOUND = 2;
+    
+    /**
+     * The value returned by {@link #probe(long)} on a miss.
+     */
+    public static final long NO_ENTRY = 0L;
+    
+    /**
+     * The move value denoting that no best move is known.
+     */
+    public static final int NO_MOVE = -1;
+    
+    /**
+     * The default number of entries.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    
+    /**
+     * The largest supported capacity, the largest power of two that fits an
+     * {@code int}.
+     */
+    public static final int MAXIMUM_CAPACITY = 1 << 30;
+    
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT  = 42;
+    private static final long DEPTH_MASK = 0xffL;
+    private static final long BOUND_MASK = 0x3L;
+    private static final long MOVE_MASK  = 0xffL;
+    
+    /**
+     * Set in every stored entry so that a valid entry is never equal to
+     * {@link #NO_ENTRY}.
+     */
+    private static final long VALID_BIT = 1L << 63;
+    
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    
+    /**
+     * Constructs this transposition table with the default capacity.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructs this transposition table.
+     * 
+     * @param capacity the requested number of entries. Rounded up to the
+     *                 nearest power of two.
+     */
+    public TranspositionTable(final int capacity) {
+        if (capacity < 1 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "The capacity must be within [1, " + MAXIMUM_CAPACITY +
+                    "]: " + capacity);
+        }
+        
+        final int actualCapacity =
+                capacity == 1 ?
+                1 :
+                Integer.highestOneBit(capacity - 1) << 1;
+        
+        this.keys = new long[actualCapacity];
+        this.entries = new long[actualCapacity];
+        this.mask = actualCapacity - 1;
+    }
+    
+    /**
+     * Returns the number of entries in this table.
+     * 
+     * @return the capacity of this table.
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+    
+    /**
+     * Looks up the entry for the position with key {@code key}.
+     * 
+     * @param key the position key.
+     * 
+     * @return the packed entry, or {@link #NO_ENTRY} if not present.
+     */
+    public long probe(final long key) {
+        final int index = getIndex(key);
+        final long entry = entries[index];
+        
+        if ((keys[index] ^ entry) != key) {
+            return NO_ENTRY;
+        }
+        
+        return entry;
+    }
+    
+    /**
+     * Stores a search result. An entry of another position is always
+     * replaced, while an entry of the same position is replaced only by a
+     * result of at least the same depth.
+     * 
+     * @param key      the position key.
+     * @param depth    the search depth that produced {@code score}.
+     * @param score    the score.
+     * @param bound    the bound type of {@code score}.
+     * @param bestMove the best move, or {@link #NO_MOVE}.
+     */
+    public void store(final long key,
+                      final int depth,
+                      final int score,
+                      final int bound,
+                      final int bestMove) {
+        final int index = getIndex(key);
+        final long storedEntry = entries[index];
+        
+        if (storedEntry != NO_ENTRY &&
+                (keys[index] ^ storedEntry) == key &&
+                getDepth(storedEntry) > depth) {
+            return;
+        }
+        
+        final long entry = pack(depth, score, bound, bestMove);
+        
+        keys[index] = key ^ entry;
+        entries[index] = entry;
+    }
+    
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 0L;
+            entries[i] = NO_ENTRY;
+        }
+    }
+    
+    public static int getScore(final long entry) {
+        return (int) entry;
+    }
+    
+    public static int getDepth(final long entry) {
+        return (int)((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+    
+    public static int getBound(final long entry) {
+        return (int)((entry >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+    
+    public static int getBestMove(final long entry) {
+        return (int)((entry >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+    
+    /**
+     * Returns the bound type of the score {@code score} of a search with the
+     * window ({@code alpha}, {@code beta}).
+     * 
+     * @param score the score.
+     * @param alpha the lower end of the window.
+     * @param beta  the upper end of the window.
+     * 
+     * @return the bound type of {@code score}.
+     */
+    public static int getBoundType(final int score,
+                                   final int alpha,
+                                   final int beta) {
+        if (score <= alpha) {
+            return UPPER_BOUND;
+        }
+        
+        if (score >= beta) {
+            return LOWER_BOUND;
+        }
+        
+        return EXACT;
+    }
+    
+    /**
+     * Returns {@code true} if the probed entry {@code entry} settles the
+     * search of its position to the depth {@code depth} with the window 
+     * ({@code alpha}, {@code beta}). That is the case if the entry is at least
+     * as deep, and its score is exact or a bound outside of the window. The 
+     * score of the entry is then the result of the search.
+     * 
+     * @param entry the probed entry, or {@link #NO_ENTRY}.
+     * @param depth the remaining search depth.
+     * @param alpha the lower end of the window.
+     * @param beta  the upper end of the window.
+     * 
+     * @return {@code true} if the search may return the stored score.
+     */
+    public static boolean isCutoff(final long entry,
+                                   final int depth,
+                                   final int alpha,
+                                   final int beta) {
+        if (entry == NO_ENTRY || getDepth(entry) < depth) {
+            return false;
+        }
+        
+        final int score = getScore(entry);
+        
+        switch (getBound(entry)) {
+            case EXACT:
+                return true;
+            
+            case LOWER_BOUND:
+                return score >= beta;
+            
+            case UPPER_BOUND:
+                return score <= alpha;
+            
+            default:
+                return false;
+        }
+    }
+    
+    static long pack(final int depth,
+                     final int score,
+                     final int bound,
+                     final int bestMove) {
+        return VALID_BIT
+                | (score & 0xffffffffL)
+                | ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+                | ((bound & BOUND_MASK) << BOUND_SHIFT)
+                | (((bestMove + 1) & MOVE_MASK) << MOVE_SHIFT);
+    }
+    
+    private int getIndex(final long key) {
+        return (int)(key ^ (key >>> 32)) & mask;
+    }
+}
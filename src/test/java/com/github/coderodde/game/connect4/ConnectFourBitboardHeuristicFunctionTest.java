@@ -0,0 +1,49 @@
+package com.github.coderodde.game.connect4;
+
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class ConnectFourBitboardHeuristicFunctionTest {
+    
+    private final ConnectFourHeuristicFunction heuristicFunction = 
+            new ConnectFourHeuristicFunction();
+    
+    private final ConnectFourBitboardHeuristicFunction 
+            bitboardHeuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void emptyBoard() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        assertEquals(0, bitboardHeuristicFunction.evaluate(b, 0));
+    }
+    
+    @Test
+    public void matchesCellByCellEvaluation() {
+        final Random random = new Random(19L);
+        
+        for (int game = 0; game < 500; game++) {
+            ConnectFourBoard b = new ConnectFourBoard();
+            PlayerType playerType = PlayerType.MINIMIZING_PLAYER;
+            
+            while (!b.isTerminal()) {
+                final int x = random.nextInt(COLUMNS);
+                
+                if (!b.makePly(x, playerType)) {
+                    continue;
+                }
+                
+                final int depth = random.nextInt(10);
+                
+                assertEquals(heuristicFunction.evaluate(b, depth),
+                             bitboardHeuristicFunction.evaluate(b, depth));
+                
+                playerType = playerType.flip();
+            }
+        }
+    }
+}
@@ -4,8 +4,10 @@ import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
 import static com.github.coderodde.game.connect4.ConnectFourBoard.ROWS;
 import static com.github.coderodde.game.connect4.ConnectFourBoard.VICTORY_LENGTH;
 import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
 import java.awt.Point;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -178,6 +180,27 @@ public final class ConnectFourBoardTest {
         assertFalse(b.isTie());
     }
     
+    @Test
+    public void unmakePlyKeepsWinsOfSetBoards() {
+        // .......
+        // .......
+        // O......
+        // O......
+        // O......
+        // O..X...
+        ConnectFourBoard b = new ConnectFourBoard();
+        
+        for (int y = ROWS - 4; y < ROWS; y++) {
+            b.set(0, y, PlayerType.MAXIMIZING_PLAYER);
+        }
+        
+        b.set(3, ROWS - 1, PlayerType.MINIMIZING_PLAYER);
+        b.unmakePly(3);
+        
+        assertTrue(b.isWinningFor(PlayerType.MAXIMIZING_PLAYER));
+        assertTrue(b.isTerminal());
+    }
+    
     @Test
     public void testGetWinningPatternHorizontal() {
         // .......
@@ -477,4 +500,326 @@ public final class ConnectFourBoardTest {
         assertEquals(new Point(1, 1), winningPattern.get(4));
         assertEquals(new Point(0, 0), winningPattern.get(5));
     }
+    
+    @Test
+    public void makePlyOnFullColumn() {
+        ConnectFourBoard b = new ConnectFourBoard();
+        
+        for (int y = 0; y < ROWS; y++) {
+            assertTrue(b.makePly(6, PlayerType.MAXIMIZING_PLAYER));
+        }
+        
+        assertFalse(b.makePly(6, PlayerType.MINIMIZING_PLAYER));
+        assertEquals(COLUMNS - 1, b.expand(PlayerType.MINIMIZING_PLAYER)
+                                   .size());
+        
+        b.unmakePly(6);
+        
+        assertNull(b.get(6, 0));
+        assertTrue(b.makePly(6, PlayerType.MINIMIZING_PLAYER));
+        assertEquals(PlayerType.MINIMIZING_PLAYER, b.get(6, 0));
+    }
+    
+    @Test
+    public void setAndGet() {
+        ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.set(0, ROWS - 1, PlayerType.MAXIMIZING_PLAYER);
+        b.set(COLUMNS - 1, 0, PlayerType.MINIMIZING_PLAYER);
+        
+        assertEquals(PlayerType.MAXIMIZING_PLAYER, b.get(0, ROWS - 1));
+        assertEquals(PlayerType.MINIMIZING_PLAYER, b.get(COLUMNS - 1, 0));
+        assertNull(b.get(1, ROWS - 1));
+        
+        b.set(0, ROWS - 1, PlayerType.MINIMIZING_PLAYER);
+        
+        assertEquals(PlayerType.MINIMIZING_PLAYER, b.get(0, ROWS - 1));
+        
+        b.set(0, ROWS - 1, null);
+        
+        assertNull(b.get(0, ROWS - 1));
+        assertEquals(new ConnectFourBoard(b), b);
+    }
+    
+    @Test
+    public void terminalStatusFollowsMakeAndUnmake() {
+        ConnectFourBoard b = new ConnectFourBoard();
+        
+        for (int x = 0; x < 3; x++) {
+            b.makePly(x, PlayerType.MAXIMIZING_PLAYER);
+            b.makePly(x, PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        assertFalse(b.isTerminal());
+        assertEquals(2, b.getLastPlyColumn());
+        
+        b.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        
+        assertTrue(b.isTerminal());
+        assertTrue(b.isWinningFor(PlayerType.MAXIMIZING_PLAYER));
+        assertFalse(b.isWinningFor(PlayerType.MINIMIZING_PLAYER));
+        assertEquals(PlayerType.MAXIMIZING_PLAYER, b.getWinner());
+        
+        b.unmakePly(3);
+        
+        assertFalse(b.isTerminal());
+        assertNull(b.getWinner());
+        
+        b.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        
+        // Out of order, forces a rescan:
+        b.unmakePly(0);
+        
+        assertTrue(b.isWinningFor(PlayerType.MAXIMIZING_PLAYER));
+        assertEquals(-1, b.getLastPlyColumn());
+        
+        b.unmakePly(3);
+        
+        assertFalse(b.isTerminal());
+    }
+    
+    @Test
+    public void cachedStatusMatchesFullScan() {
+        final Random random = new Random(13L);
+        
+        for (int game = 0; game < 200; game++) {
+            ConnectFourBoard b = new ConnectFourBoard();
+            PlayerType playerType = PlayerType.MINIMIZING_PLAYER;
+            
+            while (!b.isTerminal()) {
+                final int x = random.nextInt(COLUMNS);
+                
+                if (!b.makePly(x, playerType)) {
+                    continue;
+                }
+                
+                for (final PlayerType p : PlayerType.values()) {
+                    assertEquals(
+                            ConnectFourBoard.hasStrike(b.getBitboard(p), 
+                                                       VICTORY_LENGTH),
+                            b.isWinningFor(p));
+                }
+                
+                playerType = playerType.flip();
+            }
+        }
+    }
+    
+    @Test
+    public void runningScoreMatchesFullEvaluation() {
+        final Random random = new Random(17L);
+        
+        for (int game = 0; game < 200; game++) {
+            ConnectFourBoard b = new ConnectFourBoard();
+            PlayerType playerType = PlayerType.MINIMIZING_PLAYER;
+            
+            b.setRunningScoreEnabled(true);
+            
+            while (!b.isTerminal()) {
+                final int x = random.nextInt(COLUMNS);
+                
+                if (!b.makePly(x, playerType)) {
+                    continue;
+                }
+                
+                assertEquals(ConnectFourHeuristicFunction.evaluateLines(b),
+                             b.getRunningScore());
+                
+                if (random.nextInt(4) == 0) {
+                    b.unmakePly(x);
+                    
+                    assertEquals(ConnectFourHeuristicFunction.evaluateLines(b),
+                                 b.getRunningScore());
+                    continue;
+                }
+                
+                playerType = playerType.flip();
+            }
+        }
+    }
+    
+    @Test
+    public void zobristKeyOfTransposedPositions() {
+        ConnectFourBoard b1 = new ConnectFourBoard();
+        ConnectFourBoard b2 = new ConnectFourBoard();
+        
+        b1.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        b1.makePly(4, PlayerType.MAXIMIZING_PLAYER);
+        b1.makePly(5, PlayerType.MINIMIZING_PLAYER);
+        
+        b2.makePly(5, PlayerType.MINIMIZING_PLAYER);
+        b2.makePly(4, PlayerType.MAXIMIZING_PLAYER);
+        b2.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        
+        assertEquals(b1.getZobristKey(), b2.getZobristKey());
+        assertNotEquals(
+                b1.getZobristKey(PlayerType.MAXIMIZING_PLAYER),
+                b1.getZobristKey(PlayerType.MINIMIZING_PLAYER));
+        
+        b2.unmakePly(3);
+        b2.set(3, ROWS - 1, PlayerType.MINIMIZING_PLAYER);
+        
+        assertEquals(b1.getZobristKey(), b2.getZobristKey());
+        
+        b2.unmakePly(5);
+        b2.unmakePly(4);
+        b2.unmakePly(3);
+        
+        assertEquals(new ConnectFourBoard().getZobristKey(), 
+                     b2.getZobristKey());
+    }
+    
+    @Test
+    public void canonicalZobristKeyOfMirroredPositions() {
+        final Random random = new Random(17L);
+        
+        for (int i = 0; i < 100; i++) {
+            final ConnectFourBoard b = new ConnectFourBoard();
+            final ConnectFourBoard mirror = new ConnectFourBoard();
+            PlayerType playerType = PlayerType.MINIMIZING_PLAYER;
+            
+            for (int ply = 0; ply < 10 && !b.isTerminal();) {
+                final int x = random.nextInt(COLUMNS);
+                
+                if (b.makePly(x, playerType)) {
+                    mirror.makePly(COLUMNS - 1 - x, playerType);
+                    playerType = playerType.flip();
+                    ply++;
+                }
+            }
+            
+            assertEquals(b.getMirroredZobristKey(playerType), 
+                         mirror.getZobristKey(playerType));
+            
+            assertEquals(b.getCanonicalZobristKey(playerType),
+                         mirror.getCanonicalZobristKey(playerType));
+            
+            assertEquals(
+                    ConnectFourBoard.mirrorBitboard(
+                            b.getBitboard(PlayerType.MAXIMIZING_PLAYER)),
+                    mirror.getBitboard(PlayerType.MAXIMIZING_PLAYER));
+            
+            if (b.getZobristKey(playerType) == 
+                    b.getMirroredZobristKey(playerType)) {
+                // A symmetric position is its own canonical orientation:
+                continue;
+            }
+            
+            for (int x = 0; x < COLUMNS; x++) {
+                // Both boards agree on the column in the canonical orientation:
+                assertEquals(b.getCanonicalColumn(x, playerType),
+                             mirror.getCanonicalColumn(COLUMNS - 1 - x, 
+                                                       playerType));
+            }
+        }
+        
+        assertEquals(TranspositionTable.NO_MOVE, 
+                     new ConnectFourBoard().getCanonicalColumn(
+                             TranspositionTable.NO_MOVE,
+                             PlayerType.MAXIMIZING_PLAYER));
+    }
+    
+    @Test
+    public void generateMovesSkipsFullColumns() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        final int[] moves = new int[b.getMaximumNumberOfMoves()];
+        
+        assertTrue(b.supportsMoves());
+        assertEquals(COLUMNS, b.generateMoves(PlayerType.MAXIMIZING_PLAYER, 
+                                              moves));
+        assertEquals(3, moves[0]);
+        
+        for (int y = 0; y < ROWS; y++) {
+            b.makeMove(3, PlayerType.MAXIMIZING_PLAYER);
+            b.makeMove(0, PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        final int numberOfMoves = 
+                b.generateMoves(PlayerType.MAXIMIZING_PLAYER, moves);
+        
+        assertEquals(COLUMNS - 2, numberOfMoves);
+        
+        for (int i = 0; i < numberOfMoves; i++) {
+            assertNotEquals(0, moves[i]);
+            assertNotEquals(3, moves[i]);
+        }
+        
+        b.unmakeMove(0);
+        
+        assertEquals(COLUMNS - 1, 
+                     b.generateMoves(PlayerType.MAXIMIZING_PLAYER, moves));
+    }
+    
+    @Test
+    public void candidateMovesWinBlockAndAvoidThreats() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        // Both players have three in a column, the player to move wins:
+        for (int y = ROWS - 1; y > ROWS - 4; y--) {
+            b.set(0, y, PlayerType.MAXIMIZING_PLAYER);
+            b.set(6, y, PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        assertEquals(ConnectFourBoard.getCellBit(0, ROWS - 4), 
+                     b.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER));
+        
+        // Without the own win, only the block remains:
+        b.set(0, ROWS - 3, null);
+        
+        assertEquals(ConnectFourBoard.getCellBit(6, ROWS - 4), 
+                     b.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER));
+        
+        // Never play right below the winning cell of the opponent:
+        final ConnectFourBoard c = new ConnectFourBoard();
+        
+        c.set(0, ROWS - 1, PlayerType.MINIMIZING_PLAYER);
+        c.set(1, ROWS - 1, PlayerType.MAXIMIZING_PLAYER);
+        c.set(2, ROWS - 1, PlayerType.MAXIMIZING_PLAYER);
+        
+        for (int x = 0; x < 3; x++) {
+            c.set(x, ROWS - 2, PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        assertEquals(ConnectFourBoard.getCellBit(3, ROWS - 2), 
+                     c.getWinningCells(PlayerType.MINIMIZING_PLAYER));
+        
+        final long candidateMoves = 
+                c.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER);
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            assertEquals(x != 3, 
+                         ConnectFourBoard.containsColumn(candidateMoves, x));
+        }
+        
+        // Two threats lose anyway. The blocks are still returned:
+        final ConnectFourBoard d = new ConnectFourBoard();
+        
+        for (int x = 1; x < 4; x++) {
+            d.set(x, ROWS - 1, PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        assertEquals(ConnectFourBoard.getCellBit(0, ROWS - 1) |
+                     ConnectFourBoard.getCellBit(4, ROWS - 1),
+                     d.getCandidateMoves(PlayerType.MAXIMIZING_PLAYER));
+        
+        assertEquals(0L, 
+                     ConnectFourBoard.getNonLosingMoves(
+                             d.getBitboard(PlayerType.MAXIMIZING_PLAYER),
+                             d.getOccupiedBitboard()));
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMakePlyRejectsColumnPastBoard() {
+        new ConnectFourBoard().makePly(COLUMNS, PlayerType.MAXIMIZING_PLAYER);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMakePlyRejectsNegativeColumn() {
+        new ConnectFourBoard().makePly(-1, PlayerType.MAXIMIZING_PLAYER);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUnmakePlyRejectsColumnPastBoard() {
+        new ConnectFourBoard().unmakePly(COLUMNS);
+    }
 }
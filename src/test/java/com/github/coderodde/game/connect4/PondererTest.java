@@ -0,0 +1,212 @@
+package com.github.coderodde.game.connect4;
+
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class PondererTest {
+    
+    private static final Duration TIME_BUDGET = Duration.ofMillis(50L);
+    
+    @Test
+    public void answersPonderedRepliesWithoutSearching() throws Exception {
+        final RecordingSearchEngine engine = new RecordingSearchEngine(false);
+        
+        try (final Ponderer ponderer =
+                new Ponderer(engine,
+                             TIME_BUDGET,
+                             PlayerType.MAXIMIZING_PLAYER)) {
+            
+            final ConnectFourBoard b = getPosition();
+            
+            ponderer.start(b);
+            
+            while (!ponderer.isPondered(3)) {
+                Thread.sleep(10L);
+            }
+            
+            b.makePly(3, PlayerType.MINIMIZING_PLAYER);
+            
+            final ConnectFourBoard moveState = ponderer.respond(b);
+            
+            assertEquals(1, b.getEmptyCellCount() -
+                            moveState.getEmptyCellCount());
+            assertTrue(b.getPlyColumn(moveState) >= 0);
+            
+            // Only the pondering thread searched the position:
+            assertEquals(1, engine.countSearches(b));
+        }
+    }
+    
+    @Test
+    public void pondersWithoutPrediction() throws Exception {
+        final ConnectFourBoard b = getPosition();
+        final RecordingSearchEngine engine = new RecordingSearchEngine(false, 
+                                                                       b);
+        
+        try (final Ponderer ponderer =
+                new Ponderer(engine,
+                             TIME_BUDGET,
+                             PlayerType.MAXIMIZING_PLAYER)) {
+            
+            // The prediction returns no move, so the replies are pondered
+            // center first:
+            ponderer.start(b);
+            
+            final long deadline = System.nanoTime() + 10_000_000_000L;
+            
+            while (!ponderer.isPondered(3) && System.nanoTime() < deadline) {
+                Thread.sleep(10L);
+            }
+            
+            assertTrue(ponderer.isPondered(3));
+        }
+    }
+    
+    @Test
+    public void searchesUnponderedReplies() throws Exception {
+        final RecordingSearchEngine engine = new RecordingSearchEngine(true);
+        
+        try (final Ponderer ponderer =
+                new Ponderer(engine,
+                             TIME_BUDGET,
+                             PlayerType.MAXIMIZING_PLAYER)) {
+            
+            final ConnectFourBoard b = getPosition();
+            
+            // Without pondering, the position is simply searched:
+            assertTrue(b.getPlyColumn(ponderer.respond(b)) >= 0);
+            assertEquals(1, engine.countSearches(b));
+            
+            // Respond while the reply of the opponent is being predicted. The
+            // prediction is stopped and the reply is searched from scratch:
+            ponderer.start(b);
+            engine.awaitBlockedSearch();
+            
+            assertEquals(b, engine.getSearchedPositions().get(1));
+            
+            b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+            
+            final ConnectFourBoard moveState = ponderer.respond(b);
+            
+            assertTrue(b.getPlyColumn(moveState) >= 0);
+            assertEquals(1, engine.countSearches(b));
+            assertFalse(ponderer.isPondered(0));
+        }
+    }
+    
+    private static ConnectFourBoard getPosition() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        b.makePly(2, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(4, PlayerType.MAXIMIZING_PLAYER);
+        return b;
+    }
+    
+    /**
+     * Records the positions of the time-bounded searches. If blocking, the
+     * searches of the pondering thread wait for a stop request instead of
+     * searching. The searches of the moveless position return no move.
+     */
+    private static final class RecordingSearchEngine
+            implements SearchEngine<ConnectFourBoard> {
+        
+        private final SearchEngine<ConnectFourBoard> searchEngine =
+                new ConnectFourNegamaxSearchEngine(
+                        new ConnectFourBitboardHeuristicFunction());
+        
+        private final List<ConnectFourBoard> searchedPositions =
+                new CopyOnWriteArrayList<>();
+        
+        private final CountDownLatch blockedSearch = new CountDownLatch(1);
+        private final boolean blocking;
+        private final CountDownLatch stopRequest = new CountDownLatch(1);
+        private final ConnectFourBoard movelessPosition;
+        
+        RecordingSearchEngine(final boolean blocking) {
+            this(blocking, null);
+        }
+        
+        RecordingSearchEngine(final boolean blocking,
+                              final ConnectFourBoard movelessPosition) {
+            this.blocking = blocking;
+            this.movelessPosition = movelessPosition;
+        }
+        
+        @Override
+        public ConnectFourBoard search(final ConnectFourBoard root,
+                                       final int depth,
+                                       final PlayerType playerType) {
+            
+            return searchEngine.search(root, depth, playerType);
+        }
+        
+        @Override
+        public ConnectFourBoard search(final ConnectFourBoard root,
+                                       final Duration timeBudget,
+                                       final PlayerType playerType) {
+            
+            searchedPositions.add(new ConnectFourBoard(root));
+            
+            if (root.equals(movelessPosition)) {
+                return null;
+            }
+            
+            if (blocking &&
+                    Thread.currentThread().getName().equals("ponderer")) {
+                
+                blockedSearch.countDown();
+                
+                try {
+                    stopRequest.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                
+                return null;
+            }
+            
+            return searchEngine.search(root, timeBudget, playerType);
+        }
+        
+        @Override
+        public void stop() {
+            stopRequest.countDown();
+            searchEngine.stop();
+        }
+        
+        @Override
+        public SearchStatistics getSearchStatistics() {
+            return searchEngine.getSearchStatistics();
+        }
+        
+        List<ConnectFourBoard> getSearchedPositions() {
+            return searchedPositions;
+        }
+        
+        int countSearches(final ConnectFourBoard position) {
+            int count = 0;
+            
+            for (final ConnectFourBoard searchedPosition : searchedPositions) {
+                if (searchedPosition.equals(position)) {
+                    count++;
+                }
+            }
+            
+            return count;
+        }
+        
+        void awaitBlockedSearch() throws InterruptedException {
+            blockedSearch.await();
+        }
+    }
+}
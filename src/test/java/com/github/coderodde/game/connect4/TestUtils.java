@@ -0,0 +1,165 @@
+package com.github.coderodde.game.connect4;
+
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import com.github.coderodde.game.connect4.io.Position;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Random;
+
+/**
+ * This class provides the reference minimax and the random boards shared by 
+ * the tests. Public, since the tests of several packages use it.
+ */
+public final class TestUtils {
+    
+    private static final ConnectFourHeuristicFunction HEURISTIC_FUNCTION = 
+            new ConnectFourHeuristicFunction();
+    
+    private TestUtils() {
+    
+    }
+    
+    /**
+     * Returns the minimax value of {@code board} over the candidate plies of
+     * {@link ConnectFourBoard#getCandidateMoves(PlayerType)}, which are the
+     * plies the Connect Four engines search.
+     *
+     * @param board      the board to evaluate. Restored before returning.
+     * @param depth      the search depth.
+     * @param playerType the player to move.
+     *
+     * @return the minimax value.
+     */
+    public static int minimax(final ConnectFourBoard board,
+                              final int depth,
+                              final PlayerType playerType) {
+        
+        return minimax(board, depth, playerType, true);
+    }
+    
+    /**
+     * Returns the minimax value of {@code board} over all the legal plies,
+     * which are the plies the generic engines search.
+     *
+     * @param board      the board to evaluate. Restored before returning.
+     * @param depth      the search depth.
+     * @param playerType the player to move.
+     *
+     * @return the minimax value.
+     */
+    public static int minimaxOverAllPlies(final ConnectFourBoard board,
+                                          final int depth,
+                                          final PlayerType playerType) {
+        
+        return minimax(board, depth, playerType, false);
+    }
+    
+    /**
+     * Plays {@code plies} random plies on an empty board, the minimizing
+     * player first. Stops early if the game ends.
+     *
+     * @param random the source of the plies.
+     * @param plies  the number of plies to play.
+     *
+     * @return the board reached.
+     */
+    public static ConnectFourBoard getRandomBoard(final Random random,
+                                                  final int plies) {
+        
+        return getRandomPosition(random, plies).getBoard();
+    }
+    
+    /**
+     * Returns the player to move on {@code board}, on which the minimizing 
+     * player made the first ply.
+     *
+     * @param board the board.
+     *
+     * @return the player to move.
+     */
+    public static PlayerType getPlayerToMove(final ConnectFourBoard board) {
+        return Long.bitCount(board.getOccupiedBitboard()) % 2 == 0 ?
+               PlayerType.MINIMIZING_PLAYER :
+               PlayerType.MAXIMIZING_PLAYER;
+    }
+    
+    /**
+     * Plays {@code plies} random plies on an empty board, the minimizing
+     * player first. Stops early if the game ends.
+     *
+     * @param random the source of the plies.
+     * @param plies  the number of plies to play.
+     *
+     * @return the position reached.
+     */
+    public static Position getRandomPosition(final Random random,
+                                             final int plies) {
+        
+        return getRandomPosition(random, plies, PlayerType.MINIMIZING_PLAYER);
+    }
+    
+    /**
+     * Plays {@code plies} random plies on an empty board, {@code firstPlayer}
+     * first. Stops early if the game ends.
+     *
+     * @param random      the source of the plies.
+     * @param plies       the number of plies to play.
+     * @param firstPlayer the player making the first ply.
+     *
+     * @return the position reached.
+     */
+    public static Position getRandomPosition(final Random random,
+                                             final int plies,
+                                             final PlayerType firstPlayer) {
+        
+        final ConnectFourBoard b = new ConnectFourBoard();
+        PlayerType playerType = firstPlayer;
+        
+        for (int ply = 0; ply < plies && !b.isTerminal();) {
+            if (b.makePly(random.nextInt(COLUMNS), playerType)) {
+                playerType = playerType.flip();
+                ply++;
+            }
+        }
+        
+        return new Position(b, playerType);
+    }
+    
+    private static int minimax(final ConnectFourBoard board,
+                               final int depth,
+                               final PlayerType playerType,
+                               final boolean candidatePliesOnly) {
+        
+        if (depth == 0 || board.isTerminal()) {
+            return HEURISTIC_FUNCTION.evaluate(board, depth);
+        }
+        
+        int value = playerType == PlayerType.MAXIMIZING_PLAYER ?
+                    Integer.MIN_VALUE :
+                    Integer.MAX_VALUE;
+        
+        final long candidateMoves = board.getCandidateMoves(playerType);
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            if (candidatePliesOnly &&
+                    !ConnectFourBoard.containsColumn(candidateMoves, x)) {
+                continue;
+            }
+            
+            if (!board.makePly(x, playerType)) {
+                continue;
+            }
+            
+            final int score = minimax(board,
+                                      depth - 1,
+                                      playerType.flip(),
+                                      candidatePliesOnly);
+            board.unmakePly(x);
+            
+            value = playerType == PlayerType.MAXIMIZING_PLAYER ?
+                    Math.max(value, score) :
+                    Math.min(value, score);
+        }
+        
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.coderodde.game.connect4.batch;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class BatchAnalyzerTest {
+    
+    private static final int DEPTH = 6;
+    
+    private final ConnectFourBitboardHeuristicFunction heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void analyzesEveryTaskOnce() {
+        final Random random = new Random(37L);
+        final List<AnalysisTask> tasks = new ArrayList<>();
+        
+        while (tasks.size() < 40) {
+            final ConnectFourBoard b = getRandomBoard(random, 8);
+            final PlayerType playerType = getPlayerToMove(b);
+            
+            if (!b.isTerminal()) {
+                tasks.add(AnalysisTask.withDepth(b, playerType, DEPTH));
+            }
+        }
+        
+        tasks.add(AnalysisTask.withTimeBudget(new ConnectFourBoard(), 
+                                              PlayerType.MINIMIZING_PLAYER,
+                                              Duration.ofMillis(50)));
+        
+        try (final BatchAnalyzer analyzer = 
+                new BatchAnalyzer(heuristicFunction, 2)) {
+            
+            final List<AnalysisResult> results = 
+                    analyzer.analyze(tasks).collect(Collectors.toList());
+            
+            assertEquals(tasks.size(), results.size());
+            
+            final Set<Integer> indices = new HashSet<>();
+            
+            for (final AnalysisResult result : results) {
+                assertTrue(indices.add(result.getIndex()));
+                assertSame(tasks.get(result.getIndex()), result.getTask());
+                assertNotNull(result.getBestMoveState());
+                assertTrue(isChild(result.getTask(), 
+                                   result.getBestMoveState()));
+            }
+        }
+    }
+    
+    @Test
+    public void emptyBatch() {
+        try (final BatchAnalyzer analyzer = 
+                new BatchAnalyzer(heuristicFunction, 1)) {
+            
+            assertEquals(0L, analyzer.analyze(List.of()).count());
+        }
+    }
+    
+    @Test(timeout = 10_000L)
+    public void closeStopsTheRunningSearches() throws InterruptedException {
+        final List<AnalysisTask> tasks = new ArrayList<>();
+        
+        for (int i = 0; i < 4; i++) {
+            tasks.add(AnalysisTask.withDepth(new ConnectFourBoard(), 
+                                             PlayerType.MAXIMIZING_PLAYER,
+                                             20));
+        }
+        
+        final BatchAnalyzer analyzer = new BatchAnalyzer(heuristicFunction, 2);
+        final Iterator<AnalysisResult> results = 
+                analyzer.analyze(tasks).iterator();
+        
+        Thread.sleep(100L);
+        analyzer.close();
+        
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                results.next();
+                fail("A search to the depth of 20 completed.");
+            } catch (final CompletionException ex) {
+                // Expected.
+            }
+        }
+    }
+    
+    @Test(timeout = 10_000L)
+    public void analyzeAfterCloseFailsEveryTask() {
+        final BatchAnalyzer analyzer = new BatchAnalyzer(heuristicFunction, 1);
+        
+        analyzer.close();
+        
+        final Iterator<AnalysisResult> results = 
+                analyzer.analyze(
+                        List.of(AnalysisTask.withDepth(
+                                        new ConnectFourBoard(),
+                                        PlayerType.MAXIMIZING_PLAYER, 
+                                        DEPTH)))
+                        .iterator();
+        
+        try {
+            results.next();
+            fail("A task ran after closing.");
+        } catch (final CompletionException ex) {
+            // Expected.
+        }
+    }
+    
+    private static boolean isChild(final AnalysisTask task, 
+                                   final ConnectFourBoard state) {
+        for (int x = 0; x < COLUMNS; x++) {
+            final ConnectFourBoard child = 
+                    new ConnectFourBoard(task.getRoot());
+            
+            if (child.makePly(x, task.getPlayerType()) && child.equals(state)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
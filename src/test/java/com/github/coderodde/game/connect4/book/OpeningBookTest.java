@@ -0,0 +1,123 @@
+package com.github.coderodde.game.connect4.book;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.connect4.impl.ConnectFourNegamaxSearchEngine;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class OpeningBookTest {
+    
+    private static final int MAXIMUM_PLIES = 2;
+    private static final int SEARCH_DEPTH = 4;
+    
+    private Path bookPath;
+    
+    @Before
+    public void before() throws Exception {
+        bookPath = Files.createTempFile("connect4", ".book");
+    }
+    
+    @After
+    public void after() throws Exception {
+        Files.deleteIfExists(bookPath);
+    }
+    
+    @Test
+    public void buildAndProbe() throws Exception {
+        final int numberOfEntries = 
+                new OpeningBookBuilder(MAXIMUM_PLIES,
+                                       SEARCH_DEPTH,
+                                       2,
+                                       PlayerType.MINIMIZING_PLAYER)
+                        .build(bookPath);
+        
+        // 1 + 7 + 49 positions, none of them terminal. Mirror images share
+        // an entry, which leaves 1 + 4 + 25:
+        assertEquals(30, numberOfEntries);
+        
+        try (final OpeningBook book = OpeningBook.open(bookPath)) {
+            assertEquals(30L, book.size());
+            assertEquals(MAXIMUM_PLIES, book.getMaximumPlies());
+            assertEquals(SEARCH_DEPTH, book.getSearchDepth());
+            
+            final ConnectFourBoard board = new ConnectFourBoard();
+            
+            assertNotEquals(
+                    OpeningBook.NO_ENTRY,
+                    book.probe(board, PlayerType.MINIMIZING_PLAYER));
+            
+            // The wrong player to move:
+            assertEquals(OpeningBook.NO_ENTRY,
+                         book.probe(board, PlayerType.MAXIMIZING_PLAYER));
+            
+            for (int x1 = 0; x1 < ConnectFourBoard.COLUMNS; x1++) {
+                board.makePly(x1, PlayerType.MINIMIZING_PLAYER);
+                
+                for (int x2 = 0; x2 < ConnectFourBoard.COLUMNS; x2++) {
+                    board.makePly(x2, PlayerType.MAXIMIZING_PLAYER);
+                    
+                    final long entry = 
+                            book.probe(board, PlayerType.MINIMIZING_PLAYER);
+                    
+                    assertNotEquals(OpeningBook.NO_ENTRY, entry);
+                    
+                    final int bestMove = OpeningBook.getBestMove(entry);
+                    
+                    assertTrue(0 <= bestMove && 
+                               bestMove < ConnectFourBoard.COLUMNS);
+                    
+                    board.unmakePly(x2);
+                }
+                
+                board.unmakePly(x1);
+            }
+            
+            // A position beyond the book:
+            board.makePly(3, PlayerType.MINIMIZING_PLAYER);
+            board.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+            board.makePly(3, PlayerType.MINIMIZING_PLAYER);
+            
+            assertEquals(OpeningBook.NO_ENTRY,
+                         book.probe(board, PlayerType.MAXIMIZING_PLAYER));
+        }
+    }
+    
+    @Test
+    public void searchEngineAnswersFromBook() throws Exception {
+        new OpeningBookBuilder(MAXIMUM_PLIES, 
+                               SEARCH_DEPTH,
+                               1,
+                               PlayerType.MINIMIZING_PLAYER).build(bookPath);
+        
+        try (final OpeningBook book = OpeningBook.open(bookPath)) {
+            final OpeningBookSearchEngine engine = 
+                    new OpeningBookSearchEngine(
+                            new ConnectFourNegamaxSearchEngine(
+                                    new ConnectFourBitboardHeuristicFunction()),
+                            book);
+            
+            final ConnectFourBoard board = new ConnectFourBoard();
+            
+            board.makePly(2, PlayerType.MINIMIZING_PLAYER);
+            
+            final long entry = book.probe(board, PlayerType.MAXIMIZING_PLAYER);
+            final ConnectFourBoard moveState = 
+                    engine.search(board, 8, PlayerType.MAXIMIZING_PLAYER);
+            
+            assertEquals(OpeningBook.getBestMove(entry), 
+                         board.getPlyColumn(moveState));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherFiles() throws Exception {
+        Files.write(bookPath, new byte[64]);
+        OpeningBook.open(bookPath);
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import static com.github.coderodde.game.connect4.TestUtils.minimax;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.time.Duration;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class ConnectFourMTDFSearchEngineTest {
+    
+    private static final int DEPTH = 6;
+    
+    private final ConnectFourBitboardHeuristicFunction heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void findsOptimalMoves() {
+        final Random random = new Random(19L);
+        final ConnectFourMTDFSearchEngine engine = 
+                new ConnectFourMTDFSearchEngine(heuristicFunction);
+        
+        for (int i = 0; i < 10; i++) {
+            final ConnectFourBoard b = getRandomBoard(random, 6);
+            final PlayerType playerType = getPlayerToMove(b);
+            
+            if (b.isTerminal()) {
+                continue;
+            }
+            
+            final ConnectFourBoard moveState = 
+                    engine.search(b, DEPTH, playerType);
+            
+            assertEquals(minimax(b, DEPTH, playerType),
+                         minimax(moveState, DEPTH - 1, playerType.flip()));
+        }
+    }
+    
+    @Test
+    public void timeBoundedSearchReturnsMove() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourBoard moveState = 
+                new ConnectFourMTDFSearchEngine(heuristicFunction)
+                        .search(b, 
+                                Duration.ofMillis(50L), 
+                                PlayerType.MAXIMIZING_PLAYER);
+        
+        // The first ply and the reply:
+        assertEquals(ConnectFourBoard.ROWS * COLUMNS - 2, 
+                     moveState.getEmptyCellCount());
+    }
+}
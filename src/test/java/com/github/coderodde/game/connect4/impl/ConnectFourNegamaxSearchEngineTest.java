@@ -0,0 +1,163 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.ROWS;
+import com.github.coderodde.game.connect4.ConnectFourIncrementalHeuristicFunction;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import static com.github.coderodde.game.connect4.TestUtils.minimax;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class ConnectFourNegamaxSearchEngineTest {
+    
+    private static final int DEPTH = 6;
+    
+    private final ConnectFourBitboardHeuristicFunction heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void aspirationWindowsFindOptimalMoves() {
+        final Random random = new Random(13L);
+        long aspirationSearchCount = 0L;
+        long aspirationResearchCount = 0L;
+        
+        for (int i = 0; i < 10; i++) {
+            final ConnectFourBoard b = getRandomBoard(random, 6);
+            final PlayerType playerType = getPlayerToMove(b);
+            
+            if (b.isTerminal()) {
+                continue;
+            }
+            
+            final int expected = minimax(b, DEPTH, playerType);
+            
+            // A narrow window makes the re-searches frequent:
+            final List<SearchEngine<ConnectFourBoard>> engines = 
+                    List.of(new ConnectFourNegamaxSearchEngine(
+                                    heuristicFunction,
+                                    new TranspositionTable(),
+                                    1),
+                            new ConnectFourPrincipalVariationSearchEngine(
+                                    heuristicFunction,
+                                    new TranspositionTable(),
+                                    1));
+            
+            for (final SearchEngine<ConnectFourBoard> engine : engines) {
+                for (int depth = 1; depth < DEPTH; depth++) {
+                    engine.search(b, depth, playerType);
+                }
+                
+                final ConnectFourBoard moveState = 
+                        engine.search(b, DEPTH, playerType);
+                
+                final SearchStatistics statistics = 
+                        engine.getSearchStatistics();
+                
+                assertEquals(expected, 
+                             minimax(moveState, DEPTH - 1, playerType.flip()));
+                
+                aspirationSearchCount += statistics.getAspirationSearchCount();
+                aspirationResearchCount += 
+                        statistics.getAspirationResearchCount();
+            }
+        }
+        
+        assertTrue(aspirationSearchCount > 0L);
+        assertTrue(aspirationResearchCount > 0L);
+    }
+    
+    @Test
+    public void stopEndsTimeBoundedSearch() throws Exception {
+        final ConnectFourNegamaxSearchEngine engine = 
+                new ConnectFourNegamaxSearchEngine(heuristicFunction);
+        
+        final CompletableFuture<ConnectFourBoard> future = 
+                CompletableFuture.supplyAsync(
+                        () -> engine.search(new ConnectFourBoard(), 
+                                            Duration.ofHours(1L), 
+                                            PlayerType.MAXIMIZING_PLAYER));
+        
+        Thread.sleep(100L);
+        
+        // The request is lost if the search has not started yet:
+        while (!future.isDone()) {
+            engine.stop();
+            Thread.sleep(10L);
+        }
+        
+        final ConnectFourBoard moveState = future.get(1L, TimeUnit.SECONDS);
+        
+        assertEquals(ROWS * COLUMNS - 1, moveState.getEmptyCellCount());
+        
+        // The value is that of the last completed iteration, not of the 
+        // aborted one:
+        final int depth = engine.getCompletedDepth();
+        final ConnectFourNegamaxSearchEngine fixedDepthEngine = 
+                new ConnectFourNegamaxSearchEngine(heuristicFunction);
+        
+        assertTrue(depth > 0);
+        
+        fixedDepthEngine.search(new ConnectFourBoard(), 
+                                depth, 
+                                PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(depth, fixedDepthEngine.getCompletedDepth());
+        assertEquals(fixedDepthEngine.getRootValue(), engine.getRootValue());
+    }
+    
+    @Test
+    public void stopEndsFixedDepthSearchWithoutMove() throws Exception {
+        final ConnectFourNegamaxSearchEngine engine = 
+                new ConnectFourNegamaxSearchEngine(heuristicFunction);
+        
+        final CompletableFuture<ConnectFourBoard> future = 
+                CompletableFuture.supplyAsync(
+                        () -> engine.search(new ConnectFourBoard(), 
+                                            20, 
+                                            PlayerType.MAXIMIZING_PLAYER));
+        
+        Thread.sleep(100L);
+        
+        while (!future.isDone()) {
+            engine.stop();
+            Thread.sleep(10L);
+        }
+        
+        assertNull(future.get(1L, TimeUnit.SECONDS));
+        assertEquals(0, engine.getCompletedDepth());
+    }
+    
+    @Test
+    public void incrementalSearchLeavesRootIntact() {
+        final ConnectFourBoard root = new ConnectFourBoard();
+        
+        root.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourBoard moveState = 
+                new ConnectFourNegamaxSearchEngine(
+                        new ConnectFourIncrementalHeuristicFunction())
+                        .search(root, DEPTH, PlayerType.MAXIMIZING_PLAYER);
+        
+        assertNotNull(moveState);
+        assertFalse(root.isRunningScoreEnabled());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeAspirationWindowWidth() {
+        new ConnectFourNegamaxSearchEngine(heuristicFunction, 
+                                           new TranspositionTable(), 
+                                           -1);
+    }
+}
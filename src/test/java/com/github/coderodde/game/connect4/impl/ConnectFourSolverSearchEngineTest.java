@@ -0,0 +1,219 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.ROWS;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import com.github.coderodde.game.zerosum.PersistentTranspositionTable;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class ConnectFourSolverSearchEngineTest {
+    
+    private static final int SIZE = COLUMNS * ROWS;
+    
+    private final ConnectFourSolverSearchEngine solver = 
+            new ConnectFourSolverSearchEngine(new TranspositionTable(1 << 16),
+                                              false);
+    
+    private final ConnectFourSolverSearchEngine weakSolver = 
+            new ConnectFourSolverSearchEngine(new TranspositionTable(1 << 16),
+                                              true);
+    
+    @Test
+    public void immediateWin() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(1, PlayerType.MAXIMIZING_PLAYER);
+        b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(1, PlayerType.MAXIMIZING_PLAYER);
+        b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(1, PlayerType.MAXIMIZING_PLAYER);
+        
+        final ConnectFourSolution solution = 
+                solver.solve(b, PlayerType.MINIMIZING_PLAYER);
+        
+        assertEquals(ConnectFourSolution.Outcome.WIN, solution.getOutcome());
+        assertEquals(1, solution.getDistance());
+        assertEquals((SIZE + 1 - 6) / 2, solution.getScore());
+        
+        final ConnectFourBoard moveState = 
+                solver.search(b, 0, PlayerType.MINIMIZING_PLAYER);
+        
+        assertEquals(0, b.getPlyColumn(moveState));
+        assertTrue(moveState.isWinningFor(PlayerType.MINIMIZING_PLAYER));
+    }
+    
+    @Test
+    public void lossAgainstDoubleThreat() {
+        // The minimizing player has an open three in the bottom row:
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(2, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(2, PlayerType.MAXIMIZING_PLAYER);
+        b.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        b.makePly(4, PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourSolution solution = 
+                solver.solve(b, PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(ConnectFourSolution.Outcome.LOSS, solution.getOutcome());
+        assertEquals(2, solution.getDistance());
+        
+        assertEquals(ConnectFourSolution.Outcome.LOSS,
+                     weakSolver.solve(b, PlayerType.MAXIMIZING_PLAYER)
+                               .getOutcome());
+    }
+    
+    @Test
+    public void terminalPosition() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        for (int i = 0; i < 3; i++) {
+            b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+            b.makePly(1, PlayerType.MAXIMIZING_PLAYER);
+        }
+        
+        b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourSolution solution = 
+                solver.solve(b, PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(ConnectFourSolution.Outcome.LOSS, solution.getOutcome());
+        assertEquals(0, solution.getDistance());
+        assertNull(solver.search(b, 0, PlayerType.MAXIMIZING_PLAYER));
+    }
+    
+    @Test
+    public void matchesExhaustiveSearch() {
+        final Random random = new Random(23L);
+        int solvedPositions = 0;
+        
+        while (solvedPositions < 30) {
+            final int plies = 30 + random.nextInt(5);
+            final ConnectFourBoard b = getRandomBoard(random, plies);
+            final PlayerType playerType = getPlayerToMove(b);
+            
+            if (b.isTerminal()) {
+                continue;
+            }
+            
+            final int expectedScore = exhaustiveScore(b, playerType);
+            final ConnectFourSolution solution = solver.solve(b, playerType);
+            final ConnectFourSolution weakSolution = 
+                    weakSolver.solve(b, playerType);
+            
+            assertEquals(expectedScore, solution.getScore());
+            assertEquals(Integer.signum(expectedScore), 
+                         weakSolution.getScore());
+            assertEquals(solution.getOutcome(), weakSolution.getOutcome());
+            
+            // The chosen ply must keep the value of the position:
+            final ConnectFourBoard moveState = 
+                    solver.search(b, 0, playerType);
+            
+            if (!moveState.isWinningFor(playerType)) {
+                assertEquals(
+                        -expectedScore, 
+                        exhaustiveScore(moveState, playerType.flip()));
+            }
+            
+            solvedPositions++;
+        }
+    }
+    
+    @Test
+    public void persistsProvenValues() throws Exception {
+        final Path path = Files.createTempFile("connect4", ".table");
+        final Random random = new Random(29L);
+        ConnectFourBoard b;
+        
+        do {
+            b = getRandomBoard(random, 26);
+        } while (b.isTerminal());
+        
+        final PlayerType playerType = getPlayerToMove(b);
+        
+        Files.delete(path);
+        
+        try {
+            final int score;
+            
+            try (final PersistentTranspositionTable persistentTable =
+                    ConnectFourSolverSearchEngine.openPersistentTable(
+                            path,
+                            1 << 10)) {
+                
+                score = new ConnectFourSolverSearchEngine(
+                        new TranspositionTable(1 << 16),
+                        persistentTable,
+                        false).solve(b, playerType).getScore();
+            }
+            
+            try (final PersistentTranspositionTable persistentTable =
+                    ConnectFourSolverSearchEngine.openPersistentTable(
+                            path,
+                            1 << 10)) {
+                
+                // Both modes answer from the table without searching:
+                for (final boolean weak : new boolean[]{ false, true }) {
+                    final ConnectFourSolverSearchEngine persistentSolver = 
+                            new ConnectFourSolverSearchEngine(
+                                    new TranspositionTable(1 << 16),
+                                    persistentTable,
+                                    weak);
+                    
+                    assertEquals(weak ? Integer.signum(score) : score, 
+                                 persistentSolver.solve(b, playerType)
+                                                 .getScore());
+                    
+                    assertEquals(0L, persistentSolver.getNodeCount());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    /**
+     * Computes the score of the solver by the plain minimax over the entire
+     * remaining game tree.
+     */
+    private static int exhaustiveScore(final ConnectFourBoard b,
+                                       final PlayerType playerType) {
+        
+        final int moves = SIZE - b.getEmptyCellCount();
+        
+        if (b.isTie()) {
+            return 0;
+        }
+        
+        int bestScore = Integer.MIN_VALUE;
+        
+        for (int x = 0; x < COLUMNS; x++) {
+            if (!b.makePly(x, playerType)) {
+                continue;
+            }
+            
+            final int score = 
+                    b.isWinningFor(playerType) ?
+                    (SIZE + 1 - moves) / 2 :
+                    b.isTie() ? 
+                    0 :
+                    -exhaustiveScore(b, playerType.flip());
+            
+            b.unmakePly(x);
+            bestScore = Math.max(bestScore, score);
+        }
+        
+        return bestScore;
+    }
+}
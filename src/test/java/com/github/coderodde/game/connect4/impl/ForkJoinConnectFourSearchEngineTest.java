@@ -0,0 +1,117 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import static com.github.coderodde.game.connect4.TestUtils.minimax;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class ForkJoinConnectFourSearchEngineTest {
+    
+    private static final int DEPTH = 7;
+    
+    private final ConnectFourBitboardHeuristicFunction heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void agreesWithSequentialNegamax() {
+        final Random random = new Random(29L);
+        
+        try (final ForkJoinConnectFourSearchEngine engine = 
+                new ForkJoinConnectFourSearchEngine(heuristicFunction, 2)) {
+            
+            for (int i = 0; i < 10; i++) {
+                final ConnectFourBoard b = getRandomBoard(random, 6);
+                final PlayerType playerType = getPlayerToMove(b);
+                
+                if (b.isTerminal()) {
+                    continue;
+                }
+                
+                final ConnectFourBoard expected = 
+                        new ConnectFourNegamaxSearchEngine(heuristicFunction)
+                                .search(b, DEPTH, playerType);
+                
+                final ConnectFourBoard actual = 
+                        new ForkJoinConnectFourSearchEngine(
+                                heuristicFunction, 
+                                engine.getPool(), 
+                                ForkJoinConnectFourSearchEngine
+                                        .DEFAULT_SPLIT_HEIGHT)
+                                .search(b, DEPTH, playerType);
+                
+                // The siblings finish in any order, so the ties between
+                // the root plies may break either way:
+                assertEquals(minimax(expected, DEPTH - 1, playerType.flip()),
+                             minimax(actual, DEPTH - 1, playerType.flip()));
+                
+                // Repeated searches on the same engine reuse the pool:
+                assertNotNull(engine.search(b, DEPTH, playerType));
+            }
+        }
+    }
+    
+    @Test
+    public void noTaskOutlivesTheSearch() throws Exception {
+        final AtomicBoolean searching = new AtomicBoolean();
+        final AtomicLong lateEvaluations = new AtomicLong();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try {
+            // The slow leaves keep the cut off siblings busy for a while:
+            final ForkJoinConnectFourSearchEngine engine = 
+                    new ForkJoinConnectFourSearchEngine(
+                            (state, depth) -> {
+                                if (!searching.get()) {
+                                    lateEvaluations.incrementAndGet();
+                                }
+                                
+                                LockSupport.parkNanos(20_000L);
+                                return heuristicFunction.evaluate(state, 
+                                                                  depth);
+                            },
+                            pool,
+                            3);
+            
+            final Random random = new Random(31L);
+            
+            for (int i = 0; i < 10; i++) {
+                final ConnectFourBoard b = getRandomBoard(random, 6);
+                
+                if (b.isTerminal()) {
+                    continue;
+                }
+                
+                searching.set(true);
+                engine.search(b, DEPTH, getPlayerToMove(b));
+                searching.set(false);
+                
+                // A sibling still running after a cutoff would keep 
+                // evaluating leaves after the search returned:
+                pool.awaitQuiescence(1L, TimeUnit.SECONDS);
+                assertEquals(0L, lateEvaluations.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test(expected = RejectedExecutionException.class)
+    public void cannotSearchAfterClose() {
+        final ForkJoinConnectFourSearchEngine engine = 
+                new ForkJoinConnectFourSearchEngine(heuristicFunction, 1);
+        
+        engine.close();
+        engine.search(new ConnectFourBoard(), DEPTH);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class MoveOrderingTest {
+    
+    private static final int[] PLIES = ConnectFourBoard.getColumnOrder();
+    
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    
+    @Test
+    public void defaultOrderIsCenterFirst() {
+        assertArrayEquals(PLIES, 
+                          moveOrdering.getPlyOrder(
+                                  0, 
+                                  TranspositionTable.NO_MOVE,
+                                  PlayerType.MAXIMIZING_PLAYER));
+    }
+    
+    @Test
+    public void columnOrderCannotBeModified() {
+        ConnectFourBoard.getColumnOrder()[0] = 0;
+        
+        assertArrayEquals(PLIES, 
+                          ConnectFourBoard.getColumnOrder());
+        assertEquals(3, PLIES[0]);
+    }
+    
+    @Test
+    public void cutoffMoveIsOrderedFirstAtItsHeight() {
+        moveOrdering.recordCutoff(3, 0, PlayerType.MAXIMIZING_PLAYER, 2);
+        
+        assertEquals(0, 
+                     moveOrdering.getPlyOrder(
+                             3, 
+                             TranspositionTable.NO_MOVE, 
+                             PlayerType.MAXIMIZING_PLAYER)[0]);
+        
+        // The ply of the transposition table still goes first:
+        final int[] plyOrder = 
+                moveOrdering.getPlyOrder(3, 
+                                         6,
+                                         PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(6, plyOrder[0]);
+        assertEquals(0, plyOrder[1]);
+        
+        // Neither the other heights nor the other player are affected:
+        assertArrayEquals(PLIES, 
+                          moveOrdering.getPlyOrder(
+                                  4, 
+                                  TranspositionTable.NO_MOVE,
+                                  PlayerType.MINIMIZING_PLAYER));
+    }
+    
+    @Test
+    public void ageDecaysHistory() {
+        moveOrdering.recordCutoff(3, 0, PlayerType.MAXIMIZING_PLAYER, 2);
+        moveOrdering.recordCutoff(3, 6, PlayerType.MAXIMIZING_PLAYER, 1);
+        
+        // No killers at height 5, so the history scores decide:
+        int[] plyOrder = 
+                moveOrdering.getPlyOrder(5, 
+                                         TranspositionTable.NO_MOVE,
+                                         PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(0, plyOrder[0]);
+        assertEquals(6, plyOrder[1]);
+        
+        // The history score of column 6 decays from 1 to 0:
+        moveOrdering.age();
+        plyOrder = moveOrdering.getPlyOrder(5, 
+                                            TranspositionTable.NO_MOVE,
+                                            PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(0, plyOrder[0]);
+        assertEquals(6, plyOrder[plyOrder.length - 1]);
+        
+        // The history score of column 0 decays from 4 to 0:
+        moveOrdering.age();
+        moveOrdering.age();
+        
+        assertArrayEquals(PLIES, 
+                          moveOrdering.getPlyOrder(
+                                  5, 
+                                  TranspositionTable.NO_MOVE,
+                                  PlayerType.MAXIMIZING_PLAYER));
+        
+        // The killers survive aging:
+        assertEquals(6, 
+                     moveOrdering.getPlyOrder(
+                             3, 
+                             TranspositionTable.NO_MOVE, 
+                             PlayerType.MAXIMIZING_PLAYER)[0]);
+    }
+}
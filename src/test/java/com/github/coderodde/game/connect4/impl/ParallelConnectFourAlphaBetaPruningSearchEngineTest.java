@@ -0,0 +1,87 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import static com.github.coderodde.game.connect4.TestUtils.minimax;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class ParallelConnectFourAlphaBetaPruningSearchEngineTest {
+    
+    private static final int DEPTH = 7;
+    
+    // Two three-in-a-row terms of the heuristic function:
+    private static final int VALUE_TOLERANCE = 20;
+    
+    private final ConnectFourHeuristicFunction heuristicFunction = 
+            new ConnectFourHeuristicFunction();
+    
+    @Test
+    public void lazySMPFindsMovesNearlyAsGoodAsSequentialNegamax() {
+        final Random random = new Random(37L);
+        
+        try (final ParallelConnectFourAlphaBetaPruningSearchEngine engine = 
+                new ParallelConnectFourAlphaBetaPruningSearchEngine(
+                        heuristicFunction, 
+                        ParallelSearchMode.LAZY_SMP, 
+                        2)) {
+            
+            for (int i = 0; i < 20; i++) {
+                final ConnectFourBoard b = getRandomBoard(random, 6);
+                final PlayerType playerType = getPlayerToMove(b);
+                
+                if (b.isTerminal()) {
+                    continue;
+                }
+                
+                final ConnectFourBoard expected = 
+                        new ConnectFourNegamaxSearchEngine(heuristicFunction)
+                                .search(b, DEPTH, playerType);
+                
+                final ConnectFourBoard actual = 
+                        engine.search(b, DEPTH, playerType);
+                
+                final int color = 
+                        playerType == PlayerType.MAXIMIZING_PLAYER ? +1 : -1;
+                
+                final int expectedValue = 
+                        color * minimax(expected, DEPTH - 1, playerType.flip());
+                
+                final int actualValue = 
+                        color * minimax(actual, DEPTH - 1, playerType.flip());
+                
+                // The helpers searching one ply deeper leave deeper scores in
+                // the shared table, which may sway the move by a few points, 
+                // but never by a win or a loss:
+                assertTrue(actualValue >= 
+                           expectedValue - VALUE_TOLERANCE);
+            }
+        }
+    }
+    
+    @Test
+    public void interruptedSearchKeepsInterruptStatus() {
+        for (final ParallelSearchMode searchMode : 
+                ParallelSearchMode.values()) {
+            
+            try (final ParallelConnectFourAlphaBetaPruningSearchEngine engine =
+                    new ParallelConnectFourAlphaBetaPruningSearchEngine(
+                            heuristicFunction,
+                            searchMode,
+                            2)) {
+                
+                Thread.currentThread().interrupt();
+                
+                assertNull(engine.search(new ConnectFourBoard(),
+                                         DEPTH,
+                                         PlayerType.MAXIMIZING_PLAYER));
+                
+                assertTrue(Thread.interrupted());
+            }
+        }
+    }
+}
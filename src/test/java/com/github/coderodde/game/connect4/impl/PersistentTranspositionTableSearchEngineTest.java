@@ -0,0 +1,172 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PersistentTranspositionTable;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchEngine;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class PersistentTranspositionTableSearchEngineTest {
+    
+    private static final int DEPTH = 6;
+    
+    private Path path;
+    
+    @Before
+    public void before() throws Exception {
+        path = Files.createTempFile("connect4", ".table");
+        Files.delete(path);
+    }
+    
+    @After
+    public void after() throws Exception {
+        Files.deleteIfExists(path);
+    }
+    
+    @Test
+    public void answersStoredDepthsAfterReopening() throws Exception {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(0, PlayerType.MINIMIZING_PLAYER);
+        b.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        b.makePly(1, PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourBoard mirror = new ConnectFourBoard();
+        
+        mirror.makePly(6, PlayerType.MINIMIZING_PLAYER);
+        mirror.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        mirror.makePly(5, PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourBoard expectedMoveState;
+        
+        try (final PersistentTranspositionTable persistentTable =
+                PersistentTranspositionTableSearchEngine.openTable(path, 64)) {
+            
+            final SearchEngine<ConnectFourBoard> engine = 
+                    getEngine(persistentTable);
+            
+            expectedMoveState = 
+                    engine.search(b, DEPTH, PlayerType.MAXIMIZING_PLAYER);
+            
+            assertTrue(engine.getSearchStatistics().getNodeCount() > 0L);
+        }
+        
+        try (final PersistentTranspositionTable persistentTable =
+                PersistentTranspositionTableSearchEngine.openTable(path, 64)) {
+            
+            final SearchEngine<ConnectFourBoard> engine = 
+                    getEngine(persistentTable);
+            
+            // Shallower searches are answered from the table as well:
+            for (int depth = 1; depth <= DEPTH; depth++) {
+                assertEquals(expectedMoveState,
+                             engine.search(b,
+                                           depth, 
+                                           PlayerType.MAXIMIZING_PLAYER));
+                
+                assertEquals(0L, engine.getSearchStatistics().getNodeCount());
+            }
+            
+            // The mirror image shares the entry:
+            final ConnectFourBoard mirrorMoveState = 
+                    engine.search(mirror, DEPTH, PlayerType.MAXIMIZING_PLAYER);
+            
+            assertEquals(0L, engine.getSearchStatistics().getNodeCount());
+            assertEquals(ConnectFourBoard.COLUMNS - 1 - 
+                         b.getPlyColumn(expectedMoveState),
+                         mirror.getPlyColumn(mirrorMoveState));
+            
+            // A deeper search is delegated:
+            engine.search(b, DEPTH + 1, PlayerType.MAXIMIZING_PLAYER);
+            
+            assertTrue(engine.getSearchStatistics().getNodeCount() > 0L);
+        }
+    }
+    
+    @Test
+    public void storesRootValues() throws Exception {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        
+        try (final PersistentTranspositionTable persistentTable =
+                PersistentTranspositionTableSearchEngine.openTable(path, 64)) {
+            
+            final ConnectFourNegamaxSearchEngine negamax =
+                    new ConnectFourNegamaxSearchEngine(
+                            new ConnectFourBitboardHeuristicFunction());
+            
+            final SearchEngine<ConnectFourBoard> engine = 
+                    new PersistentTranspositionTableSearchEngine(
+                            negamax, 
+                            persistentTable);
+            
+            engine.search(b, DEPTH, PlayerType.MAXIMIZING_PLAYER);
+            
+            final long entry = 
+                    persistentTable.probe(
+                            b.getCanonicalZobristKey(
+                                    PlayerType.MAXIMIZING_PLAYER));
+            
+            assertEquals(DEPTH, TranspositionTable.getDepth(entry));
+            assertEquals(TranspositionTable.EXACT, 
+                         TranspositionTable.getBound(entry));
+            assertEquals(negamax.getRootValue(), 
+                         TranspositionTable.getScore(entry));
+        }
+    }
+    
+    @Test
+    public void storesCompletedDepthOfTimeBoundedSearch() throws Exception {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        
+        try (final PersistentTranspositionTable persistentTable =
+                PersistentTranspositionTableSearchEngine.openTable(path, 64)) {
+            
+            final ConnectFourNegamaxSearchEngine negamax =
+                    new ConnectFourNegamaxSearchEngine(
+                            new ConnectFourBitboardHeuristicFunction());
+            
+            final SearchEngine<ConnectFourBoard> engine = 
+                    new PersistentTranspositionTableSearchEngine(
+                            negamax, 
+                            persistentTable);
+            
+            final ConnectFourBoard moveState = 
+                    engine.search(b, 
+                                  Duration.ofMillis(100L), 
+                                  PlayerType.MAXIMIZING_PLAYER);
+            
+            final int completedDepth = negamax.getCompletedDepth();
+            
+            assertTrue(completedDepth > 0);
+            
+            // The completed depth is answered from the table:
+            assertEquals(moveState,
+                         engine.search(b, 
+                                       completedDepth, 
+                                       PlayerType.MAXIMIZING_PLAYER));
+            
+            assertEquals(0L, engine.getSearchStatistics().getNodeCount());
+        }
+    }
+    
+    private static SearchEngine<ConnectFourBoard> getEngine(
+            final PersistentTranspositionTable persistentTable) {
+        
+        return new PersistentTranspositionTableSearchEngine(
+                new ConnectFourNegamaxSearchEngine(
+                        new ConnectFourBitboardHeuristicFunction()),
+                persistentTable);
+    }
+}
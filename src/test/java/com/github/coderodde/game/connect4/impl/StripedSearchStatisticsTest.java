@@ -0,0 +1,51 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class StripedSearchStatisticsTest {
+    
+    private final StripedSearchStatistics stripes = 
+            new StripedSearchStatistics();
+    
+    @Test
+    public void drainAddsUpAllTheStripes() throws InterruptedException {
+        stripes.get().countNode(0);
+        countNodeInNewThread();
+        
+        final SearchStatistics target = new SearchStatistics();
+        
+        stripes.drainTo(target);
+        
+        assertEquals(2L, target.getNodeCount());
+        assertEquals(0L, stripes.get().getNodeCount());
+    }
+    
+    @Test
+    public void drainDropsTheStripesOfTerminatedThreads() 
+            throws InterruptedException {
+        
+        stripes.get().countNode(0);
+        
+        for (int i = 0; i < 10; i++) {
+            countNodeInNewThread();
+        }
+        
+        assertEquals(11, stripes.size());
+        
+        final SearchStatistics target = new SearchStatistics();
+        
+        stripes.drainTo(target);
+        
+        assertEquals(11L, target.getNodeCount());
+        assertEquals(1, stripes.size());
+    }
+    
+    private void countNodeInNewThread() throws InterruptedException {
+        final Thread thread = new Thread(() -> stripes.get().countNode(0));
+        
+        thread.start();
+        thread.join();
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.coderodde.game.connect4.impl;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import static com.github.coderodde.game.connect4.TestUtils.minimax;
+import com.github.coderodde.game.zerosum.PlayerType;
+import com.github.coderodde.game.zerosum.SearchStatistics;
+import com.github.coderodde.game.zerosum.TranspositionTable;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class YoungBrothersWaitConnectFourSearchEngineTest {
+    
+    private static final int DEPTH = 7;
+    
+    private final ConnectFourBitboardHeuristicFunction heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void findsMovesAsGoodAsSequentialNegamax() {
+        final Random random = new Random(31L);
+        
+        try (final YoungBrothersWaitConnectFourSearchEngine engine = 
+                new YoungBrothersWaitConnectFourSearchEngine(heuristicFunction,
+                                                             2)) {
+            
+            for (int i = 0; i < 10; i++) {
+                final ConnectFourBoard b = getRandomBoard(random, 6);
+                final PlayerType playerType = getPlayerToMove(b);
+                
+                if (b.isTerminal()) {
+                    continue;
+                }
+                
+                final ConnectFourBoard expected = 
+                        new ConnectFourNegamaxSearchEngine(heuristicFunction)
+                                .search(b, DEPTH, playerType);
+                
+                final ConnectFourBoard actual = 
+                        new YoungBrothersWaitConnectFourSearchEngine(
+                                heuristicFunction, 
+                                engine.getPool(), 
+                                2)
+                                .search(b, DEPTH, playerType);
+                
+                // Equally good moves may be picked in any order:
+                assertEquals(minimax(expected, DEPTH - 1, playerType.flip()),
+                             minimax(actual, DEPTH - 1, playerType.flip()));
+                
+                assertNotNull(engine.search(b, DEPTH, playerType));
+            }
+        }
+    }
+    
+    @Test
+    public void collectsStatisticsOfAllThreads() {
+        try (final YoungBrothersWaitConnectFourSearchEngine engine = 
+                new YoungBrothersWaitConnectFourSearchEngine(heuristicFunction,
+                                                             2)) {
+            
+            final ConnectFourNegamaxSearchEngine negamax = 
+                    new ConnectFourNegamaxSearchEngine(heuristicFunction);
+            
+            engine.search(new ConnectFourBoard(), 
+                          DEPTH, 
+                          PlayerType.MAXIMIZING_PLAYER);
+            
+            negamax.search(new ConnectFourBoard(), 
+                           DEPTH, 
+                           PlayerType.MAXIMIZING_PLAYER);
+            
+            for (final SearchStatistics statistics : 
+                    new SearchStatistics[]{ engine.getSearchStatistics(),
+                                            negamax.getSearchStatistics() }) {
+                
+                assertTrue(statistics.getNodeCount(0) > 0L);
+                assertTrue(statistics.getNodeCount(1) > 0L);
+                assertTrue(statistics.getLeafCount() > 0L);
+                assertTrue(statistics.getCutoffCount() > 0L);
+                assertEquals(DEPTH, statistics.getMaximumHeight());
+            }
+        }
+    }
+    
+    @Test
+    public void usesInjectedTranspositionTable() {
+        final TranspositionTable transpositionTable = new TranspositionTable();
+        final ConnectFourBoard root = new ConnectFourBoard();
+        
+        try (final YoungBrothersWaitConnectFourSearchEngine engine = 
+                new YoungBrothersWaitConnectFourSearchEngine(heuristicFunction,
+                                                             2)) {
+            
+            assertNotNull(new YoungBrothersWaitConnectFourSearchEngine(
+                                  heuristicFunction, 
+                                  engine.getPool(), 
+                                  2,
+                                  transpositionTable)
+                                  .search(root, 
+                                          DEPTH, 
+                                          PlayerType.MAXIMIZING_PLAYER));
+        }
+        
+        final long entry = 
+                transpositionTable.probe(
+                        root.getCanonicalZobristKey(
+                                PlayerType.MAXIMIZING_PLAYER));
+        
+        assertEquals(DEPTH, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.EXACT, 
+                     TranspositionTable.getBound(entry));
+    }
+    
+    @Test(expected = RejectedExecutionException.class)
+    public void cannotSearchAfterClose() {
+        final YoungBrothersWaitConnectFourSearchEngine engine = 
+                new YoungBrothersWaitConnectFourSearchEngine(heuristicFunction,
+                                                             1);
+        
+        engine.close();
+        engine.search(new ConnectFourBoard(), DEPTH);
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.coderodde.game.connect4.io;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.COLUMNS;
+import static com.github.coderodde.game.connect4.ConnectFourBoard.ROWS;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomPosition;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class PositionCodecTest {
+    
+    @Test
+    public void keysAndMovesRoundTrip() {
+        final Random random = new Random(23L);
+        final ByteBuffer buffer =
+                ByteBuffer.allocate(PositionCodec.MAXIMUM_MOVES_RECORD_SIZE);
+        
+        for (int i = 0; i < 200; i++) {
+            final PlayerType firstPlayer = random.nextBoolean() ?
+                                           PlayerType.MAXIMIZING_PLAYER :
+                                           PlayerType.MINIMIZING_PLAYER;
+            
+            final Position randomPosition = 
+                    getRandomPosition(random, 
+                                      random.nextInt(ROWS * COLUMNS + 1),
+                                      firstPlayer);
+            
+            final ConnectFourBoard b = randomPosition.getBoard();
+            final PlayerType playerType = randomPosition.getPlayerToMove();
+            
+            final long key = PositionCodec.encodeKey(b, playerType);
+            
+            assertEquals(b, PositionCodec.decodeKey(key));
+            assertEquals(playerType, PositionCodec.getPlayerToMove(key));
+            
+            buffer.clear();
+            PositionCodec.writeMoves(buffer, b, playerType);
+            buffer.flip();
+            
+            final Position position = PositionCodec.readMoves(buffer);
+            
+            assertFalse(buffer.hasRemaining());
+            assertEquals(b, position.getBoard());
+            assertEquals(playerType, position.getPlayerToMove());
+            assertArrayEquals(b.getPlyColumns(),
+                              position.getBoard().getPlyColumns());
+        }
+    }
+    
+    @Test
+    public void moveStrings() {
+        final Position position =
+                PositionCodec.parseMoveString("4453",
+                                              PlayerType.MINIMIZING_PLAYER);
+        
+        final ConnectFourBoard b = position.getBoard();
+        
+        assertEquals(PlayerType.MINIMIZING_PLAYER, position.getPlayerToMove());
+        assertEquals(PlayerType.MINIMIZING_PLAYER, b.get(3, ROWS - 1));
+        assertEquals(PlayerType.MAXIMIZING_PLAYER, b.get(3, ROWS - 2));
+        assertEquals(PlayerType.MINIMIZING_PLAYER, b.get(4, ROWS - 1));
+        assertEquals(PlayerType.MAXIMIZING_PLAYER, b.get(2, ROWS - 1));
+        assertEquals("4453", PositionCodec.toMoveString(b));
+        
+        assertEquals("",
+                     PositionCodec.toMoveString(new ConnectFourBoard()));
+    }
+    
+    @Test
+    public void rejectsInvalidMoveStrings() {
+        for (final String moveString :
+                new String[]{ "48", "40", "4x", "1111111", "12121212" }) {
+            try {
+                PositionCodec.parseMoveString(moveString,
+                                              PlayerType.MINIMIZING_PLAYER);
+                fail(moveString);
+            } catch (final IllegalArgumentException ex) {
+            
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotWriteMovesWithoutHistory() {
+        final ConnectFourBoard b = new ConnectFourBoard();
+        
+        b.set(3, ROWS - 1, PlayerType.MAXIMIZING_PLAYER);
+        
+        PositionCodec.writeMoves(ByteBuffer.allocate(16),
+                                 b,
+                                 PlayerType.MINIMIZING_PLAYER);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidKeys() {
+        PositionCodec.decodeKey(0L);
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.coderodde.game.connect4.io;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomPosition;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class PositionReaderTest {
+    
+    /**
+     * Spans several write buffers.
+     */
+    private static final int NUMBER_OF_POSITIONS = 20_000;
+    
+    private Path path;
+    
+    @Before
+    public void before() throws Exception {
+        path = Files.createTempFile("connect4", ".positions");
+    }
+    
+    @After
+    public void after() throws Exception {
+        Files.deleteIfExists(path);
+    }
+    
+    @Test
+    public void writeAndReadBothFormats() throws Exception {
+        final List<Position> positions = getRandomPositions();
+        
+        for (final PositionFormat format : PositionFormat.values()) {
+            try (final PositionWriter writer =
+                    PositionWriter.open(path, format)) {
+                
+                for (final Position position : positions) {
+                    writer.write(position);
+                }
+                
+                assertEquals(positions.size(),
+                             writer.getNumberOfPositions());
+            }
+            
+            try (final PositionReader reader = PositionReader.open(path)) {
+                assertEquals(format, reader.getFormat());
+                assertPositions(positions, reader);
+            }
+            
+            try (final PositionReader reader = PositionReader.map(path)) {
+                assertEquals(format, reader.getFormat());
+                assertPositions(positions, reader);
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void detectsTruncatedFiles() throws Exception {
+        try (final PositionWriter writer =
+                PositionWriter.open(path, PositionFormat.KEY)) {
+            
+            writer.write(new ConnectFourBoard(), PlayerType.MINIMIZING_PLAYER);
+        }
+        
+        try (final FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.WRITE)) {
+            
+            fileChannel.truncate(Files.size(path) - 1L);
+        }
+        
+        try (final PositionReader reader = PositionReader.open(path)) {
+            reader.read();
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherFiles() throws Exception {
+        Files.write(path, new byte[]{ 1, 2, 3 });
+        PositionReader.open(path).close();
+    }
+    
+    private static void assertPositions(final List<Position> expected,
+                                        final PositionReader reader)
+            throws Exception {
+        
+        for (final Position position : expected) {
+            final Position actual = reader.read();
+            
+            assertEquals(position.getBoard(), actual.getBoard());
+            assertEquals(position.getPlayerToMove(), actual.getPlayerToMove());
+        }
+        
+        assertNull(reader.read());
+    }
+    
+    private static List<Position> getRandomPositions() {
+        final Random random = new Random(29L);
+        final List<Position> positions = new ArrayList<>();
+        
+        while (positions.size() < NUMBER_OF_POSITIONS) {
+            positions.add(getRandomPosition(random, random.nextInt(20)));
+        }
+        
+        return positions;
+    }
+}
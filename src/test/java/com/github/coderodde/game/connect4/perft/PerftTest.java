@@ -0,0 +1,78 @@
+package com.github.coderodde.game.connect4.perft;
+
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import com.github.coderodde.game.zerosum.PlayerType;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class PerftTest {
+    
+    private static final long[] NODE_COUNTS = {
+        1L, 7L, 49L, 343L, 2401L, 16807L, 117649L, 823536L, 5673234L,
+    };
+    
+    private static final long[] UNIQUE_POSITION_COUNTS = {
+        1L, 7L, 49L, 238L, 1120L, 4263L, 16422L, 54859L, 184275L,
+    };
+    
+    @Test
+    public void matchesKnownCounts() {
+        final PerftResult result = 
+                new Perft().perft(new ConnectFourBoard(), 
+                                  PlayerType.MINIMIZING_PLAYER, 
+                                  NODE_COUNTS.length - 1);
+        
+        assertEquals(NODE_COUNTS.length - 1, result.getDepth());
+        
+        for (int ply = 0; ply < NODE_COUNTS.length; ply++) {
+            assertEquals(NODE_COUNTS[ply], result.getNodeCount(ply));
+            assertEquals(UNIQUE_POSITION_COUNTS[ply], 
+                         result.getUniquePositionCount(ply));
+        }
+    }
+    
+    @Test
+    public void parallelAgreesWithSequential() {
+        final ConnectFourBoard root = new ConnectFourBoard();
+        root.makePly(3, PlayerType.MINIMIZING_PLAYER);
+        root.makePly(3, PlayerType.MAXIMIZING_PLAYER);
+        root.makePly(2, PlayerType.MINIMIZING_PLAYER);
+        
+        final PerftResult parallel = 
+                new Perft(ForkJoinPool.commonPool(), 1, true)
+                        .perft(root, PlayerType.MAXIMIZING_PLAYER, 7);
+        
+        final PerftResult sequential = 
+                new Perft(ForkJoinPool.commonPool(), 7, true)
+                        .perft(root, PlayerType.MAXIMIZING_PLAYER, 7);
+        
+        for (int ply = 0; ply <= 7; ply++) {
+            assertEquals(sequential.getNodeCount(ply), 
+                         parallel.getNodeCount(ply));
+            
+            assertEquals(sequential.getUniquePositionCount(ply), 
+                         parallel.getUniquePositionCount(ply));
+        }
+    }
+    
+    @Test
+    public void stopsAtTerminalPositions() {
+        final ConnectFourBoard root = new ConnectFourBoard();
+        
+        for (int i = 0; i < 3; i++) {
+            root.makePly(0, PlayerType.MINIMIZING_PLAYER);
+            root.makePly(1, PlayerType.MAXIMIZING_PLAYER);
+        }
+        
+        root.makePly(0, PlayerType.MINIMIZING_PLAYER);
+        assertTrue(root.isTerminal());
+        
+        final PerftResult result = 
+                new Perft().perft(root, PlayerType.MAXIMIZING_PLAYER, 3);
+        
+        assertEquals(1L, result.getNodeCount(0));
+        assertEquals(0L, result.getLeafCount());
+        assertEquals(1L, result.getTotalNodeCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.coderodde.game.connect4.server;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class MoveServerTest {
+    
+    private static final int POOL_SIZE = 2;
+    
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private MoveServer moveServer;
+    
+    @Before
+    public void before() throws Exception {
+        moveServer = MoveServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                new SearchEnginePool(new ConnectFourBitboardHeuristicFunction(),
+                                     POOL_SIZE));
+    }
+    
+    @After
+    public void after() {
+        moveServer.close();
+    }
+    
+    @Test
+    public void answersMoves() throws Exception {
+        final HttpResponse<String> response = get("/move?moves=4453&depth=4");
+        
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json", 
+                     response.headers().firstValue("Content-Type").get());
+        
+        assertTrue(response.body().matches(
+                "\\{\"move\":[1-7],\"moves\":\"4453[1-7]\",\"score\":-?\\d+," +
+                "\"depth\":4,\"statistics\":\\{\"nodes\":[1-9]\\d*,.*\\}\\}"));
+        
+        assertEquals(200, get("/move?moves=&millis=20").statusCode());
+    }
+    
+    @Test
+    public void blocksImmediateLoss() throws Exception {
+        // The first player threatens to complete the bottom row:
+        final HttpResponse<String> response = get("/move?moves=17273");
+        
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body(), 
+                   response.body().startsWith("{\"move\":4,"));
+    }
+    
+    @Test
+    public void rejectsInvalidRequests() throws Exception {
+        for (final String path : new String[]{ 
+                "/move", 
+                "/move?moves=48", 
+                "/move?moves=1212121", 
+                "/move?moves=4&depth=0",
+                "/move?moves=4&depth=x",
+                "/move?moves=4&depth=3&millis=10" }) {
+            
+            final HttpResponse<String> response = get(path);
+            
+            assertEquals(path, 400, response.statusCode());
+            assertTrue(response.body().startsWith("{\"error\":\""));
+        }
+    }
+    
+    @Test
+    public void servesConcurrentGames() throws Exception {
+        final List<CompletableFuture<HttpResponse<String>>> futures = 
+                new ArrayList<>();
+        
+        for (int i = 0; i < 100; i++) {
+            futures.add(httpClient.sendAsync(
+                    getRequest("/move?depth=5&moves=" + (1 + i % 7)),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        
+        for (final CompletableFuture<HttpResponse<String>> future : futures) {
+            assertEquals(200, future.get().statusCode());
+        }
+        
+        assertEquals(POOL_SIZE, moveServer.getEnginePool().getIdleCount());
+    }
+    
+    private HttpResponse<String> get(final String path) throws Exception {
+        return httpClient.send(getRequest(path),
+                               HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private HttpRequest getRequest(final String path) {
+        return HttpRequest.newBuilder(
+                URI.create("http://localhost:" + moveServer.getPort() + path))
+                          .GET()
+                          .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.coderodde.game.zerosum;
+
+import com.github.coderodde.game.connect4.ConnectFourBitboardHeuristicFunction;
+import com.github.coderodde.game.connect4.ConnectFourBoard;
+import static com.github.coderodde.game.connect4.TestUtils.getPlayerToMove;
+import static com.github.coderodde.game.connect4.TestUtils.getRandomBoard;
+import static com.github.coderodde.game.connect4.TestUtils.minimaxOverAllPlies;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class AlphaBetaPruningSearchEngineTest {
+    
+    private static final int DEPTH = 5;
+    
+    private final ConnectFourBitboardHeuristicFunction heuristicFunction = 
+            new ConnectFourBitboardHeuristicFunction();
+    
+    @Test
+    public void movesAndExpansionFindEquallyGoodMoves() {
+        final Random random = new Random(11L);
+        
+        final AlphaBetaPruningSearchEngine<ConnectFourBoard> movesEngine = 
+                new AlphaBetaPruningSearchEngine<>(heuristicFunction);
+        
+        final AlphaBetaPruningSearchEngine<ExpandOnlyState> expandEngine = 
+                new AlphaBetaPruningSearchEngine<>(
+                        (state, depth) -> 
+                                heuristicFunction.evaluate(state.board, 
+                                                           depth));
+        
+        for (int i = 0; i < 10; i++) {
+            final ConnectFourBoard b = getRandomBoard(random, 8);
+            final PlayerType playerType = getPlayerToMove(b);
+            
+            if (b.isTerminal()) {
+                continue;
+            }
+            
+            final ConnectFourBoard copy = new ConnectFourBoard(b);
+            final int expected = minimaxOverAllPlies(b, DEPTH, playerType);
+            
+            final ConnectFourBoard moveState = 
+                    movesEngine.search(b, DEPTH, playerType);
+            
+            final ExpandOnlyState expandState = 
+                    expandEngine.search(new ExpandOnlyState(b), 
+                                        DEPTH, 
+                                        playerType);
+            
+            // The search leaves the root as it was:
+            assertEquals(copy.getZobristKey(), b.getZobristKey());
+            
+            assertEquals(expected, 
+                         minimaxOverAllPlies(moveState, 
+                                             DEPTH - 1, 
+                                             playerType.flip()));
+            
+            assertEquals(expected, 
+                         minimaxOverAllPlies(expandState.board, 
+                                             DEPTH - 1, 
+                                             playerType.flip()));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void searchRejectsZeroDepth() {
+        new AlphaBetaPruningSearchEngine<ConnectFourBoard>(heuristicFunction)
+                .search(new ConnectFourBoard(), 
+                        0, 
+                        PlayerType.MAXIMIZING_PLAYER);
+    }
+    
+    @Test
+    public void rootTriesTheGeneratedMovesFirst() {
+        final AlphaBetaPruningSearchEngine<ConnectFourBoard> engine = 
+                new AlphaBetaPruningSearchEngine<>((state, depth) -> 0);
+        
+        final ConnectFourBoard root = new ConnectFourBoard();
+        final int[] moves = new int[root.getMaximumNumberOfMoves()];
+        root.generateMoves(PlayerType.MAXIMIZING_PLAYER, moves);
+        
+        // All the moves tie, so the first one tried is kept:
+        final ConnectFourBoard best = 
+                engine.search(root, 2, PlayerType.MAXIMIZING_PLAYER);
+        
+        assertEquals(moves[0], root.getPlyColumn(best));
+    }
+    
+    /**
+     * A game state without the move protocol.
+     */
+    private static final class ExpandOnlyState 
+            implements GameState<ExpandOnlyState> {
+        
+        final ConnectFourBoard board;
+        
+        ExpandOnlyState(final ConnectFourBoard board) {
+            this.board = board;
+        }
+        
+        @Override
+        public List<ExpandOnlyState> expand(final PlayerType playerType) {
+            final List<ExpandOnlyState> children = new ArrayList<>();
+            
+            for (final ConnectFourBoard child : board.expand(playerType)) {
+                children.add(new ExpandOnlyState(child));
+            }
+            
+            return children;
+        }
+        
+        @Override
+        public boolean isWinningFor(final PlayerType playerType) {
+            return board.isWinningFor(playerType);
+        }
+        
+        @Override
+        public boolean isTie() {
+            return board.isTie();
+        }
+    }
+}
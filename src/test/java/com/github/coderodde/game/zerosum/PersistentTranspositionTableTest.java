@@ -0,0 +1,104 @@
+package com.github.coderodde.game.zerosum;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class PersistentTranspositionTableTest {
+    
+    private static final long FINGERPRINT = 0x1234L;
+    
+    private Path path;
+    
+    @Before
+    public void before() throws Exception {
+        path = Files.createTempFile("connect4", ".table");
+        Files.delete(path);
+    }
+    
+    @After
+    public void after() throws Exception {
+        Files.deleteIfExists(path);
+    }
+    
+    @Test
+    public void survivesReopening() throws Exception {
+        try (final PersistentTranspositionTable table =
+                PersistentTranspositionTable.open(path, 100, FINGERPRINT)) {
+            
+            assertEquals(128, table.getCapacity());
+            assertEquals(TranspositionTable.NO_ENTRY, table.probe(123L));
+            
+            table.store(123L, 7, -1_000_004, TranspositionTable.LOWER_BOUND, 3);
+            table.store(123L, 6, 5, TranspositionTable.EXACT, 1);
+        }
+        
+        try (final PersistentTranspositionTable table =
+                PersistentTranspositionTable.open(path, 16, FINGERPRINT)) {
+            
+            // An existing file keeps its capacity:
+            assertEquals(128, table.getCapacity());
+            
+            final long entry = table.probe(123L);
+            
+            assertEquals(7, TranspositionTable.getDepth(entry));
+            assertEquals(-1_000_004, TranspositionTable.getScore(entry));
+            assertEquals(TranspositionTable.LOWER_BOUND,
+                         TranspositionTable.getBound(entry));
+            assertEquals(3, TranspositionTable.getBestMove(entry));
+            
+            table.clear();
+            
+            assertEquals(TranspositionTable.NO_ENTRY, table.probe(123L));
+        }
+    }
+    
+    @Test
+    public void evictsShallowestEntryOfFullWindow() throws Exception {
+        try (final PersistentTranspositionTable table =
+                PersistentTranspositionTable.open(path, 4, FINGERPRINT)) {
+            
+            // All the keys have the same home slot:
+            table.store(4L, 5, 4, TranspositionTable.EXACT, 0);
+            table.store(8L, 1, 8, TranspositionTable.EXACT, 0);
+            table.store(12L, 6, 12, TranspositionTable.EXACT, 0);
+            table.store(16L, 7, 16, TranspositionTable.EXACT, 0);
+            table.store(20L, 3, 20, TranspositionTable.EXACT, 0);
+            
+            assertEquals(TranspositionTable.NO_ENTRY, table.probe(8L));
+            
+            for (final long key : new long[]{ 4L, 12L, 16L, 20L }) {
+                assertEquals(key, 
+                             TranspositionTable.getScore(table.probe(key)));
+            }
+        }
+    }
+    
+    @Test
+    public void sharedBetweenMappings() throws Exception {
+        try (final PersistentTranspositionTable table1 =
+                PersistentTranspositionTable.open(path, 16, FINGERPRINT);
+             final PersistentTranspositionTable table2 =
+                PersistentTranspositionTable.open(path, 16, FINGERPRINT)) {
+            
+            table1.store(77L, 2, 9, TranspositionTable.UPPER_BOUND, 4);
+            
+            assertEquals(9, TranspositionTable.getScore(table2.probe(77L)));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherFingerprints() throws Exception {
+        PersistentTranspositionTable.open(path, 16, FINGERPRINT).close();
+        PersistentTranspositionTable.open(path, 16, FINGERPRINT + 1).close();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherFiles() throws Exception {
+        Files.write(path, new byte[]{ 1, 2, 3 });
+        PersistentTranspositionTable.open(path, 16, FINGERPRINT).close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.coderodde.game.zerosum;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class SearchStatisticsTest {
+    
+    @Test
+    public void countsAndBranchingFactor() {
+        final SearchStatistics statistics = new SearchStatistics();
+        
+        statistics.countNode(0);
+        
+        for (int i = 0; i < 7; i++) {
+            statistics.countNode(1);
+        }
+        
+        for (int i = 0; i < 21; i++) {
+            statistics.countNode(2);
+            statistics.countLeaf();
+        }
+        
+        statistics.countCutoff(0);
+        statistics.countCutoff(0);
+        statistics.countCutoff(100);
+        statistics.countTranspositionHit();
+        
+        assertEquals(29L, statistics.getNodeCount());
+        assertEquals(7L, statistics.getNodeCount(1));
+        assertEquals(2, statistics.getMaximumHeight());
+        assertEquals(21L, statistics.getLeafCount());
+        assertEquals(3L, statistics.getCutoffCount());
+        assertEquals(2L, statistics.getCutoffCount(0));
+        assertEquals(1L, statistics.getCutoffCount(
+                SearchStatistics.MAXIMUM_MOVE_INDEX));
+        assertEquals(1L, statistics.getTranspositionHitCount());
+        assertEquals(7.0, statistics.getEffectiveBranchingFactor(1), 1e-9);
+        assertEquals(3.0, statistics.getEffectiveBranchingFactor(2), 1e-9);
+        assertEquals(0.0, statistics.getEffectiveBranchingFactor(4), 1e-9);
+    }
+    
+    @Test
+    public void addAndClear() {
+        final SearchStatistics a = new SearchStatistics();
+        final SearchStatistics b = new SearchStatistics();
+        
+        a.countNode(0);
+        a.countLeaf();
+        b.countNode(0);
+        b.countNode(3);
+        b.countCutoff(2);
+        b.setDuration(1_000_000_000L);
+        
+        a.add(b);
+        
+        assertEquals(3L, a.getNodeCount());
+        assertEquals(1L, a.getLeafCount());
+        assertEquals(1L, a.getCutoffCount(2));
+        assertEquals(0L, a.getDuration().toNanos());
+        assertEquals(2.0, new SearchStatistics(b).getNodesPerSecond(), 1e-9);
+        
+        a.clear();
+        
+        assertEquals(0L, a.getNodeCount());
+        assertEquals(-1, a.getMaximumHeight());
+        assertEquals(0L, a.getCutoffCount());
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.coderodde.game.zerosum;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public final class TranspositionTableTest {
+    
+    @Test
+    public void storeAndProbe() {
+        final TranspositionTable table = new TranspositionTable(16);
+        
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(123L));
+        
+        table.store(123L, 7, -1_000_004, TranspositionTable.LOWER_BOUND, 3);
+        
+        final long entry = table.probe(123L);
+        
+        assertNotEquals(TranspositionTable.NO_ENTRY, entry);
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(-1_000_004, TranspositionTable.getScore(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, 
+                     TranspositionTable.getBound(entry));
+        assertEquals(3, TranspositionTable.getBestMove(entry));
+        
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(124L));
+    }
+    
+    @Test
+    public void keepsDeeperEntryOfSamePosition() {
+        final TranspositionTable table = new TranspositionTable(16);
+        
+        table.store(5L, 8, 10, TranspositionTable.EXACT, 2);
+        table.store(5L, 4, 20, TranspositionTable.EXACT, 1);
+        
+        assertEquals(10, TranspositionTable.getScore(table.probe(5L)));
+        
+        table.store(5L, 9, 30, TranspositionTable.UPPER_BOUND, 
+                    TranspositionTable.NO_MOVE);
+        
+        final long entry = table.probe(5L);
+        
+        assertEquals(30, TranspositionTable.getScore(entry));
+        assertEquals(TranspositionTable.NO_MOVE, 
+                     TranspositionTable.getBestMove(entry));
+    }
+    
+    @Test
+    public void boundsOfScoresAndCutoffs() {
+        assertEquals(TranspositionTable.UPPER_BOUND, 
+                     TranspositionTable.getBoundType(-5, -5, 5));
+        assertEquals(TranspositionTable.EXACT, 
+                     TranspositionTable.getBoundType(0, -5, 5));
+        assertEquals(TranspositionTable.LOWER_BOUND, 
+                     TranspositionTable.getBoundType(5, -5, 5));
+        
+        final TranspositionTable table = new TranspositionTable(16);
+        
+        table.store(1L, 6, 8, TranspositionTable.LOWER_BOUND, 3);
+        
+        final long entry = table.probe(1L);
+        
+        assertTrue(TranspositionTable.isCutoff(entry, 6, -5, 5));
+        assertFalse(TranspositionTable.isCutoff(entry, 6, -5, 10));
+        assertFalse(TranspositionTable.isCutoff(entry, 7, -5, 5));
+        assertFalse(TranspositionTable.isCutoff(TranspositionTable.NO_ENTRY, 
+                                                0, 
+                                                -5, 
+                                                5));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooLargeCapacity() {
+        new TranspositionTable(TranspositionTable.MAXIMUM_CAPACITY + 1);
+    }
+    
+    @Test
+    public void replacesOtherPosition() {
+        final TranspositionTable table = new TranspositionTable(1);
+        
+        table.store(1L, 10, 10, TranspositionTable.EXACT, 2);
+        table.store(2L, 1, 20, TranspositionTable.EXACT, 1);
+        
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(1L));
+        assertEquals(20, TranspositionTable.getScore(table.probe(2L)));
+        
+        table.clear();
+        
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(2L));
+    }
+}